@@ -39,6 +39,7 @@ public class ConversionEntry {
 
 	static final String CLI_PROBLEM = "Problem parsing cli options";
 	static final String INVALID_TEMPLATE_SCOPE = "Invalid template scope";
+	static final String INVALID_BLOCK_THRESHOLD = "Invalid block conversion threshold";
 	private static final String TOO_MANY_WILD_CARDS = "Too many wild cards in {}";
 	private static final String NO_INPUT_FILE_SPECIFIED = "No input filename was specified.";
 	private static final String FILE_DOES_NOT_EXIST = "{} does not exist.";
@@ -48,6 +49,7 @@ public class ConversionEntry {
 	static final String SKIP_VALIDATION = "skipValidation";
 	static final String SKIP_DEFAULTS = "skipDefaults";
 	static final String TEMPLATE_SCOPE = "templateScope";
+	static final String BLOCK_THRESHOLD = "blockThreshold";
 	private static final String HELP = "help";
 
 	private static FileSystem fileSystem = FileSystems.getDefault();
@@ -56,6 +58,7 @@ public class ConversionEntry {
 	private static boolean doValidation = true;
 	private static boolean historical;
 	private static Set<QrdaScope> scope = EnumSet.noneOf(QrdaScope.class);
+	private static long blockThreshold;
 	private static Options options;
 	private static HelpFormatter formatter;
 
@@ -87,6 +90,7 @@ public class ConversionEntry {
 		context.setDoValidation(doValidation);
 		context.setHistorical(historical);
 		context.setScope(scope);
+		context.setBlockConversionThreshold(blockThreshold);
 		return context;
 	}
 
@@ -119,7 +123,7 @@ public class ConversionEntry {
 	 * @return determination of validity
 	 */
 	static boolean shouldContinue(CommandLine line) {
-		boolean shouldContinue = !line.hasOption(HELP) && validatedScope(line);
+		boolean shouldContinue = !line.hasOption(HELP) && validatedScope(line) && validatedBlockThreshold(line);
 		if (shouldContinue && line.getArgList().isEmpty()) {
 			DEV_LOG.error(NO_INPUT_FILE_SPECIFIED);
 			shouldContinue = false;
@@ -150,6 +154,30 @@ public class ConversionEntry {
 		return isItValid;
 	}
 
+	/**
+	 * Validate the block conversion threshold passed via command line.
+	 *
+	 * @param line command line arguments
+	 * @return determination of validity
+	 */
+	private static boolean validatedBlockThreshold(CommandLine line) {
+		boolean isItValid = true;
+		blockThreshold = 0;
+		if (line.hasOption(BLOCK_THRESHOLD)) {
+			try {
+				blockThreshold = Long.parseLong(line.getOptionValue(BLOCK_THRESHOLD).trim());
+			} catch (NumberFormatException e) {
+				blockThreshold = -1;
+			}
+
+			if (blockThreshold < 0) {
+				DEV_LOG.error(INVALID_BLOCK_THRESHOLD);
+				isItValid = false;
+			}
+		}
+		return isItValid;
+	}
+
 	/**
 	 * Initialize the command line interface.
 	 */
@@ -169,6 +197,14 @@ public class ConversionEntry {
 				.build();
 		options.addOption(templateScope);
 
+		Option blockThresholdOption = Option.builder("s")
+				.longOpt(BLOCK_THRESHOLD)
+				.argName("bytes")
+				.hasArg()
+				.desc("Convert files larger than this many bytes one measure at a time, to bound memory use")
+				.build();
+		options.addOption(blockThresholdOption);
+
 		formatter = new HelpFormatter();
 	}
 
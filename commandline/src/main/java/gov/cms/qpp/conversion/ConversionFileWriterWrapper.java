@@ -1,15 +1,14 @@
 package gov.cms.qpp.conversion;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.TransformException;
+import gov.cms.qpp.conversion.util.JsonHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
@@ -79,9 +78,8 @@ public class ConversionFileWriterWrapper {
 	 * @param outFile The location to write.
 	 */
 	private void writeOutQpp(JsonWrapper jsonWrapper, Path outFile) {
-		try (Writer writer = Files.newBufferedWriter(outFile)) {
-			writer.write(jsonWrapper.toString());
-			writer.flush();
+		try (OutputStream output = Files.newOutputStream(outFile)) {
+			jsonWrapper.writeTo(output);
 		} catch (IOException exception) {
 			DEV_LOG.error("Could not write out QPP JSON to file", exception);
 		}
@@ -95,11 +93,7 @@ public class ConversionFileWriterWrapper {
 	 */
 	private void writeOutErrors(AllErrors allErrors, Path outFile) {
 		try (Writer writer = Files.newBufferedWriter(outFile)) {
-			ObjectWriter jsonObjectWriter = new ObjectMapper()
-					.setSerializationInclusion(JsonInclude.Include.NON_NULL)
-					.writer()
-					.withDefaultPrettyPrinter();
-			jsonObjectWriter.writeValue(writer, allErrors);
+			JsonHelper.getPrettyNonNullWriter().writeValue(writer, allErrors);
 		} catch (IOException exception) {
 			DEV_LOG.error("Could not write out error JSON to file", exception);
 		}
@@ -32,6 +32,7 @@ class ConversionEntryTest {
 	private static final String SKIP_DEFAULTS = "--" + ConversionEntry.SKIP_DEFAULTS;
 	private static final String SKIP_VALIDATION = "--" + ConversionEntry.SKIP_VALIDATION;
 	private static final String TEMPLATE_SCOPE = "--" + ConversionEntry.TEMPLATE_SCOPE;
+	private static final String BLOCK_THRESHOLD = "--" + ConversionEntry.BLOCK_THRESHOLD;
 
 	@AfterEach
 	void teardown() throws IOException {
@@ -251,6 +252,26 @@ class ConversionEntryTest {
 				.that(result).isTrue();
 	}
 
+	@Test
+	void shouldDenyInvalidBlockThresholds() throws ParseException {
+		for (String threshold : new String[] {"many", "-1"}) {
+			CommandLine line = ConversionEntry.cli("file.txt", BLOCK_THRESHOLD, threshold);
+
+			assertWithMessage("%s is not a valid block conversion threshold", threshold)
+					.that(ConversionEntry.shouldContinue(line)).isFalse();
+		}
+	}
+
+	@Test
+	void shouldAllowValidBlockThreshold() throws ParseException {
+		CommandLine line = ConversionEntry.cli("file.txt", "-s", "1048576");
+
+		assertWithMessage("Should have a block conversion threshold option")
+				.that(line.getOptionValue(ConversionEntry.BLOCK_THRESHOLD)).isEqualTo("1048576");
+		assertWithMessage("1048576 is a valid block conversion threshold")
+				.that(ConversionEntry.shouldContinue(line)).isTrue();
+	}
+
 	@Test
 	void testValidArgsParseException() throws Exception {
 		//when
@@ -0,0 +1,123 @@
+package gov.cms.qpp.conversion.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes an index of the classes annotated as decoders, encoders and validators at compile time, so the handler
+ * registry can find them without scanning the class path.
+ *
+ * Each line of the index holds the annotation, the template id, the program and the handler class, separated by
+ * tabs. The annotations are matched by name, so that this module does not depend on the model that declares them.
+ */
+public class HandlerIndexProcessor extends AbstractProcessor {
+
+	public static final String INDEX_RESOURCE = "META-INF/qpp-conversion/handlers.idx";
+	public static final String SEPARATOR = "\t";
+
+	static final Set<String> ANNOTATIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"gov.cms.qpp.conversion.model.Decoder",
+			"gov.cms.qpp.conversion.model.Encoder",
+			"gov.cms.qpp.conversion.model.Validator")));
+
+	private static final String VALUE = "value";
+	private static final String PROGRAM = "program";
+
+	private final List<String> entries = new ArrayList<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return ANNOTATIONS;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	/**
+	 * Collects the annotated classes of each round, and writes the index once the last round is over
+	 *
+	 * @param annotations annotation types found in this round
+	 * @param roundEnv environment of this round
+	 * @return false, so other processors may also claim the annotations
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				index(annotation, element);
+			}
+		}
+
+		if (roundEnv.processingOver() && !entries.isEmpty()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	private void index(TypeElement annotation, Element element) {
+		if (!(element instanceof TypeElement)) {
+			return;
+		}
+
+		String annotationName = annotation.getQualifiedName().toString();
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			TypeElement mirrorType = (TypeElement) mirror.getAnnotationType().asElement();
+			if (annotationName.equals(mirrorType.getQualifiedName().toString())) {
+				Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+						processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+				String handler = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+				entries.add(String.join(SEPARATOR, annotationName,
+						enumConstant(values, VALUE), enumConstant(values, PROGRAM), handler));
+			}
+		}
+	}
+
+	private static String enumConstant(Map<? extends ExecutableElement, ? extends AnnotationValue> values, String name) {
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if (name.equals(entry.getKey().getSimpleName().toString())) {
+				Object value = entry.getValue().getValue();
+				return value instanceof VariableElement
+						? ((VariableElement) value).getSimpleName().toString() : String.valueOf(value);
+			}
+		}
+		return "";
+	}
+
+	private void writeIndex() {
+		Collections.sort(entries);
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+			try (Writer writer = index.openWriter()) {
+				for (String entry : entries) {
+					writer.write(entry);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+					"Unable to write the handler index, handlers will be found by scanning the class path: " + e);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package gov.cms.qpp.conversion.util;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HandlerIndexProcessorTest {
+
+	private static final String MODEL = "gov/cms/qpp/conversion/model/";
+
+	private Path directory;
+	private Path sources;
+	private Path classes;
+
+	@BeforeEach
+	void setup() throws IOException {
+		directory = Files.createTempDirectory("handler-index");
+		sources = Files.createDirectories(directory.resolve("sources"));
+		classes = Files.createDirectories(directory.resolve("classes"));
+
+		write(MODEL + "TemplateId.java", "package gov.cms.qpp.conversion.model;\n"
+				+ "public enum TemplateId { DEFAULT, CLINICAL_DOCUMENT }");
+		write(MODEL + "Program.java", "package gov.cms.qpp.conversion.model;\n"
+				+ "public enum Program { ALL, CPC }");
+		for (String annotation : Arrays.asList("Decoder", "Encoder", "Validator")) {
+			write(MODEL + annotation + ".java", "package gov.cms.qpp.conversion.model;\n"
+					+ "import java.lang.annotation.*;\n"
+					+ "@Retention(RetentionPolicy.RUNTIME) @Target(ElementType.TYPE)\n"
+					+ "public @interface " + annotation + " {\n"
+					+ "	TemplateId value() default TemplateId.DEFAULT;\n"
+					+ "	Program program() default Program.ALL;\n"
+					+ "}");
+		}
+	}
+
+	@AfterEach
+	void teardown() throws IOException {
+		try (Stream<Path> walk = Files.walk(directory)) {
+			walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	@Test
+	void testIndexesAnnotatedClasses() throws IOException {
+		write("handlers/ClinicalDocumentDecoder.java", "package handlers;\n"
+				+ "import gov.cms.qpp.conversion.model.*;\n"
+				+ "@Decoder(TemplateId.CLINICAL_DOCUMENT)\n"
+				+ "public class ClinicalDocumentDecoder {}");
+		write("handlers/CpcValidator.java", "package handlers;\n"
+				+ "import gov.cms.qpp.conversion.model.*;\n"
+				+ "@Validator(value = TemplateId.CLINICAL_DOCUMENT, program = Program.CPC)\n"
+				+ "public class CpcValidator {}");
+
+		assertThat(compile()).isTrue();
+		assertThat(readIndex()).containsExactly(
+				"gov.cms.qpp.conversion.model.Decoder\tCLINICAL_DOCUMENT\tALL\thandlers.ClinicalDocumentDecoder",
+				"gov.cms.qpp.conversion.model.Validator\tCLINICAL_DOCUMENT\tCPC\thandlers.CpcValidator").inOrder();
+	}
+
+	@Test
+	void testIndexesNestedClassesByBinaryName() throws IOException {
+		write("handlers/Outer.java", "package handlers;\n"
+				+ "import gov.cms.qpp.conversion.model.*;\n"
+				+ "public class Outer {\n"
+				+ "	@Encoder(TemplateId.CLINICAL_DOCUMENT) public static class Inner {}\n"
+				+ "}");
+
+		assertThat(compile()).isTrue();
+		assertThat(readIndex()).containsExactly(
+				"gov.cms.qpp.conversion.model.Encoder\tCLINICAL_DOCUMENT\tALL\thandlers.Outer$Inner");
+	}
+
+	@Test
+	void testNoIndexWithoutHandlers() throws IOException {
+		assertThat(compile()).isTrue();
+		assertThat(Files.exists(classes.resolve(HandlerIndexProcessor.INDEX_RESOURCE))).isFalse();
+	}
+
+	private void write(String name, String source) throws IOException {
+		Path file = sources.resolve(name);
+		Files.createDirectories(file.getParent());
+		Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private boolean compile() throws IOException {
+		List<File> files = new ArrayList<>();
+		try (Stream<Path> walk = Files.walk(sources)) {
+			walk.filter(path -> path.toString().endsWith(".java")).map(Path::toFile).forEach(files::add);
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+			Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+					Arrays.asList("-d", classes.toString()), null, units);
+			task.setProcessors(Collections.singletonList(new HandlerIndexProcessor()));
+			return task.call();
+		}
+	}
+
+	private List<String> readIndex() throws IOException {
+		return Files.readAllLines(classes.resolve(HandlerIndexProcessor.INDEX_RESOURCE), StandardCharsets.UTF_8);
+	}
+}
@@ -3,11 +3,16 @@ package gov.cms.qpp.conversion;
 import java.lang.annotation.Annotation;
 import java.util.EnumSet;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Program;
 import gov.cms.qpp.conversion.model.Registry;
+import gov.cms.qpp.conversion.model.ValueInterner;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
 
 /**
@@ -16,12 +21,19 @@ import gov.cms.qpp.conversion.segmentation.QrdaScope;
  */
 public class Context {
 
-	private final Map<Class<? extends Annotation>, Registry<?>> registries = new IdentityHashMap<>();
+	private final Map<Class<? extends Annotation>, Registry<?>> registries = new ConcurrentHashMap<>();
+	private final Map<Node, JsonWrapper> releasedBlocks = new IdentityHashMap<>();
+	private final ValueInterner valueInterner = new ValueInterner();
 	private Program program = Program.ALL;
 	private Set<QrdaScope> scope = EnumSet.noneOf(QrdaScope.class);
 	private boolean historical;
 	private boolean doDefaults = true;
 	private boolean doValidation = true;
+	private boolean streamingDecode;
+	private boolean parallelDecode;
+	private boolean parallelValidation;
+	private int maxValidationDetails;
+	private long blockConversionThreshold;
 
 	/**
 	 * Gets the current contextual {@link Program}
@@ -122,6 +134,132 @@ public class Context {
 		this.doValidation = doValidation;
 	}
 
+	/**
+	 * Whether this context wants the XML decoded as it is streamed rather than from a fully built document
+	 *
+	 * @return streamingDecode
+	 */
+	public boolean isStreamingDecode() {
+		return streamingDecode;
+	}
+
+	/**
+	 * Switch for decoding the body of a QRDA III document one section at a time while it is being read.
+	 *
+	 * @param streamingDecode toggle value
+	 */
+	public void setStreamingDecode(boolean streamingDecode) {
+		this.streamingDecode = streamingDecode;
+	}
+
+	/**
+	 * Whether this context wants the sections of a QRDA III document decoded in parallel
+	 *
+	 * @return parallelDecode
+	 */
+	public boolean isParallelDecode() {
+		return parallelDecode;
+	}
+
+	/**
+	 * Switch for decoding the component sections of a ClinicalDocument concurrently on the common fork-join pool.
+	 *
+	 * @param parallelDecode toggle value
+	 */
+	public void setParallelDecode(boolean parallelDecode) {
+		this.parallelDecode = parallelDecode;
+	}
+
+	/**
+	 * Whether this context wants independent subtrees of the decoded document validated in parallel
+	 *
+	 * @return parallelValidation
+	 */
+	public boolean isParallelValidation() {
+		return parallelValidation;
+	}
+
+	/**
+	 * Switch for validating the subtrees of a node concurrently on the common fork-join pool. The details are
+	 * reported in the same order as when validating on one thread.
+	 *
+	 * @param parallelValidation toggle value
+	 */
+	public void setParallelValidation(boolean parallelValidation) {
+		this.parallelValidation = parallelValidation;
+	}
+
+	/**
+	 * Gets the number of validation errors after which validation stops
+	 *
+	 * @return maxValidationDetails, zero when validation always runs over the whole document
+	 */
+	public int getMaxValidationDetails() {
+		return maxValidationDetails;
+	}
+
+	/**
+	 * Sets the number of validation errors after which validation stops, and the errors are reported as truncated.
+	 * One stops at the first error. Zero, the default, validates the whole document.
+	 *
+	 * @param maxValidationDetails error budget
+	 */
+	public void setMaxValidationDetails(int maxValidationDetails) {
+		this.maxValidationDetails = Math.max(0, maxValidationDetails);
+	}
+
+	/**
+	 * Gets the source size, in bytes, above which a source is converted one measure reference results block at a time
+	 *
+	 * @return blockConversionThreshold, 0 when sources are always converted whole
+	 */
+	public long getBlockConversionThreshold() {
+		return blockConversionThreshold;
+	}
+
+	/**
+	 * Sets the source size, in bytes, above which a source is converted one measure reference results block at a
+	 * time, releasing each block once it has been validated and encoded. Scoped conversions are always converted whole.
+	 *
+	 * @param blockConversionThreshold source size in bytes, 0 to always convert sources whole
+	 */
+	public void setBlockConversionThreshold(long blockConversionThreshold) {
+		this.blockConversionThreshold = Math.max(0, blockConversionThreshold);
+	}
+
+	/**
+	 * Gets the table the values decoded by this conversion are interned in
+	 *
+	 * @return The intern table of the conversion
+	 */
+	public ValueInterner getValueInterner() {
+		return valueInterner;
+	}
+
+	/**
+	 * Folds the encoding of a block whose descendants are about to be released into the encoded measurements of
+	 * its parent, in the order the blocks are released. The content and provenance of the encoding are moved into
+	 * the measurements, and the given wrapper is not kept.
+	 *
+	 * @param block Node of the block
+	 * @param encoded The encoded block
+	 */
+	public void foldReleasedBlock(Node block, JsonWrapper encoded) {
+		releasedBlocks.computeIfAbsent(block.getParent(), parent -> new JsonWrapper()).putObject(encoded);
+	}
+
+	/**
+	 * Takes the encodings folded for the released blocks of a node, so they are placed in the output in place of
+	 * encoding the blocks again. The context no longer holds them afterwards.
+	 *
+	 * @param parent Node holding the blocks
+	 * @return The encoded blocks in the order they were released, or null if no block of the node was released
+	 */
+	public Iterator<JsonWrapper> takeReleasedBlocks(Node parent) {
+		JsonWrapper folded = releasedBlocks.remove(parent);
+		return folded == null ? null : folded.stream().iterator();
+	}
+
 	/**
 	 * Looks up or creates a new {@link Registry} for the given annotation type under this context
 	 *
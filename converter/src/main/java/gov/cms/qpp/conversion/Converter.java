@@ -1,7 +1,7 @@
 package gov.cms.qpp.conversion;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.cms.qpp.conversion.decode.XmlInputDecoder;
 import gov.cms.qpp.conversion.decode.XmlInputFileException;
 import gov.cms.qpp.conversion.decode.placeholder.DefaultDecoder;
@@ -10,21 +10,23 @@ import gov.cms.qpp.conversion.encode.JsonOutputEncoder;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.encode.QppOutputEncoder;
 import gov.cms.qpp.conversion.encode.ScopedQppOutputEncoder;
+import gov.cms.qpp.conversion.model.Encoder;
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Registry;
+import gov.cms.qpp.conversion.model.ValueInterner;
 import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.Detail;
 import gov.cms.qpp.conversion.model.error.Error;
 import gov.cms.qpp.conversion.model.error.ErrorCode;
 import gov.cms.qpp.conversion.model.error.TransformException;
-import gov.cms.qpp.conversion.util.CloneHelper;
+import gov.cms.qpp.conversion.util.JsonHelper;
 import gov.cms.qpp.conversion.validate.QrdaValidator;
 import gov.cms.qpp.conversion.xml.XmlException;
-import gov.cms.qpp.conversion.xml.XmlUtils;
-import org.jdom2.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -44,8 +46,12 @@ public class Converter {
 	private final Source source;
 	private final Context context;
 	private List<Detail> details = new ArrayList<>();
+	private QrdaValidator validator;
 	private Node decoded;
 	private JsonWrapper encoded;
+	private JsonWrapper encodedSnapshot;
+	private Node firstReleased;
+	private String firstReleasedPath;
 
 	/**
 	 * Constructor for the CLI Converter application
@@ -82,7 +88,7 @@ public class Converter {
 	public JsonWrapper transform() {
 		DEV_LOG.info("Transform invoked");
 		try {
-			encoded = transform(source.toInputStream());
+			encoded = isBounded() ? transformInBlocks() : transform(source.toInputStream());
 		} catch (XmlInputFileException | XmlException xe) {
 			DEV_LOG.error(ErrorCode.NOT_VALID_XML_DOCUMENT.getMessage(), xe);
 			Detail detail = Detail.forErrorCode(ErrorCode.NOT_VALID_XML_DOCUMENT);
@@ -93,6 +99,12 @@ public class Converter {
 			details.add(detail);
 		}
 
+		freeze();
+
+		ValueInterner interner = context.getValueInterner();
+		DEV_LOG.debug("Interned {} values, retaining an estimated {} fewer bytes of heap",
+				interner.getInternedCount(), interner.getSavedBytes());
+
 		if (!details.isEmpty()) {
 			throw new TransformException("Validation errors exist", null, getReport());
 		}
@@ -100,6 +112,31 @@ public class Converter {
 		return encoded;
 	}
 
+	/**
+	 * Makes the decoded tree read only, so the report can hand it out without copying it.
+	 * The encoded output is left as is, as the wrapper returned by {@link #transform()} remains the caller's to change.
+	 *
+	 * @see #getEncodedSnapshot()
+	 */
+	private void freeze() {
+		if (decoded != null) {
+			decoded.freeze();
+		}
+	}
+
+	/**
+	 * Gets a read only snapshot of the encoded output, taken the first time it is asked for.
+	 * Conversions whose report never hands out the encoded output, such as those of the command line, never copy it.
+	 *
+	 * @return the snapshot, or null if nothing was encoded
+	 */
+	private synchronized JsonWrapper getEncodedSnapshot() {
+		if (encodedSnapshot == null && encoded != null) {
+			encodedSnapshot = encoded.snapshot();
+		}
+		return encodedSnapshot;
+	}
+
 	/**
 	 * Transform the content in a given input stream
 	 *
@@ -108,8 +145,114 @@ public class Converter {
 	 * @throws XmlException during transform
 	 */
 	private JsonWrapper transform(InputStream inStream) throws XmlException {
-		Element doc = XmlUtils.parseXmlStream(inStream);
-		decoded = XmlInputDecoder.decodeXml(context, doc);
+		decoded = XmlInputDecoder.decodeXml(context, inStream);
+		return transformDecoded();
+	}
+
+	/**
+	 * Determines whether the source is to be converted one measure reference results block at a time
+	 *
+	 * @return true if the source is larger than the context's block conversion threshold
+	 */
+	private boolean isBounded() {
+		long threshold = context.getBlockConversionThreshold();
+		return threshold > 0 && !context.hasScope() && source.getSize() > threshold;
+	}
+
+	/**
+	 * Transform the source one measure reference results block at a time. Each block is validated and encoded as
+	 * soon as it is decoded, after which its descendants are released. Document level validation and encoding then
+	 * run over the tree of retained block nodes.
+	 *
+	 * @return a transformed representation of the source content
+	 * @throws XmlException during transform
+	 */
+	private JsonWrapper transformInBlocks() throws XmlException {
+		DEV_LOG.info("Transforming {} one measure block at a time", source.getName());
+		try (InputStream inStream = source.toInputStream()) {
+			decoded = XmlInputDecoder.decodeXml(context, inStream, this::releaseBlock);
+		} catch (IOException e) {
+			throw new XmlException("Failed to read XML stream", e);
+		}
+		relocateReleasedDetails();
+		return transformDecoded();
+	}
+
+	/**
+	 * Validates and encodes a decoded measure reference results block, then releases its descendants. The block
+	 * node keeps its own values, so the measure is still seen by the validation of the nodes above it.
+	 *
+	 * @param block decoded measure reference results block
+	 */
+	private void releaseBlock(Node block) {
+		if (firstReleased == null) {
+			firstReleased = block;
+			firstReleasedPath = block.getPath();
+		}
+
+		if (!context.isDoDefaults()) {
+			DefaultDecoder.removeDefaultNode(block.getChildNodes());
+		}
+
+		if (context.isDoValidation()) {
+			details.addAll(validate(block));
+		}
+
+		if (details.isEmpty()) {
+			Registry<JsonOutputEncoder> encoders = context.getRegistry(Encoder.class);
+			JsonOutputEncoder encoder = encoders.get(block.getType());
+			if (encoder != null) {
+				JsonWrapper wrapper = new JsonWrapper();
+				encoder.encode(wrapper, block);
+				details.addAll(encoder.getDetails());
+				context.foldReleasedBlock(block, wrapper);
+			}
+		}
+
+		block.setChildNodes();
+		block.setValidated(true);
+	}
+
+	/**
+	 * Corrects the paths of the errors found in released blocks once the decode settled the paths of the first
+	 * section of the document. Whether they carry the position of that section is only known at the end of the
+	 * document body, after the blocks of the section were validated.
+	 */
+	private void relocateReleasedDetails() {
+		if (firstReleased == null || firstReleasedPath.equals(firstReleased.getPath())) {
+			return;
+		}
+
+		// the paths differ in a single step, and share the steps below it
+		String releasedPath = firstReleasedPath;
+		String settledPath = firstReleased.getPath();
+		int common = 0;
+		while (common < Math.min(releasedPath.length(), settledPath.length())
+				&& releasedPath.charAt(releasedPath.length() - 1 - common)
+						== settledPath.charAt(settledPath.length() - 1 - common)) {
+			common++;
+		}
+		while (common > 0 && releasedPath.charAt(releasedPath.length() - common) != '/') {
+			common--;
+		}
+		String releasedStep = releasedPath.substring(0, releasedPath.length() - common);
+		String settledStep = settledPath.substring(0, settledPath.length() - common);
+
+		for (Detail detail : details) {
+			String path = detail.getPath();
+			if (path != null && path.startsWith(releasedStep)
+					&& (path.length() == releasedStep.length() || path.charAt(releasedStep.length()) == '/')) {
+				detail.setPath(settledStep + path.substring(releasedStep.length()));
+			}
+		}
+	}
+
+	/**
+	 * Validates and encodes the decoded content
+	 *
+	 * @return a transformed representation of the decoded content
+	 */
+	private JsonWrapper transformDecoded() {
 		JsonWrapper qpp = null;
 		if (null != decoded) {
 			DEV_LOG.info("Decoded template ID {}", decoded.getType());
@@ -117,10 +260,10 @@ public class Converter {
 			if (!context.isDoDefaults()) {
 				DefaultDecoder.removeDefaultNode(decoded.getChildNodes());
 			}
+			decoded.indexDescendants();
 
 			if (context.isDoValidation()) {
-				QrdaValidator validator = new QrdaValidator(context);
-				details.addAll(validator.validate(decoded));
+				details.addAll(validate(decoded));
 			}
 
 			if (details.isEmpty()) {
@@ -134,6 +277,20 @@ public class Converter {
 		return qpp;
 	}
 
+	/**
+	 * Validates decoded content. One validator serves the whole conversion, so the blocks and the document share
+	 * the context's maximum number of validation errors, and nothing is validated once it is reached.
+	 *
+	 * @param node decoded content
+	 * @return the validation errors
+	 */
+	private List<Detail> validate(Node node) {
+		if (validator == null) {
+			validator = new QrdaValidator(context);
+		}
+		return validator.validate(node);
+	}
+
 	/**
 	 * Place transformed content into an input stream
 	 *
@@ -177,7 +334,7 @@ public class Converter {
 	 * Report on the stat of a conversion.
 	 */
 	public class ConversionReport {
-		private final ObjectMapper mapper = new ObjectMapper();
+		private final ObjectWriter writer = JsonHelper.getWriter();
 		private AllErrors reportDetails;
 		private String qppValidationDetails;
 
@@ -215,21 +372,43 @@ public class Converter {
 		}
 
 		/**
-		 * Defensive copy of decoded submission
+		 * Read only view of decoded submission
 		 *
-		 * @return decoded {@link Node}
+		 * @return decoded {@link Node}, frozen once the conversion is complete
+		 * @see Node#copy()
 		 */
 		public Node getDecoded() {
-			return CloneHelper.deepClone(decoded);
+			return decoded;
 		}
 
 		/**
-		 * Defensive copy of the result of the conversion
+		 * Read only snapshot of the result of the conversion, taken on the first call
 		 *
 		 * @return encoded {@link JsonWrapper}
 		 */
 		public JsonWrapper getEncoded() {
-			return CloneHelper.deepClone(encoded);
+			return getEncodedSnapshot();
+		}
+
+		/**
+		 * Number of decoded values that were replaced by an equal instance already held
+		 *
+		 * @return count of replaced values
+		 * @see ValueInterner
+		 */
+		public long getInternedValueCount() {
+			return context.getValueInterner().getInternedCount();
+		}
+
+		/**
+		 * Estimated heap the decoded submission no longer retains because values were replaced by an equal instance
+		 * already held
+		 *
+		 * @return estimated bytes saved
+		 * @see ValueInterner
+		 */
+		public long getInternedBytesSaved() {
+			return context.getValueInterner().getSavedBytes();
 		}
 
 		/**
@@ -284,7 +463,7 @@ public class Converter {
 		 */
 		public Source getValidationErrorsSource() {
 			try {
-				byte[] validationErrorBytes = mapper.writeValueAsBytes(reportDetails);
+				byte[] validationErrorBytes = writer.writeValueAsBytes(reportDetails);
 				return new InputStreamSupplierSource("ValidationErrors", () -> new ByteArrayInputStream(validationErrorBytes), validationErrorBytes.length);
 			} catch (JsonProcessingException e) {
 				throw new EncodeException("Issue serializing error report details", e);
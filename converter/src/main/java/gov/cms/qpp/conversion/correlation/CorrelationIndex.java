@@ -0,0 +1,119 @@
+package gov.cms.qpp.conversion.correlation;
+
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.encode.Provenance;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Correlates the json hashes of one encoded QPP document with their origins in the QRDA document.
+ *
+ * The index is built once from the {@link Provenance} a {@link JsonWrapper} recorded while encoding. For every json
+ * hash it resolves up front which origin each encoded attribute correlates to, so that
+ * {@link PathCorrelator#prepPath(String, CorrelationIndex)} is a pair of hash lookups however many paths are asked for.
+ */
+public final class CorrelationIndex {
+
+	private final Map<String, Origins> hashes;
+
+	private CorrelationIndex(Map<String, Origins> hashes) {
+		this.hashes = hashes;
+	}
+
+	/**
+	 * Indexes the content of a wrapper.
+	 *
+	 * @param wrapper object representation of QPP json
+	 * @return the index, unaffected by later changes to the wrapper
+	 */
+	public static CorrelationIndex of(JsonWrapper wrapper) {
+		Map<String, Origins> hashes = new HashMap<>();
+		index(wrapper, "", wrapper.getObject(), hashes);
+		return new CorrelationIndex(hashes);
+	}
+
+	/**
+	 * Indexes json content and everything it holds.
+	 *
+	 * @param wrapper wrapper holding the provenance
+	 * @param pointer JSON pointer of the content
+	 * @param content json hash, array or value
+	 * @param hashes index being built
+	 */
+	private static void index(JsonWrapper wrapper, String pointer, Object content, Map<String, Origins> hashes) {
+		if (content instanceof Map) {
+			hashes.put(pointer, new Origins(wrapper.getProvenance(pointer)));
+			((Map<?, ?>) content).forEach((name, value) ->
+					index(wrapper, JsonWrapper.pointer(pointer, name), value, hashes));
+		} else if (content instanceof List) {
+			hashes.put(pointer, Origins.NONE);
+			List<?> entries = (List<?>) content;
+			for (int index = 0; index < entries.size(); index++) {
+				index(wrapper, JsonWrapper.pointer(pointer, index), entries.get(index), hashes);
+			}
+		}
+	}
+
+	/**
+	 * Whether json content is found at a pointer.
+	 *
+	 * @param pointer JSON pointer of a json hash or array
+	 * @return true if the document holds a hash or array there
+	 */
+	boolean contains(String pointer) {
+		return hashes.containsKey(pointer);
+	}
+
+	/**
+	 * Retrieves the origin an attribute of a json hash correlates to.
+	 *
+	 * @param pointer JSON pointer of the json hash
+	 * @param leaf attribute name, empty for the hash itself
+	 * @return the origin recorded for the attribute, else that of the hash, or null if neither is known
+	 */
+	Provenance getProvenance(String pointer, String leaf) {
+		Origins origins = hashes.get(pointer);
+		return origins == null ? null : origins.get(leaf);
+	}
+
+	/**
+	 * The origins of a single json hash: the node the hash was encoded from, and the nodes individual attributes
+	 * were harvested from.
+	 */
+	private static final class Origins {
+		private static final Origins NONE = new Origins(Collections.emptyList());
+
+		private final Map<String, Provenance> labeled;
+		private final Provenance unlabeled;
+
+		/**
+		 * Resolves the origins of a hash. The first record made for a label wins, and only labels with a known
+		 * correlation are kept.
+		 *
+		 * @param records provenance recorded for the hash, in the order it was recorded
+		 */
+		private Origins(List<Provenance> records) {
+			Map<String, Provenance> byLabel = new HashMap<>();
+			Provenance first = null;
+			for (Provenance record : records) {
+				String label = record.getEncodeLabel();
+				if (label.isEmpty()) {
+					first = first == null ? record : first;
+				} else if (!byLabel.containsKey(label)
+						&& PathCorrelator.getXpath(record.getTemplate(), label, record.getNsUri()) != null) {
+					byLabel.put(label, record);
+				}
+			}
+			this.labeled = byLabel.isEmpty() ? Collections.emptyMap() : byLabel;
+			this.unlabeled = first;
+		}
+
+		private Provenance get(String leaf) {
+			Provenance provenance = labeled.get(leaf);
+			return provenance == null ? unlabeled : provenance;
+		}
+	}
+}
@@ -1,20 +1,22 @@
 package gov.cms.qpp.conversion.correlation;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.PathNotFoundException;
 import gov.cms.qpp.conversion.correlation.model.Config;
 import gov.cms.qpp.conversion.correlation.model.Correlation;
 import gov.cms.qpp.conversion.correlation.model.Goods;
 import gov.cms.qpp.conversion.correlation.model.PathCorrelation;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.encode.Provenance;
+import gov.cms.qpp.conversion.util.JsonHelper;
 import org.reflections.util.ClasspathHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -25,9 +27,9 @@ import java.util.stream.Collectors;
 public class PathCorrelator {
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(PathCorrelator.class);
 	public static final String KEY_DELIMITER = "#";
-	private static final String ENCODE_LABEL = "encodeLabel";
 	private static String config = "pathing/path-correlation.json";
 	private static Map<String, Goods> pathCorrelationMap = new HashMap<>();
+	private static Map<String, RelativeXPath> compiledXpathMap = new HashMap<>();
 	private static String uriSubstitution = "";
 
 
@@ -45,8 +47,7 @@ public class PathCorrelator {
 
 		try {
 			InputStream input = ClasspathHelper.contextClassLoader().getResourceAsStream(config);
-			ObjectMapper mapper = new ObjectMapper();
-			pathCorrelation = mapper.readValue(input, PathCorrelation.class);
+			pathCorrelation = JsonHelper.getReader().forType(PathCorrelation.class).readValue(input);
 			flattenCorrelations(pathCorrelation);
 		} catch (IOException ioe) {
 			String message = "Problem loading path correlation configuration";
@@ -66,12 +67,15 @@ public class PathCorrelator {
 	private static void flattenCorrelations(PathCorrelation pathCorrelation) {
 		Map<String, List<Config>> config = pathCorrelation.getCorrelations().stream()
 				.collect(Collectors.toMap(Correlation::getCorrelationId, Correlation::getConfig));
+		Map<Goods, RelativeXPath> compiled = new IdentityHashMap<>();
 		pathCorrelation.getTemplates().forEach(template -> {
 			List<Config> configs = config.get(template.getCorrelationId());
 			configs.forEach(conf -> {
 				if (null != conf.getDecodeLabel()) {
-					pathCorrelationMap.put(
-							getKey(template.getTemplateId(), conf.getDecodeLabel()), conf.getGoods());
+					String key = getKey(template.getTemplateId(), conf.getDecodeLabel());
+					pathCorrelationMap.put(key, conf.getGoods());
+					compiledXpathMap.put(key, compiled.computeIfAbsent(conf.getGoods(),
+							goods -> RelativeXPath.compile(goods.getRelativeXPath(), pathCorrelation.getUriSubstitution())));
 				}
 				conf.getEncodeLabels().forEach(label ->
 					pathCorrelationMap.put(getKey(template.getTemplateId(), label), conf.getGoods()));
@@ -115,86 +119,142 @@ public class PathCorrelator {
 	}
 
 	/**
-	 * Assemble an xpath using the given json path and json wrapper.
+	 * Retrieve the compiled xpath for a given base template and decoded attribute.
+	 *
+	 * @param base base template name
+	 * @param attribute decoded attribute name
+	 * @return compiled xpath, evaluated against a namespace URI
+	 */
+	public static RelativeXPath getCompiledXpath(String base, String attribute) {
+		return compiledXpathMap.get(getKey(base, attribute));
+	}
+
+	/**
+	 * Assemble an xpath using the given json path and json wrapper. The wrapper is indexed for this one path, so
+	 * use {@link #prepPath(String, CorrelationIndex)} to correlate several paths of the same document.
 	 *
 	 * @param jsonPath definite json path
 	 * @param wrapper object representation of QPP json
 	 * @return xpath that correlates to supplied json path
+	 * @throws PathNotFoundException if the json path does not lead to content of the wrapper
 	 */
 	public static String prepPath(String jsonPath, JsonWrapper wrapper) {
+		return prepPath(jsonPath, CorrelationIndex.of(wrapper));
+	}
+
+	/**
+	 * Assemble an xpath using the given json path and the correlation index of a json document.
+	 *
+	 * @param jsonPath definite json path
+	 * @param index correlation index of the QPP json
+	 * @return xpath that correlates to supplied json path
+	 * @throws PathNotFoundException if the json path does not lead to content of the document
+	 */
+	public static String prepPath(String jsonPath, CorrelationIndex index) {
 		String base = "$";
 		String leaf = jsonPath;
 		int lastIndex = jsonPath.lastIndexOf('.');
-		JsonWrapper metaWrapper = new JsonWrapper(wrapper, false);
 
 		if (lastIndex > 0) {
 			base = jsonPath.substring(0, lastIndex);
 			leaf = jsonPath.substring(lastIndex + 1);
 		}
 
-		JsonPath compiledPath = JsonPath.compile(base);
-		Map<String, Object> jsonMap = compiledPath.read(metaWrapper.toString());
+		String pointer = toPointer(base);
+		if (!index.contains(pointer)) {
+			throw new PathNotFoundException("No results for path: " + jsonPath);
+		}
 
-		Map<String, String> metaMap = getMetaMap(jsonMap, leaf);
+		Provenance provenance = index.getProvenance(pointer, leaf);
 		String preparedPath = "";
-		if (metaMap != null) {
-			preparedPath = makePath(metaMap, leaf);
+		if (provenance != null) {
+			preparedPath = makePath(provenance, leaf);
 		}
 		return preparedPath;
 	}
 
 	/**
-	 * Retrieve metadata from map representing a json hash.
+	 * Convert a definite json path, in the dot or bracket notation of JsonPath, to a JSON pointer.
 	 *
-	 * @param jsonMap json hash
-	 * @param leaf name of leaf json attribute
-	 * @return metadata map
+	 * @param jsonPath definite json path, with or without the leading "$"
+	 * @return JSON pointer of the content the path leads to
+	 * @throws InvalidPathException if the json path is not a definite path
 	 */
-	@SuppressWarnings("unchecked")
-	private static Map<String, String> getMetaMap(Map<String, Object> jsonMap, final String leaf) {
-		List<Map<String, String>> metaHolder = (List<Map<String, String>>) jsonMap.get("metadata_holder");
-		return metaHolder.stream()
-				.sorted(labeledFirst())
-				.filter(entry -> {
-					String encodeLabel = entry.get(ENCODE_LABEL);
-					if (encodeLabel.equals(leaf)) {
-						return leaf.isEmpty()
-								|| PathCorrelator.getXpath(entry.get("template"), leaf, entry.get("nsuri")) != null;
-					} else {
-						return encodeLabel.isEmpty();
-					}
-				})
-				.findFirst()
-				.orElse(null);
+	static String toPointer(String jsonPath) {
+		String path = jsonPath.startsWith("$") ? jsonPath.substring(1) : "." + jsonPath;
+		String pointer = "";
+		int position = 0;
+
+		while (position < path.length()) {
+			int end;
+			Object token;
+			if (path.charAt(position) == '.' && nextStep(path, position + 1) > position + 1) {
+				end = nextStep(path, position + 1);
+				token = path.substring(position + 1, end);
+			} else if (path.charAt(position) == '[' && path.indexOf(']', position) > position + 1) {
+				end = path.indexOf(']', position) + 1;
+				token = bracketToken(path.substring(position + 1, end - 1), jsonPath);
+			} else {
+				throw new InvalidPathException("Not a definite json path: " + jsonPath);
+			}
+
+			pointer = JsonWrapper.pointer(pointer, token);
+			position = end;
+		}
+		return pointer;
 	}
 
 	/**
-	 * Order metadata maps by placing a higher priority on maps containing a non-empty
-	 * {@link PathCorrelator#ENCODE_LABEL}.
+	 * Find where the attribute name of a dot notation step ends.
 	 *
-	 * @return a comparator that will enact prioritization
+	 * @param path json path
+	 * @param from position of the first character of the name
+	 * @return position of the next step, or the length of the path
 	 */
-	private static Comparator<Map<String, String>> labeledFirst() {
-		return (Map<String, String> map1, Map<String, String> map2) -> {
-			String map1Label = map1.get(ENCODE_LABEL);
-			String map2Label = map2.get(ENCODE_LABEL);
-			
-			return Boolean.compare(map1Label.isEmpty(), map2Label.isEmpty());
-		};
+	private static int nextStep(String path, int from) {
+		for (int position = from; position < path.length(); position++) {
+			char character = path.charAt(position);
+			if (character == '.' || character == '[') {
+				return position;
+			}
+		}
+		return path.length();
+	}
+
+	/**
+	 * Interpret the content of a bracket notation step.
+	 *
+	 * @param content text between the brackets
+	 * @param jsonPath json path, for error messages
+	 * @return the quoted attribute name, or the array index
+	 */
+	private static Object bracketToken(String content, String jsonPath) {
+		char quote = content.charAt(0);
+		if ((quote == '\'' || quote == '"') && content.length() > 1 && content.charAt(content.length() - 1) == quote) {
+			return content.substring(1, content.length() - 1);
+		}
+
+		try {
+			int index = Integer.parseInt(content.trim());
+			if (index >= 0) {
+				return index;
+			}
+		} catch (NumberFormatException exception) {
+			DEV_LOG.debug("Not an array index: {}", content);
+		}
+		throw new InvalidPathException("Not a definite json path: " + jsonPath);
 	}
 
 	/**
 	 * Assemble base xpath with a relative xpath that identifies a leaf json attribute.
 	 *
-	 * @param metadata attribute specific metadata hash
+	 * @param provenance origin of the json hash holding the attribute
 	 * @param leaf attribute name
 	 * @return xpath expression
 	 */
-	private static String makePath(Map<String, String> metadata, final String leaf) {
-		String nsUri = metadata.get("nsuri");
-		String baseTemplate = metadata.get("template");
-		String baseXpath = metadata.get("path");
-		String relativeXpath = PathCorrelator.getXpath(baseTemplate, leaf, nsUri);
+	private static String makePath(Provenance provenance, final String leaf) {
+		String baseXpath = provenance.getPath();
+		String relativeXpath = PathCorrelator.getXpath(provenance.getTemplate(), leaf, provenance.getNsUri());
 		return (relativeXpath != null) ? (baseXpath + "/" + relativeXpath) : baseXpath;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,276 @@
+package gov.cms.qpp.conversion.correlation;
+
+import org.jdom2.Element;
+import org.jdom2.filter.Filter;
+import org.jdom2.filter.Filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A relative xpath from the path correlation configuration, compiled into a direct walk of child elements.
+ *
+ * Only the subset of xpath used by <a href="https://github.com/CMSgov/qpp-conversion-tool/blob/master/converter/src/main/resources/pathing/path-correlation.json">path-correlation.json</a>
+ * is supported: child element steps matched by local name and namespace uri with an optional attribute equality
+ * predicate, optionally ending with an attribute step. Results are returned in document order.
+ */
+public final class RelativeXPath {
+
+	private static final String CURRENT = ".";
+	private static final Pattern ELEMENT_STEP = Pattern.compile(
+			"/\\*\\[local-name\\(\\) = '([^']*)' and namespace-uri\\(\\) = '([^']*)'\\](?:\\[@([\\w-]+)='([^']*)'\\])?");
+	private static final Pattern ATTRIBUTE_STEP = Pattern.compile("/@([\\w-]+)");
+
+	private final String expression;
+	private final List<Step> steps;
+	private final String attribute;
+
+	private RelativeXPath(String expression, List<Step> steps, String attribute) {
+		this.expression = expression;
+		this.steps = steps;
+		this.attribute = attribute;
+	}
+
+	/**
+	 * Compiles a relative xpath.
+	 *
+	 * @param expression relative xpath expression
+	 * @param uriSubstitution placeholder for the namespace uri that is supplied on evaluation
+	 * @return compiled path
+	 * @throws PathCorrelationException if the expression is outside of the supported subset of xpath
+	 */
+	public static RelativeXPath compile(String expression, String uriSubstitution) {
+		if (!expression.startsWith(CURRENT)) {
+			throw unsupported(expression);
+		}
+
+		List<Step> steps = new ArrayList<>();
+		String attribute = null;
+		Matcher elementStep = ELEMENT_STEP.matcher(expression);
+		Matcher attributeStep = ATTRIBUTE_STEP.matcher(expression);
+		int position = CURRENT.length();
+
+		while (position < expression.length()) {
+			elementStep.region(position, expression.length());
+			attributeStep.region(position, expression.length());
+
+			if (attribute == null && elementStep.lookingAt()) {
+				String namespaceUri = elementStep.group(2);
+				steps.add(new Step(elementStep.group(1),
+						namespaceUri.equals(uriSubstitution) ? null : namespaceUri,
+						elementStep.group(3), elementStep.group(4)));
+				position = elementStep.end();
+			} else if (attribute == null && attributeStep.lookingAt()) {
+				attribute = attributeStep.group(1);
+				position = attributeStep.end();
+			} else {
+				throw unsupported(expression);
+			}
+		}
+
+		return new RelativeXPath(expression, Collections.unmodifiableList(steps), attribute);
+	}
+
+	/**
+	 * Finds all elements, or attributes when the path ends with an attribute step, that the path selects.
+	 *
+	 * @param context element the path is relative to
+	 * @param namespaceUri namespace uri that replaces the substitution placeholder
+	 * @return selected elements or attributes in document order
+	 */
+	public List<Object> evaluate(Element context, String namespaceUri) {
+		List<Object> selected = new ArrayList<>();
+		select(context, 0, namespaceUri, Filters.fpassthrough(), selected, false);
+		return selected;
+	}
+
+	/**
+	 * Finds the first element, or attribute when the path ends with an attribute step, that the path selects.
+	 *
+	 * @param context element the path is relative to
+	 * @param namespaceUri namespace uri that replaces the substitution placeholder
+	 * @return first selected element or attribute, or null if nothing is selected
+	 */
+	public Object evaluateFirst(Element context, String namespaceUri) {
+		return evaluateFirst(context, namespaceUri, Filters.fpassthrough());
+	}
+
+	/**
+	 * Finds the first selection of the path that passes a filter. Selections the filter rejects do not stop the walk.
+	 *
+	 * @param context element the path is relative to
+	 * @param namespaceUri namespace uri that replaces the substitution placeholder
+	 * @param filter filter a selection must pass
+	 * @param <T> type of the filtered selection
+	 * @return first filtered selection, or null if nothing passes the filter
+	 */
+	public <T> T evaluateFirst(Element context, String namespaceUri, Filter<T> filter) {
+		List<T> selected = new ArrayList<>(1);
+		select(context, 0, namespaceUri, filter, selected, true);
+		return selected.isEmpty() ? null : selected.get(0);
+	}
+
+	/**
+	 * Finds the selections of several paths with a single walk of the child elements they have in common.
+	 *
+	 * @param context element the paths are relative to
+	 * @param namespaceUri namespace uri that replaces the substitution placeholder
+	 * @param paths compiled paths
+	 * @param filters for each path, the filter its selections must pass
+	 * @param selectOne for each path, whether only its first filtered selection is wanted
+	 * @return for each path, its filtered selections in document order
+	 */
+	public static List<List<Object>> evaluate(Element context, String namespaceUri,
+			List<RelativeXPath> paths, List<Filter<?>> filters, boolean[] selectOne) {
+		List<List<Object>> selected = new ArrayList<>(paths.size());
+		int[] active = new int[paths.size()];
+		for (int index = 0; index < active.length; index++) {
+			selected.add(new ArrayList<>());
+			active[index] = index;
+		}
+
+		selectAll(context, 0, active, active.length, namespaceUri, paths, filters, selectOne, selected);
+		return selected;
+	}
+
+	/**
+	 * Walks the remaining steps of the active paths from the given element.
+	 *
+	 * @param element element reached by the preceding steps of every active path
+	 * @param depth number of steps walked
+	 * @param active indexes of the paths that reached the element
+	 * @param activeCount number of active paths
+	 * @param namespaceUri namespace uri that replaces the substitution placeholder
+	 * @param paths compiled paths
+	 * @param filters for each path, the filter its selections must pass
+	 * @param selectOne for each path, whether only its first filtered selection is wanted
+	 * @param selected accumulator of selections for each path
+	 */
+	private static void selectAll(Element element, int depth, int[] active, int activeCount, String namespaceUri,
+			List<RelativeXPath> paths, List<Filter<?>> filters, boolean[] selectOne, List<List<Object>> selected) {
+		boolean descend = false;
+		for (int index = 0; index < activeCount; index++) {
+			int pathIndex = active[index];
+			RelativeXPath path = paths.get(pathIndex);
+			if (depth == path.steps.size()) {
+				Object selection = path.filter(element, filters.get(pathIndex));
+				if (selection != null && !isSatisfied(pathIndex, selectOne, selected)) {
+					selected.get(pathIndex).add(selection);
+				}
+			} else {
+				descend = true;
+			}
+		}
+
+		if (!descend) {
+			return;
+		}
+
+		int[] next = new int[activeCount];
+		for (Element child : element.getChildren()) {
+			int nextCount = 0;
+			for (int index = 0; index < activeCount; index++) {
+				int pathIndex = active[index];
+				RelativeXPath path = paths.get(pathIndex);
+				if (depth < path.steps.size() && !isSatisfied(pathIndex, selectOne, selected)
+						&& path.steps.get(depth).matches(child, namespaceUri)) {
+					next[nextCount++] = pathIndex;
+				}
+			}
+			if (nextCount > 0) {
+				selectAll(child, depth + 1, next, nextCount, namespaceUri, paths, filters, selectOne, selected);
+			}
+		}
+	}
+
+	private static boolean isSatisfied(int pathIndex, boolean[] selectOne, List<List<Object>> selected) {
+		return selectOne[pathIndex] && !selected.get(pathIndex).isEmpty();
+	}
+
+	/**
+	 * Walks the remaining steps from the given element.
+	 *
+	 * @param element element reached by the preceding steps
+	 * @param stepIndex index of the next step
+	 * @param namespaceUri namespace uri that replaces the substitution placeholder
+	 * @param filter filter a selection must pass
+	 * @param selected accumulator of filtered selections
+	 * @param selectOne whether to stop at the first filtered selection
+	 * @param <T> type of the filtered selections
+	 * @return whether the walk may stop
+	 */
+	private <T> boolean select(Element element, int stepIndex, String namespaceUri, Filter<T> filter,
+			List<? super T> selected, boolean selectOne) {
+		if (stepIndex == steps.size()) {
+			T selection = filter(element, filter);
+			if (selection != null) {
+				selected.add(selection);
+			}
+			return selectOne && selection != null;
+		}
+
+		Step step = steps.get(stepIndex);
+		for (Element child : element.getChildren()) {
+			if (step.matches(child, namespaceUri)
+					&& select(child, stepIndex + 1, namespaceUri, filter, selected, selectOne)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Selects the element reached by every step, or its attribute when the path ends with an attribute step.
+	 *
+	 * @param element element reached by the steps
+	 * @param filter filter the selection must pass
+	 * @param <T> type of the filtered selection
+	 * @return the filtered selection, or null if there is none or the filter rejects it
+	 */
+	private <T> T filter(Element element, Filter<T> filter) {
+		Object selection = attribute == null ? element : element.getAttribute(attribute);
+		return selection == null ? null : filter.filter(selection);
+	}
+
+	/**
+	 * The expression this path was compiled from.
+	 *
+	 * @return relative xpath expression
+	 */
+	@Override
+	public String toString() {
+		return expression;
+	}
+
+	private static PathCorrelationException unsupported(String expression) {
+		return new PathCorrelationException("Unsupported relative xpath: " + expression, null);
+	}
+
+	/**
+	 * A child element step with an optional attribute equality predicate.
+	 */
+	private static final class Step {
+		private final String localName;
+		private final String namespaceUri;
+		private final String predicateAttribute;
+		private final String predicateValue;
+
+		Step(String localName, String namespaceUri, String predicateAttribute, String predicateValue) {
+			this.localName = localName;
+			this.namespaceUri = namespaceUri;
+			this.predicateAttribute = predicateAttribute;
+			this.predicateValue = predicateValue;
+		}
+
+		boolean matches(Element element, String substitutedUri) {
+			String uri = namespaceUri == null ? substitutedUri : namespaceUri;
+			return localName.equals(element.getName())
+					&& uri.equals(element.getNamespaceURI())
+					&& (predicateAttribute == null
+						|| predicateValue.equals(element.getAttributeValue(predicateAttribute)));
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -44,9 +45,9 @@ public class AciNumeratorDenominatorDecoder extends QppXmlDecoder {
 	 * @param thisNode Object that will retrieve the parsed measure id
 	 */
 	private void setMeasureIdOnNode(Element element, Node thisNode) {
-		String expressionStr = getXpath(MEASURE_ID);
+		RelativeXPath expression = getCompiledXpath(MEASURE_ID);
 		Consumer<? super Attribute> consumer = p ->
-				thisNode.putValue(MEASURE_ID, p.getValue(), false);
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+				thisNode.putValue(MEASURE_ID, internVocabulary(p.getValue()), false);
+		setOnNode(element, expression, consumer, Filters.attribute(), false);
 	}
 }
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -42,9 +43,9 @@ public class AggregateCountDecoder extends QppXmlDecoder {
 	 * @param thisnode Node
 	 */
 	protected void setSciNumeratorDenominatorOnNode(Element element, Node thisnode) {
-		String expressionStr = getXpath(AGGREGATE_COUNT);
+		RelativeXPath expression = getCompiledXpath(AGGREGATE_COUNT);
 		Consumer<? super Attribute> consumer = p ->
-				thisnode.putValue(AGGREGATE_COUNT, p.getValue(), false);
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+				thisnode.putValue(AGGREGATE_COUNT, intern(p.getValue()), false);
+		setOnNode(element, expression, consumer, Filters.attribute(), false);
 	}
 }
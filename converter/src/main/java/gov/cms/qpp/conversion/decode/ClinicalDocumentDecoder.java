@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Program;
@@ -9,7 +10,11 @@ import org.jdom2.Attribute;
 import org.jdom2.Element;
 import org.jdom2.filter.Filters;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Decoder to parse the root element of the Document-Level Template: QRDA Category III Report (ClinicalDocument).
@@ -46,12 +51,14 @@ public class ClinicalDocumentDecoder extends QppXmlDecoder {
 	 */
 	@Override
 	protected DecodeResult internalDecode(Element element, Node thisNode) {
-		setProgramNameOnNode(element, thisNode);
-		setEntityIdOnNode(element, thisNode);
-		setPracticeSiteAddress(element, thisNode);
-		setNationalProviderIdOnNode(element, thisNode);
-		setTaxProviderTaxIdOnNode(element, thisNode);
-		processComponentElement(element, thisNode);
+		ExtractionPlan plan = new ExtractionPlan();
+		setProgramNameOnNode(plan, thisNode);
+		setEntityIdOnNode(plan, thisNode);
+		setPracticeSiteAddress(plan, thisNode);
+		setNationalProviderIdOnNode(plan, thisNode);
+		setTaxProviderTaxIdOnNode(plan, thisNode);
+		processComponentElement(plan, thisNode);
+		plan.execute(element, defaultNs.getURI());
 		return DecodeResult.TREE_FINISHED;
 	}
 
@@ -59,83 +66,128 @@ public class ClinicalDocumentDecoder extends QppXmlDecoder {
 	 * Looks up the entity Id from the element if the program name is CPC+
 	 * <id root="2.16.840.1.113883.3.249.5.1" extension="AR000000"
 	 *
-	 * @param element Xml fragment being parsed.
+	 * @param plan Extractions fulfilled from the xml fragment being parsed.
 	 * @param thisNode The output internal representation of the document
 	 */
-	private void setEntityIdOnNode(Element element, Node thisNode) {
-		if (Program.isCpc(thisNode)) {
-			Consumer<Attribute> consumer = id ->
+	private void setEntityIdOnNode(ExtractionPlan plan, Node thisNode) {
+		Consumer<Attribute> consumer = id -> {
+			if (Program.isCpc(thisNode)) {
 				thisNode.putValue(ENTITY_ID, id.getValue(), false);
-			setOnNode(element, getXpath(ENTITY_ID), consumer, Filters.attribute(), false);
-		}
+			}
+		};
+		plan.extract(getCompiledXpath(ENTITY_ID), Filters.attribute(), false, consumer);
 	}
 
 	/**
 	 * Looks up the Practice Site address from the element if the program name is CPC+
 	 *
-	 * @param element Xml fragment being parsed.
+	 * @param plan Extractions fulfilled from the xml fragment being parsed.
 	 * @param thisNode The output internal representation of the document
 	 */
-	private void setPracticeSiteAddress(Element element, Node thisNode) {
-		if (Program.isCpc(thisNode)) {
-			Consumer<Element> consumer = p ->
-					thisNode.putValue(PRACTICE_SITE_ADDR, p.getValue().trim(), false);
-			setOnNode(element, getXpath(PRACTICE_SITE_ADDR), consumer, Filters.element(), false);
-		}
+	private void setPracticeSiteAddress(ExtractionPlan plan, Node thisNode) {
+		Consumer<Element> consumer = p -> {
+			if (Program.isCpc(thisNode)) {
+				thisNode.putValue(PRACTICE_SITE_ADDR, p.getValue().trim(), false);
+			}
+		};
+		plan.extract(getCompiledXpath(PRACTICE_SITE_ADDR), Filters.element(), false, consumer);
 	}
 
 	/**
 	 * Will decode the program name from the xml
 	 *
-	 * @param element Xml fragment being parsed.
+	 * @param plan Extractions fulfilled from the xml fragment being parsed.
 	 * @param thisNode The output internal representation of the document
 	 */
-	private void setProgramNameOnNode(Element element, Node thisNode) {
+	private void setProgramNameOnNode(ExtractionPlan plan, Node thisNode) {
 		Consumer<? super Attribute> consumer = p -> {
 			String[] nameEntityPair = getProgramNameEntityPair(p.getValue());
 			thisNode.putValue(PROGRAM_NAME, nameEntityPair[0], false);
 			thisNode.putValue(ENTITY_TYPE, nameEntityPair[1], false);
 		};
-		setOnNode(element, getXpath(PROGRAM_NAME), consumer, Filters.attribute(), false);
-		context.setProgram(Program.extractProgram(thisNode));
+		plan.extract(getCompiledXpath(PROGRAM_NAME), Filters.attribute(), false, consumer)
+				.then(() -> context.setProgram(Program.extractProgram(thisNode)));
 	}
 
 	/**
 	 * Will decode the NPI from the xml
 	 *
-	 * @param element Xml fragment being parsed.
+	 * @param plan Extractions fulfilled from the xml fragment being parsed.
 	 * @param thisNode The output internal representation of the document
 	 */
-	private void setNationalProviderIdOnNode(Element element, Node thisNode) {
+	private void setNationalProviderIdOnNode(ExtractionPlan plan, Node thisNode) {
 		Consumer<? super Attribute> consumer = p ->
 				thisNode.putValue(NATIONAL_PROVIDER_IDENTIFIER, p.getValue());
-		setOnNode(element, getXpath(NATIONAL_PROVIDER_IDENTIFIER),
-				consumer, Filters.attribute(), true);
+		plan.extract(getCompiledXpath(NATIONAL_PROVIDER_IDENTIFIER),
+				Filters.attribute(), true, consumer);
 	}
 
 	/**
 	 * Will decode the TPI from the xml
 	 *
-	 * @param element Xml fragment being parsed.
+	 * @param plan Extractions fulfilled from the xml fragment being parsed.
 	 * @param thisNode The output internal representation of the document
 	 */
-	private void setTaxProviderTaxIdOnNode(Element element, Node thisNode) {
+	private void setTaxProviderTaxIdOnNode(ExtractionPlan plan, Node thisNode) {
 		Consumer<? super Attribute> consumer = p ->
 				thisNode.putValue(TAX_PAYER_IDENTIFICATION_NUMBER,
 						p.getValue());
-		setOnNode(element, getXpath(TAX_PAYER_IDENTIFICATION_NUMBER),
-				consumer, Filters.attribute(), true);
+		plan.extract(getCompiledXpath(TAX_PAYER_IDENTIFICATION_NUMBER),
+				Filters.attribute(), true, consumer);
 	}
 
 	/**
 	 * Continues decoding the elements that are children of Clinical Document.
 	 *
-	 * @param element Xml fragment being parsed.
+	 * @param plan Extractions fulfilled from the xml fragment being parsed.
+	 * @param thisNode The output internal representation of the document
+	 */
+	private void processComponentElement(ExtractionPlan plan, Node thisNode) {
+		RelativeXPath components = getCompiledXpath("components");
+		if (!context.isParallelDecode()) {
+			Consumer<Element> consumer = p -> this.decode(p, thisNode);
+			plan.extract(components, Filters.element(), false, consumer);
+			return;
+		}
+
+		List<Element> componentElements = new ArrayList<>();
+		plan.extract(components, Filters.element(), false, componentElements::add)
+				.then(() -> decodeInParallel(componentElements, thisNode));
+	}
+
+	/**
+	 * Decodes each component on the common fork-join pool and attaches the decoded nodes in document order.
+	 * The program has already been set on the context, so the sections are decoded with the program's decoders.
+	 *
+	 * @param componentElements Components of the structured body
+	 * @param thisNode The output internal representation of the document
+	 */
+	private void decodeInParallel(List<Element> componentElements, Node thisNode) {
+		List<ForkJoinTask<Node>> tasks = componentElements.stream()
+				.map(component -> ForkJoinTask.adapt(() -> decodeComponent(component, thisNode)).fork())
+				.collect(Collectors.toList());
+
+		for (ForkJoinTask<Node> task : tasks) {
+			for (Node childNode : task.join().getChildNodes()) {
+				childNode.setParent(thisNode);
+				thisNode.addChildNode(childNode);
+			}
+		}
+	}
+
+	/**
+	 * Decodes a component into a detached stand in for the document node, with a decoder of its own. The stand in
+	 * shares the location of the document node, so the locations of the nodes decoded into it build on it.
+	 *
+	 * @param component Component of the structured body
 	 * @param thisNode The output internal representation of the document
+	 * @return Node holding the nodes decoded from the component
 	 */
-	private void processComponentElement(Element element, Node thisNode) {
-		Consumer<Element> consumer = p -> this.decode(p, thisNode);
-		setOnNode(element, getXpath("components"), consumer, Filters.element(), false);
+	private Node decodeComponent(Element component, Node thisNode) {
+		Node holder = new Node(thisNode.getType());
+		holder.setLocation(thisNode.getLocation());
+		new QppXmlDecoder(context).decode(component, holder);
+		return holder;
 	}
 
 	/**
@@ -0,0 +1,103 @@
+package gov.cms.qpp.conversion.decode;
+
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
+import org.jdom2.Element;
+import org.jdom2.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects the xpaths a decoder needs from one element so they are all fulfilled by a single traversal.
+ *
+ * Selections are handed to the consumers in the order the extractions were declared, so a consumer may rely on
+ * the values put on a node by the consumers declared before it.
+ */
+class ExtractionPlan {
+
+	private final List<RelativeXPath> paths = new ArrayList<>();
+	private final List<Filter<?>> filters = new ArrayList<>();
+	private final List<Step> steps = new ArrayList<>();
+
+	/**
+	 * Declares an extraction
+	 *
+	 * @param path Compiled xpath
+	 * @param filter Filter to apply to the selections
+	 * @param selectOne Whether to consume the first match or all matches
+	 * @param consumer Consumer to execute for the matches
+	 * @param <T> Type of the filtered selections
+	 * @return This plan
+	 */
+	<T> ExtractionPlan extract(RelativeXPath path, Filter<T> filter, boolean selectOne, Consumer<? super T> consumer) {
+		steps.add(new Extraction<>(paths.size(), filter, selectOne, consumer));
+		paths.add(path);
+		filters.add(filter);
+		return this;
+	}
+
+	/**
+	 * Declares an action to run once the extractions declared before it have been consumed
+	 *
+	 * @param action Action to run
+	 * @return This plan
+	 */
+	ExtractionPlan then(Runnable action) {
+		steps.add(selections -> action.run());
+		return this;
+	}
+
+	/**
+	 * Traverses the element once for all of the declared xpaths, then runs the consumers and actions in order
+	 *
+	 * @param element Element the xpaths are executed against
+	 * @param namespaceUri Namespace URI of the decoded document
+	 */
+	void execute(Element element, String namespaceUri) {
+		boolean[] selectOne = new boolean[paths.size()];
+		for (Step step : steps) {
+			if (step instanceof Extraction) {
+				Extraction<?> extraction = (Extraction<?>) step;
+				selectOne[extraction.pathIndex] = extraction.selectOne;
+			}
+		}
+
+		List<List<Object>> selections = RelativeXPath.evaluate(element, namespaceUri, paths, filters, selectOne);
+		steps.forEach(step -> step.apply(selections));
+	}
+
+	/**
+	 * A declared piece of the plan
+	 */
+	@FunctionalInterface
+	private interface Step {
+		void apply(List<List<Object>> selections);
+	}
+
+	/**
+	 * An xpath and what to do with its matches
+	 *
+	 * @param <T> Type of the filtered selections
+	 */
+	private static final class Extraction<T> implements Step {
+		private final int pathIndex;
+		private final Filter<T> filter;
+		private final boolean selectOne;
+		private final Consumer<? super T> consumer;
+
+		Extraction(int pathIndex, Filter<T> filter, boolean selectOne, Consumer<? super T> consumer) {
+			this.pathIndex = pathIndex;
+			this.filter = filter;
+			this.selectOne = selectOne;
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void apply(List<List<Object>> selections) {
+			for (Object selection : selections.get(pathIndex)) {
+				consumer.accept(filter.filter(selection));
+			}
+		}
+	}
+}
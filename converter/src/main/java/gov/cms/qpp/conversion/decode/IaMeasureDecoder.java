@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -30,9 +31,9 @@ public class IaMeasureDecoder extends QppXmlDecoder {
 	 */
 	@Override
 	protected DecodeResult internalDecode(Element element, Node thisNode) {
-		String expressionStr = getXpath("measureId");
-		Consumer<? super Attribute> consumer = p -> thisNode.putValue("measureId", p.getValue());
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), true);
+		RelativeXPath expression = getCompiledXpath("measureId");
+		Consumer<? super Attribute> consumer = p -> thisNode.putValue("measureId", internVocabulary(p.getValue()));
+		setOnNode(element, expression, consumer, Filters.attribute(), true);
 
 		decode(element.getChild("component", defaultNs), thisNode);
 
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -38,38 +39,40 @@ public class MeasureDataDecoder extends QppXmlDecoder {
 	 */
 	@Override
 	protected DecodeResult internalDecode(Element element, Node thisNode) {
-		setMeasure(element, thisNode);
-		setPopulationId(element, thisNode);
+		ExtractionPlan plan = new ExtractionPlan();
+		setMeasure(plan, thisNode);
+		setPopulationId(plan, thisNode);
+		plan.execute(element, defaultNs.getURI());
 		return thisNode.hasValue(MEASURE_TYPE) ? DecodeResult.TREE_CONTINUE : DecodeResult.TREE_ESCAPED;
 	}
 
 	/**
 	 * Locate measure code value in element and set on node.
 	 *
-	 * @param element Object that holds the XML representation of measure id
+	 * @param plan Extractions fulfilled from the object that holds the XML representation of measure id
 	 * @param thisNode Holder for decoded data
 	 */
-	private void setMeasure(Element element, Node thisNode) {
-		String expressionStr = getXpath(MEASURE_TYPE);
+	private void setMeasure(ExtractionPlan plan, Node thisNode) {
+		RelativeXPath expression = getCompiledXpath(MEASURE_TYPE);
 		Consumer<? super Attribute> consumer = attr -> {
 			String code = attr.getValue();
 			if (MEASURES.contains(code)) {
-				thisNode.putValue(MEASURE_TYPE, code, false);
+				thisNode.putValue(MEASURE_TYPE, intern(code), false);
 			}
 		};
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+		plan.extract(expression, Filters.attribute(), false, consumer);
 	}
 
 	/**
 	 * Locate measure sub-population GUUID from the element and set on node.
 	 *
-	 * @param element Object that holds the XML representation of measure id
+	 * @param plan Extractions fulfilled from the object that holds the XML representation of measure id
 	 * @param thisNode Holder for decoded data
 	 */
-	private void setPopulationId(Element element, Node thisNode) {
-		String expressionStr = getXpath(MEASURE_POPULATION);
+	private void setPopulationId(ExtractionPlan plan, Node thisNode) {
+		RelativeXPath expression = getCompiledXpath(MEASURE_POPULATION);
 		Consumer<? super Attribute> consumer = attr ->
-				thisNode.putValue(MEASURE_POPULATION, attr.getValue(), false);
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+				thisNode.putValue(MEASURE_POPULATION, internVocabulary(attr.getValue()), false);
+		plan.extract(expression, Filters.attribute(), false, consumer);
 	}
 }
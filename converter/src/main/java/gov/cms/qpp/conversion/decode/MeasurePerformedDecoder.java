@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -40,9 +41,9 @@ public class MeasurePerformedDecoder extends QppXmlDecoder {
 	 * @param thisNode Object to hold the measure performed
 	 */
 	private void setMeasurePerformedOnNode(Element element, Node thisNode) {
-		String expressionStr = getXpath("measurePerformed");
+		RelativeXPath expression = getCompiledXpath("measurePerformed");
 		Consumer<? super Attribute> consumer = p ->
-				thisNode.putValue("measurePerformed", p.getValue(), false);
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+				thisNode.putValue("measurePerformed", intern(p.getValue()), false);
+		setOnNode(element, expression, consumer, Filters.attribute(), false);
 	}
 }
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -34,11 +35,11 @@ public class PerformanceRateProportionMeasureDecoder extends QppXmlDecoder {
 	 */
 	@Override
 	protected DecodeResult internalDecode(Element element, Node thisNode) {
-		setNameOnNode(element, thisNode, PERFORMANCE_RATE);
-		if (isFirstExpressionUnsuccessful(thisNode)) {
-			setNameOnNode(element, thisNode, NULL_PERFORMANCE_RATE);
-		}
-		setNameOnNode(element, thisNode, PERFORMANCE_RATE_ID);
+		ExtractionPlan plan = new ExtractionPlan();
+		setNameOnNode(plan, thisNode, PERFORMANCE_RATE);
+		setNameOnNode(plan, thisNode, NULL_PERFORMANCE_RATE);
+		setNameOnNode(plan, thisNode, PERFORMANCE_RATE_ID);
+		plan.execute(element, defaultNs.getURI());
 
 		return DecodeResult.TREE_CONTINUE;
 	}
@@ -54,20 +55,22 @@ public class PerformanceRateProportionMeasureDecoder extends QppXmlDecoder {
 	}
 
 	/**
-	 * Finds the Xpath associated with the given name and puts it in node
+	 * Plans the extraction of the Xpath associated with the given name into the node.
+	 * The null performance rate is only put when no performance rate was found.
 	 *
-	 * @param element Object the xpath will be evaluated upon
+	 * @param plan Extractions fulfilled from the object the xpath will be evaluated upon
 	 * @param node Object to hold the value found
 	 * @param name Attribute name associated with the correct xpath
-	 * @return
 	 */
-	private void setNameOnNode(Element element, Node node, final String name) {
-		String expression = getXpath(name);
+	private void setNameOnNode(ExtractionPlan plan, Node node, final String name) {
+		RelativeXPath expression = getCompiledXpath(name);
 		Consumer<? super Attribute> consumer = attr -> {
-			String value = attr.getValue();
-			node.putValue(name, value);
+			if (!NULL_PERFORMANCE_RATE.equals(name) || isFirstExpressionUnsuccessful(node)) {
+				String value = attr.getValue();
+				node.putValue(name, intern(value));
+			}
 		};
 
-		setOnNode(element, expression, consumer, Filters.attribute(), true);
+		plan.extract(expression, Filters.attribute(), true, consumer);
 	}
 }
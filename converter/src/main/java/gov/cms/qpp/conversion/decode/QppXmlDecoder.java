@@ -2,19 +2,21 @@ package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.correlation.PathCorrelator;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Registry;
+import gov.cms.qpp.conversion.model.SourceLocation;
 import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.model.validation.SupplementalData.SupplementalType;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
 import org.jdom2.Attribute;
 import org.jdom2.Element;
 import org.jdom2.filter.Filters;
-import org.jdom2.xpath.XPathHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -98,6 +100,8 @@ public class QppXmlDecoder extends XmlInputDecoder {
 				Node childNode = new Node(templateId, parentNode);
 
 				childNode.setDefaultNsUri(defaultNs.getURI());
+				// located before decoding, so the nodes the child decoder decodes below it build on its location
+				childNode.setLocation(locate(element, parentNode));
 				
 				setNamespace(childElement, childDecoder);
 				
@@ -107,8 +111,6 @@ public class QppXmlDecoder extends XmlInputDecoder {
 					return DecodeResult.TREE_FINISHED;
 				}
 
-				childNode.setPath(XPathHelper.getAbsolutePath(element));
-
 				parentNode.addChildNode(childNode);
 				currentNode = childNode;
 
@@ -190,30 +192,151 @@ public class QppXmlDecoder extends XmlInputDecoder {
 		Node rootNode = new Node();
 		Element rootElement = xmlDoc.getDocument().getRootElement();
 		
-		QppXmlDecoder rootDecoder = null;
+		QppXmlDecoder rootDecoder = findRootDecoder(rootElement, rootNode);
+		
+		if (rootDecoder != null) {
+			decodeRootElement(rootDecoder, rootElement, rootNode);
+		} else {
+			rootNode.setType(TemplateId.PLACEHOLDER);
+			rootNode.setLocation(locate(rootElement));
+			this.decode(rootElement, rootNode);
+		}
+		
+		return rootNode;
+	}
+
+	/**
+	 * Finds the decoder for the first root template id that has one and types the root node accordingly
+	 *
+	 * @param rootElement Root element of the XML document
+	 * @param rootNode Root node to type
+	 * @return The root decoder, or null if none of the root template ids has a permitted decoder
+	 */
+	QppXmlDecoder findRootDecoder(Element rootElement, Node rootNode) {
 		for (Element element : rootElement.getChildren(TEMPLATE_ID, rootElement.getNamespace())) {
 			String root = element.getAttributeValue(ROOT_STRING);
 			String extension = element.getAttributeValue(EXTENSION_STRING);
 			TemplateId templateId = TemplateId.getTemplateId(root, extension, context);
-			rootDecoder = getDecoder(templateId);
+			QppXmlDecoder rootDecoder = getDecoder(templateId);
 			if (rootDecoder != null) {
 				rootNode.setType(templateId);
-				break;
+				return rootDecoder;
 			}
 		}
 		
-		if (rootDecoder != null) {
-			rootDecoder.setNamespace(rootElement, rootDecoder);
-			rootNode.setDefaultNsUri(rootDecoder.defaultNs.getURI());
-			rootNode.setPath(XPathHelper.getAbsolutePath(rootElement));
-			rootDecoder.internalDecode(rootElement, rootNode);
-		} else {
-			rootNode.setType(TemplateId.PLACEHOLDER);
-			rootNode.setPath(XPathHelper.getAbsolutePath(rootElement));
-			this.decode(rootElement, rootNode);
+		return null;
+	}
+
+	/**
+	 * Decodes the root element into the root node with the given root decoder
+	 *
+	 * @param rootDecoder Decoder found for the root element
+	 * @param rootElement Root element of the XML document
+	 * @param rootNode Root node to decode into
+	 */
+	static void decodeRootElement(QppXmlDecoder rootDecoder, Element rootElement, Node rootNode) {
+		rootDecoder.setNamespace(rootElement, rootDecoder);
+		rootNode.setDefaultNsUri(rootDecoder.defaultNs.getURI());
+		rootNode.setLocation(locate(rootElement));
+		rootDecoder.internalDecode(rootElement, rootNode);
+	}
+
+	/**
+	 * Creates a handle to the location of an element. The absolute xpath of the element is only rendered
+	 * when a node's path is asked for.
+	 *
+	 * @param element Element to locate
+	 * @return Location of the element
+	 */
+	static SourceLocation locate(Element element) {
+		Element parentElement = element.getParentElement();
+		return step(parentElement == null ? null : locate(parentElement), element);
+	}
+
+	/**
+	 * Creates a handle to the location of an element found while decoding the children of a node. The node was
+	 * decoded from an ancestor or self of the element, so the steps down to that ancestor are the node's own location,
+	 * and only the steps below it are created.
+	 *
+	 * @param element Element to locate
+	 * @param ancestor Node decoded from an ancestor or self of the element
+	 * @return Location of the element
+	 */
+	static SourceLocation locate(Element element, Node ancestor) {
+		SourceLocation ancestorLocation = ancestor.getLocation();
+		if (ancestorLocation == null) {
+			return locate(element);
 		}
-		
-		return rootNode;
+
+		int steps = depth(element) - depth(ancestorLocation);
+		return steps < 0 ? locate(element) : locate(element, steps, ancestorLocation);
+	}
+
+	/**
+	 * Creates the given number of steps above an element, on top of the location of the ancestor they lead to.
+	 *
+	 * @param element Element to locate
+	 * @param steps Number of steps from the ancestor down to the element
+	 * @param ancestorLocation Location of the ancestor
+	 * @return Location of the element
+	 */
+	private static SourceLocation locate(Element element, int steps, SourceLocation ancestorLocation) {
+		if (steps == 0) {
+			return ancestorLocation;
+		}
+		return step(locate(element.getParentElement(), steps - 1, ancestorLocation), element);
+	}
+
+	/**
+	 * Creates the step to an element below the location of its parent. The step to an element that is followed by
+	 * {@link UnreadSiblings} is left unsettled.
+	 *
+	 * @param parentLocation Location of the parent element, {@code null} for the root element
+	 * @param element Element to step to
+	 * @return Location of the element
+	 */
+	private static SourceLocation step(SourceLocation parentLocation, Element element) {
+		Element parentElement = element.getParentElement();
+		if (parentElement == null) {
+			return new SourceLocation(null, element.getName(), element.getNamespaceURI(), 0);
+		}
+
+		Iterator<Element> siblings = parentElement.getChildren(element.getName(), element.getNamespace()).iterator();
+		int position = 0;
+		while (siblings.hasNext()) {
+			position++;
+			if (siblings.next() == element) {
+				break;
+			}
+		}
+
+		boolean followed = siblings.hasNext();
+		if (position == 1 && followed) {
+			Element next = siblings.next();
+			if (next instanceof UnreadSiblings) {
+				return ((UnreadSiblings) next).locate(parentLocation, element);
+			}
+		}
+
+		boolean positional = position > 1 || followed;
+		return new SourceLocation(parentLocation, element.getName(), element.getNamespaceURI(),
+				positional ? position : 0);
+	}
+
+	private static int depth(Element element) {
+		int depth = 0;
+		for (Element ancestor = element.getParentElement(); ancestor != null; ancestor = ancestor.getParentElement()) {
+			depth++;
+		}
+		return depth;
+	}
+
+	private static int depth(SourceLocation location) {
+		int depth = 0;
+		for (SourceLocation ancestor = location.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+			depth++;
+		}
+		return depth;
 	}
 
 	/**
@@ -272,14 +395,36 @@ public class QppXmlDecoder extends XmlInputDecoder {
 	}
 
 	/**
-	 * Returns the xpath from the path-correlation.json meta data
+	 * Resolves a decoded value through the intern table of the conversion, so that repeated values share one
+	 * instance
+	 *
+	 * @param value decoded value
+	 * @return An equal instance shared with the other holders of the value, or the value itself
+	 */
+	protected String intern(String value) {
+		return context.getValueInterner().intern(value);
+	}
+
+	/**
+	 * Resolves a decoded measure identifier, population or stratum id, or supplemental data code, to the instance
+	 * held by the measure configurations and the supplemental data. The first call loads these vocabularies.
+	 *
+	 * @param value decoded value
+	 * @return An equal instance shared by every conversion, or the value as {@link #intern(String)} resolves it
+	 */
+	protected String internVocabulary(String value) {
+		return context.getValueInterner().internVocabulary(value);
+	}
+
+	/**
+	 * Returns the compiled xpath from the path-correlation.json meta data
 	 *
 	 * @param attribute Key to the correlation data
-	 * @return xpath expression as a string
+	 * @return compiled xpath expression
 	 */
-	protected String getXpath(String attribute) {
+	protected RelativeXPath getCompiledXpath(String attribute) {
 		String template = this.getClass().getAnnotation(Decoder.class).value().name();
-		return PathCorrelator.getXpath(template, attribute, defaultNs.getURI());
+		return PathCorrelator.getCompiledXpath(template, attribute);
 	}
 
 	/**
@@ -292,11 +437,11 @@ public class QppXmlDecoder extends XmlInputDecoder {
 	public void setSupplementalDataOnNode(Element element, Node thisNode, SupplementalType type) {
 		String supplementalXpathCode = type.equals(SupplementalType.PAYER) ?
 				SUPPLEMENTAL_DATA_PAYER_CODE :  SUPPLEMENTAL_DATA_CODE;
-		String expressionStr = getXpath(supplementalXpathCode);
+		RelativeXPath expression = getCompiledXpath(supplementalXpathCode);
 		Consumer<? super Attribute> consumer = attr -> {
 			String code = attr.getValue();
-			thisNode.putValue(SUPPLEMENTAL_DATA_KEY, code, false);
+			thisNode.putValue(SUPPLEMENTAL_DATA_KEY, internVocabulary(code), false);
 		};
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+		setOnNode(element, expression, consumer, Filters.attribute(), false);
 	}
 }
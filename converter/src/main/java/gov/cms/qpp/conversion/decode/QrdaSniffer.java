@@ -0,0 +1,143 @@
+package gov.cms.qpp.conversion.decode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+
+/**
+ * Inspects the first few kilobytes of an XML stream to reject documents that cannot be QRDA III before they are parsed.
+ *
+ * A document is rejected only when the prefix settles it: its root element is not a ClinicalDocument, or the
+ * ClinicalDocument closes without the ClinicalDocument template id among its children. Anything the prefix cannot
+ * settle, including malformed XML and documents longer than the prefix, is left to the full parse.
+ */
+final class QrdaSniffer {
+
+	static final int PREFIX_LENGTH = 8 * 1024;
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(QrdaSniffer.class);
+	private static final String CLINICAL_DOCUMENT = "ClinicalDocument";
+	private static final String TEMPLATE_ID = "templateId";
+
+	/**
+	 * Private constructor so utility class cannot be instantiated.
+	 */
+	private QrdaSniffer() {
+		//private constructor so utility class cannot be instantiated
+	}
+
+	/**
+	 * Determines whether the stream certainly does not hold a QRDA III document. The stream is reset to where it
+	 * started, so it must support mark and reset.
+	 *
+	 * @param context Context of the conversion
+	 * @param xmlStream XML to inspect
+	 * @return true if the document is not a QRDA III document
+	 * @throws XmlException When the stream cannot be read
+	 */
+	static boolean rejects(Context context, InputStream xmlStream) throws XmlException {
+		byte[] prefix = readPrefix(xmlStream);
+
+		XMLStreamReader reader = XmlUtils.createStreamReader(new ByteArrayInputStream(prefix));
+		try {
+			return rejects(context, reader);
+		} catch (XMLStreamException e) {
+			DEV_LOG.debug("Could not determine the document type from its prefix", e);
+			return false;
+		} finally {
+			close(reader);
+		}
+	}
+
+	/**
+	 * Reads up to {@link #PREFIX_LENGTH} bytes and resets the stream
+	 *
+	 * @param xmlStream XML to inspect
+	 * @return The bytes read
+	 * @throws XmlException When the stream cannot be read
+	 */
+	private static byte[] readPrefix(InputStream xmlStream) throws XmlException {
+		try {
+			xmlStream.mark(PREFIX_LENGTH);
+			byte[] buffer = new byte[PREFIX_LENGTH];
+			int length = 0;
+			int read;
+			while (length < buffer.length && (read = xmlStream.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+			}
+			xmlStream.reset();
+			return length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+		} catch (IOException e) {
+			throw new XmlException("Failed to read XML stream", e);
+		}
+	}
+
+	/**
+	 * Reads the root element and its children, until the ClinicalDocument template id is found or the root closes
+	 *
+	 * @param context Context of the conversion
+	 * @param reader Reader over the prefix
+	 * @return true if the document is not a QRDA III document
+	 * @throws XMLStreamException When the prefix is not well formed, which includes being cut short
+	 */
+	private static boolean rejects(Context context, XMLStreamReader reader) throws XMLStreamException {
+		int depth = 0;
+		String rootNamespace = "";
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.DTD) {
+				return false;
+			}
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+				if (depth == 1) {
+					if (!CLINICAL_DOCUMENT.equals(reader.getLocalName())) {
+						return true;
+					}
+					rootNamespace = Strings.nullToEmpty(reader.getNamespaceURI());
+				} else if (depth == 2 && rootNamespace.equals(Strings.nullToEmpty(reader.getNamespaceURI()))
+						&& TEMPLATE_ID.equals(reader.getLocalName()) && isClinicalDocument(context, reader)) {
+					return false;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+				if (depth == 0) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private static boolean isClinicalDocument(Context context, XMLStreamReader reader) {
+		String root = reader.getAttributeValue(null, "root");
+		String extension = reader.getAttributeValue(null, "extension");
+		return TemplateId.getTemplateId(root, extension, context) == TemplateId.CLINICAL_DOCUMENT;
+	}
+
+	private static void close(XMLStreamReader reader) {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			DEV_LOG.warn("Failed to close XML stream", e);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -8,8 +9,6 @@ import java.util.Locale;
 import org.jdom2.Attribute;
 import org.jdom2.Element;
 import org.jdom2.filter.Filters;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -40,7 +39,7 @@ public class QualityMeasureIdDecoder extends QppXmlDecoder {
 		List<String> measureGuids = getMeasureGuid(element);
 
 		measureGuids.forEach(measureGuid ->
-			thisNode.putValue(MEASURE_ID, measureGuid.toLowerCase(Locale.ENGLISH), false));
+			thisNode.putValue(MEASURE_ID, internVocabulary(measureGuid.toLowerCase(Locale.ENGLISH)), false));
 
 		return DecodeResult.TREE_CONTINUE;
 	}
@@ -52,11 +51,9 @@ public class QualityMeasureIdDecoder extends QppXmlDecoder {
 	 * @return The measure GUID in the Quality Measure Identifier
 	 */
 	private List<String> getMeasureGuid(final Element element) {
-		String expressionStr = getXpath(MEASURE_ID);
+		RelativeXPath expression = getCompiledXpath(MEASURE_ID);
 
-		XPathExpression<Attribute> expression = XPathFactory.instance()
-			.compile(expressionStr, Filters.attribute(), null, xpathNs);
-		return expression.evaluate(element).stream()
+		return Filters.attribute().filter(expression.evaluate(element, defaultNs.getURI())).stream()
 			.map(Attribute::getValue)
 			.collect(Collectors.toList());
 	}
@@ -1,6 +1,7 @@
 package gov.cms.qpp.conversion.decode;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -34,31 +35,33 @@ public class ReportingParametersActDecoder extends QppXmlDecoder {
 	 */
 	@Override
 	protected DecodeResult internalDecode(Element element, Node thisNode) {
-		setPerformanceTimeRangeOnNode(element, thisNode);
+		ExtractionPlan plan = new ExtractionPlan();
+		setPerformanceTimeRangeOnNode(plan, thisNode);
+		plan.execute(element, defaultNs.getURI());
 		return DecodeResult.TREE_FINISHED;
 	}
 
 	/**
 	 * Acquires the reporting parameters within the xml and inserts into a given node
 	 *
-	 * @param element XML document that contains the reporting parameters act
+	 * @param plan Extractions fulfilled from the XML document that contains the reporting parameters act
 	 * @param thisNode Reporting parameter node
 	 */
-	private void setPerformanceTimeRangeOnNode(Element element, Node thisNode) {
-		String performanceStartExprStr = getXpath(PERFORMANCE_START);
-		String performanceEndExprStr = getXpath(PERFORMANCE_END);
+	private void setPerformanceTimeRangeOnNode(ExtractionPlan plan, Node thisNode) {
+		RelativeXPath performanceStartExpr = getCompiledXpath(PERFORMANCE_START);
+		RelativeXPath performanceEndExpr = getCompiledXpath(PERFORMANCE_END);
 
 		Consumer<? super Attribute> performanceStartConsumer =
 				p -> {
 					String start = p.getValue();
-					thisNode.putValue(PERFORMANCE_START, start, false);
+					thisNode.putValue(PERFORMANCE_START, intern(start), false);
 					//start is formatted as follows: yyyyMMddHHmmss
-					thisNode.putValue(PERFORMANCE_YEAR, start.substring(0, 4));
+					thisNode.putValue(PERFORMANCE_YEAR, intern(start.substring(0, 4)));
 				};
 		Consumer<? super Attribute> performanceEndConsumer =
-				p -> thisNode.putValue(PERFORMANCE_END, p.getValue(), false);
+				p -> thisNode.putValue(PERFORMANCE_END, intern(p.getValue()), false);
 
-		setOnNode(element, performanceStartExprStr, performanceStartConsumer, Filters.attribute(), false);
-		setOnNode(element, performanceEndExprStr, performanceEndConsumer, Filters.attribute(), false);
+		plan.extract(performanceStartExpr, Filters.attribute(), false, performanceStartConsumer)
+				.extract(performanceEndExpr, Filters.attribute(), false, performanceEndConsumer);
 	}
 }
@@ -2,6 +2,7 @@ package gov.cms.qpp.conversion.decode;
 
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Decoder;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -42,12 +43,12 @@ public class StratifierDecoder extends QppXmlDecoder {
 	 * @param thisNode current node
 	 */
 	private void setStratifierId(Element element, Node thisNode) {
-		String expressionStr = getXpath(STRATIFIER_ID);
+		RelativeXPath expression = getCompiledXpath(STRATIFIER_ID);
 		Consumer<? super Attribute> consumer = attr -> {
 			String code = attr.getValue();
-			thisNode.putValue(STRATIFIER_ID, code, false);
+			thisNode.putValue(STRATIFIER_ID, internVocabulary(code), false);
 		};
-		setOnNode(element, expressionStr, consumer, Filters.attribute(), false);
+		setOnNode(element, expression, consumer, Filters.attribute(), false);
 	}
 
 }
@@ -0,0 +1,61 @@
+package gov.cms.qpp.conversion.decode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.jdom2.Element;
+
+import gov.cms.qpp.conversion.model.SourceLocation;
+
+/**
+ * Stands in for the same named siblings that may follow an element, while they are still unread.
+ *
+ * Attached right after the element, it gives the element a position as if a sibling follows, and the locations made
+ * for the element meanwhile are {@link SourceLocation#unsettled(SourceLocation, String, String) unsettled}.
+ * Once the siblings are read, {@link #settle(boolean)} settles each of them.
+ */
+final class UnreadSiblings extends Element {
+
+	private static final long serialVersionUID = -2741650214236918466L;
+
+	private final transient List<SourceLocation> located = new ArrayList<>();
+
+	/**
+	 * Creates a stand in for the siblings of an element
+	 *
+	 * @param element Element the siblings would follow
+	 */
+	UnreadSiblings(Element element) {
+		super(element.getName(), element.getNamespace());
+	}
+
+	/**
+	 * Locates the element this stands in after. Elements below it share the location, so it is made once for
+	 * each location of its parent.
+	 *
+	 * @param parentLocation Location of the parent element
+	 * @param element Element to locate
+	 * @return The unsettled location of the element
+	 */
+	SourceLocation locate(SourceLocation parentLocation, Element element) {
+		for (SourceLocation location : located) {
+			if (Objects.equals(location.getParent(), parentLocation)) {
+				return location;
+			}
+		}
+
+		SourceLocation location = SourceLocation.unsettled(parentLocation, element.getName(), element.getNamespaceURI());
+		located.add(location);
+		return location;
+	}
+
+	/**
+	 * Settles the locations made for the element, now that the siblings that follow it are read
+	 *
+	 * @param followed whether a same named sibling follows the element
+	 */
+	void settle(boolean followed) {
+		located.forEach(location -> location.settle(followed));
+	}
+}
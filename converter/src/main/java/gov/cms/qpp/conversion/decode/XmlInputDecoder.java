@@ -1,21 +1,21 @@
 package gov.cms.qpp.conversion.decode;
 
-import java.util.List;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import org.jdom2.Element;
 import org.jdom2.Namespace;
 import org.jdom2.filter.Filter;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.base.Strings;
-
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
 
 /**
  * Abstraction to parse XML files within the decoder structure.
@@ -23,7 +23,6 @@ import gov.cms.qpp.conversion.model.Node;
 public abstract class XmlInputDecoder implements InputDecoder {
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(XmlInputDecoder.class);
 	Namespace defaultNs;
-	Namespace xpathNs;
 
 	/**
 	 * decodeXml Determines what formats of xml we accept and decode to
@@ -42,6 +41,63 @@ public abstract class XmlInputDecoder implements InputDecoder {
 		return null;
 	}
 
+	/**
+	 * decodeXml Reads and decodes a stream of xml. Documents whose prefix shows they are not QRDA III are
+	 * rejected before they are parsed. The stream is decoded section by section when the context asks for a
+	 * streaming decode. Otherwise the full document is built first, whether or not the context has a scope.
+	 *
+	 * @param context Context of the conversion
+	 * @param xmlStream XML to be decoded
+	 * @return Root intermediate format node
+	 * @throws XmlException When the XML cannot be read
+	 */
+	public static Node decodeXml(Context context, InputStream xmlStream) throws XmlException {
+		InputStream markableStream = markable(xmlStream);
+		if (QrdaSniffer.rejects(context, markableStream)) {
+			DEV_LOG.error("The XML file is an unknown document");
+			return null;
+		}
+
+		if (context.isStreamingDecode()) {
+			return new XmlStreamDecoder(context, XmlUtils.createStreamReader(markableStream)).decode();
+		}
+
+		return decodeXml(context, XmlUtils.parseXmlStream(markableStream));
+	}
+
+	/**
+	 * decodeXml Reads and decodes xml one measure reference results block at a time. Each block is handed to the
+	 * block handler as soon as it is decoded, and the XML it was decoded from is released once the handler returns.
+	 * The xml is read once. Paths within the first section of the document that depend on whether other sections
+	 * follow it are settled when the end of the document body is read, after its blocks were handled.
+	 *
+	 * @param context Context of the conversion
+	 * @param xmlStream XML to be decoded
+	 * @param blockHandler Handler of each decoded measure reference results block
+	 * @return Root intermediate format node
+	 * @throws XmlException When the XML cannot be read
+	 */
+	public static Node decodeXml(Context context, InputStream xmlStream, Consumer<Node> blockHandler)
+			throws XmlException {
+		InputStream markableStream = markable(xmlStream);
+		if (QrdaSniffer.rejects(context, markableStream)) {
+			DEV_LOG.error("The XML file is an unknown document");
+			return null;
+		}
+
+		return new XmlStreamDecoder(context, XmlUtils.createStreamReader(markableStream), blockHandler).decode();
+	}
+
+	/**
+	 * Ensures a stream can be reset after its prefix has been sniffed
+	 *
+	 * @param xmlStream XML to be decoded
+	 * @return The given stream if it supports mark and reset, otherwise a buffered stream over it
+	 */
+	private static InputStream markable(InputStream xmlStream) {
+		return xmlStream.markSupported() ? xmlStream : new BufferedInputStream(xmlStream, QrdaSniffer.PREFIX_LENGTH);
+	}
+
 	/**
 	 * Decode a document into a Node
 	 *
@@ -70,33 +126,28 @@ public abstract class XmlInputDecoder implements InputDecoder {
 	 */
 	void setNamespace(Element element, XmlInputDecoder decoder) {
 		decoder.defaultNs = element.getNamespace();
-
-		// this handles the case where there is no URI for a default namespace (test)
-				String uri = decoder.defaultNs.getURI();
-				decoder.xpathNs = Strings.isNullOrEmpty(uri) ? Namespace.NO_NAMESPACE
-						: Namespace.getNamespace("ns", decoder.defaultNs.getURI());
 	}
 
 	/**
-	 * Executes an Xpath for an element and executes the consumer
+	 * Executes a compiled xpath for an element and executes the consumer
 	 *
 	 * @param element Element the xpath is executed against
-	 * @param expressionStr Xpath
+	 * @param expression Compiled xpath
 	 * @param consumer Consumer to execute if the xpath matches
 	 * @param filter Filter to apply for the xpath
 	 * @param selectOne Whether to execute for the first match or multiple matches
 	 */
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	void setOnNode(Element element, String expressionStr,
+	void setOnNode(Element element, RelativeXPath expression,
 					Consumer consumer, Filter<?> filter, boolean selectOne) {
-		XPathExpression<?> expression = XPathFactory.instance().compile(expressionStr, filter, null,  xpathNs);
+		String uri = defaultNs.getURI();
 
 		if (selectOne) {
-			Optional.ofNullable(expression.evaluateFirst(element)).ifPresent(consumer);
+			Optional.ofNullable(expression.evaluateFirst(element, uri, filter)).ifPresent(consumer);
 		} else {
-			List<?> elems = expression.evaluate(element);
-			Optional.ofNullable(elems)
-					.ifPresent(notNullElems -> notNullElems.forEach(consumer));
+			for (Object selected : expression.evaluate(element, uri)) {
+				Optional.ofNullable(filter.filter(selected)).ifPresent(consumer);
+			}
 		}
 	}
 
@@ -0,0 +1,534 @@
+package gov.cms.qpp.conversion.decode;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdom2.Attribute;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.Namespace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.xml.XmlException;
+
+/**
+ * Decodes a QRDA III document while it is being read.
+ *
+ * The document header (everything in the ClinicalDocument ahead of its component) is built and decoded first, so that
+ * program detection happens before any section is seen. Each section component of the structured body is then built,
+ * decoded into the same {@link Node} tree that {@link QppXmlDecoder} produces, and emptied before the next one is read.
+ * Emptied sections stay attached to the body, so node paths are identical to those of a fully built document.
+ *
+ * When a block handler is given, measure sections are decoded one entry at a time. Each measure reference results
+ * block is handed to the handler as soon as it is decoded, and the entry it came from is emptied afterwards.
+ * Content that follows the section of such a component is not decoded.
+ *
+ * Documents rooted in a decoder other than {@link ClinicalDocumentDecoder} are built in full and decoded as usual.
+ * Header content that follows the ClinicalDocument component is not decoded.
+ */
+class XmlStreamDecoder {
+
+	private static final Logger DEV_LOG = LoggerFactory.getLogger(XmlStreamDecoder.class);
+	private static final String COMPONENT = "component";
+	private static final String STRUCTURED_BODY = "structuredBody";
+	private static final String SECTION = "section";
+	private static final String TEMPLATE_ID = "templateId";
+	private static final String ENTRY = "entry";
+
+	private final Context context;
+	private final XMLStreamReader reader;
+	private final Consumer<Node> blockHandler;
+	private UnreadSiblings unreadComponents;
+
+	/**
+	 * Initialize a streaming decode of the given XML
+	 *
+	 * @param context Context of the conversion
+	 * @param reader Reader positioned at the start of the XML document
+	 */
+	XmlStreamDecoder(Context context, XMLStreamReader reader) {
+		this(context, reader, null);
+	}
+
+	/**
+	 * Initialize a streaming decode of the given XML that hands each measure reference results block to the given
+	 * handler as soon as it is decoded
+	 *
+	 * @param context Context of the conversion
+	 * @param reader Reader positioned at the start of the XML document
+	 * @param blockHandler Handler of the decoded blocks, or null to decode sections whole
+	 */
+	XmlStreamDecoder(Context context, XMLStreamReader reader, Consumer<Node> blockHandler) {
+		Objects.requireNonNull(context, "context");
+		Objects.requireNonNull(reader, "reader");
+
+		this.context = context;
+		this.reader = reader;
+		this.blockHandler = blockHandler;
+	}
+
+	/**
+	 * Reads and decodes the whole document
+	 *
+	 * @return Root intermediate format node, or null if the document is not accepted
+	 * @throws XmlException When the XML cannot be read
+	 */
+	Node decode() throws XmlException {
+		try {
+			return decodeDocument();
+		} catch (XMLStreamException e) {
+			throw new XmlException("Failed to process XML stream into decoded nodes", e);
+		} finally {
+			close(reader);
+		}
+	}
+
+	/**
+	 * Decodes the header of the document and then streams its sections
+	 *
+	 * @return Root intermediate format node, or null if the document is not accepted
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private Node decodeDocument() throws XMLStreamException {
+		Element rootElement = startDocument();
+		// node paths are absolute, so the root element needs its document
+		new Document(rootElement);
+		Element rootComponent = readHeader(rootElement);
+
+		QppXmlDecoder decoder = new QppXmlDecoder(context);
+		if (!decoder.accepts(rootElement)) {
+			DEV_LOG.error("The XML file is an unknown document");
+			skipRemaining();
+			return null;
+		}
+
+		Node rootNode = new Node();
+		QppXmlDecoder rootDecoder = decoder.findRootDecoder(rootElement, rootNode);
+
+		if (rootComponent == null || (rootDecoder != null && !(rootDecoder instanceof ClinicalDocumentDecoder))) {
+			if (rootComponent != null) {
+				rootElement.addContent(rootComponent);
+				readChildren(rootComponent);
+				readChildren(rootElement);
+			}
+			return decoder.decode(rootElement);
+		}
+
+		QppXmlDecoder sectionDecoder = rootDecoder;
+		if (rootDecoder == null) {
+			// the ClinicalDocument is out of scope, the header is decoded for whatever is in scope
+			rootNode.setType(TemplateId.PLACEHOLDER);
+			rootNode.setLocation(QppXmlDecoder.locate(rootElement));
+			decoder.decode(rootElement, rootNode);
+			sectionDecoder = decoder;
+		} else {
+			QppXmlDecoder.decodeRootElement(rootDecoder, rootElement, rootNode);
+		}
+
+		rootElement.addContent(rootComponent);
+		streamComponent(sectionDecoder, rootComponent, rootNode);
+		skipRemaining();
+
+		return rootNode;
+	}
+
+	/**
+	 * Advances to the root element of the document
+	 *
+	 * @return The root element, without content
+	 * @throws XMLStreamException When the XML cannot be read or declares a DTD
+	 */
+	private Element startDocument() throws XMLStreamException {
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.DTD) {
+				throw new XMLStreamException("DOCTYPE is disallowed", reader.getLocation());
+			}
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				return startElement();
+			}
+		}
+
+		throw new XMLStreamException("No root element found");
+	}
+
+	/**
+	 * Builds the children of the root element up to its component
+	 *
+	 * @param rootElement Root element of the document
+	 * @return The unattached root component, or null if the root element has none
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private Element readHeader(Element rootElement) throws XMLStreamException {
+		Element child;
+		while ((child = nextChildElement(rootElement)) != null) {
+			if (isNamed(child, COMPONENT, rootElement)) {
+				return child;
+			}
+			rootElement.addContent(child);
+			readChildren(child);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Reads the root component, streaming the sections of its structured body
+	 *
+	 * @param sectionDecoder Decoder of the sections
+	 * @param rootComponent Root component of the document
+	 * @param rootNode Node the sections are decoded into
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private void streamComponent(QppXmlDecoder sectionDecoder, Element rootComponent, Node rootNode)
+			throws XMLStreamException {
+		Element child;
+		while ((child = nextChildElement(rootComponent)) != null) {
+			rootComponent.addContent(child);
+			if (isNamed(child, STRUCTURED_BODY, rootComponent)) {
+				streamSections(sectionDecoder, child, rootNode);
+			} else {
+				readChildren(child);
+			}
+		}
+	}
+
+	/**
+	 * Reads the structured body one component at a time. A component is decoded once the start of the
+	 * following component is attached, so that positional paths account for the siblings that follow it.
+	 * The paths of blocks streamed from the first component are settled once the end of the body is read.
+	 *
+	 * @param sectionDecoder Decoder of the sections
+	 * @param structuredBody Structured body of the document
+	 * @param rootNode Node the sections are decoded into
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private void streamSections(QppXmlDecoder sectionDecoder, Element structuredBody, Node rootNode)
+			throws XMLStreamException {
+		Element pending = null;
+		Element child;
+		int position = 0;
+		while ((child = nextChildElement(structuredBody)) != null) {
+			structuredBody.addContent(child);
+			if (isNamed(child, COMPONENT, structuredBody)) {
+				position++;
+				decodeSection(sectionDecoder, pending, rootNode);
+				pending = readSectionComponent(sectionDecoder, child, rootNode, position == 1) ? child : null;
+			} else {
+				readChildren(child);
+			}
+		}
+
+		decodeSection(sectionDecoder, pending, rootNode);
+		if (unreadComponents != null) {
+			unreadComponents.settle(position > 1);
+		}
+	}
+
+	/**
+	 * Builds a section component of the structured body, unless its section is a measure section that is decoded
+	 * one block at a time
+	 *
+	 * @param sectionDecoder Decoder of the sections
+	 * @param component Element for the current section component start tag
+	 * @param rootNode Node the sections are decoded into
+	 * @param first Whether this is the first component of the structured body
+	 * @return true if the component was built and is still to be decoded, false if it was read past or decoded
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private boolean readSectionComponent(QppXmlDecoder sectionDecoder, Element component, Node rootNode,
+			boolean first) throws XMLStreamException {
+		if (blockHandler == null) {
+			readChildren(component);
+			return true;
+		}
+
+		Element child;
+		while ((child = nextChildElement(component)) != null) {
+			component.addContent(child);
+			if (!isNamed(child, SECTION, component)) {
+				readChildren(child);
+				continue;
+			}
+
+			Set<TemplateId> templates = EnumSet.noneOf(TemplateId.class);
+			Element next = readTemplateIds(child, templates);
+			if (templates.contains(TemplateId.MEASURE_SECTION_V2)) {
+				streamBlocks(sectionDecoder, child, next, rootNode, first);
+				readChildren(component);
+				component.removeContent();
+				return false;
+			}
+
+			readRemaining(child, next);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Builds the leading template ids of a section
+	 *
+	 * @param section Element for the current section start tag
+	 * @param templates Collects the template ids
+	 * @return The unattached child element that follows the template ids, or null when the end of the section
+	 * is reached
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private Element readTemplateIds(Element section, Set<TemplateId> templates) throws XMLStreamException {
+		Element child = nextChildElement(section);
+		while (child != null && TEMPLATE_ID.equals(child.getName())) {
+			section.addContent(child);
+			readChildren(child);
+			templates.add(TemplateId.getTemplateId(child.getAttributeValue("root"),
+					child.getAttributeValue("extension"), context));
+			child = nextChildElement(section);
+		}
+
+		return child;
+	}
+
+	/**
+	 * Builds the rest of the current element, starting with an already started child
+	 *
+	 * @param parent Element for the current start tag
+	 * @param child Unattached child element for the current start tag, or null if the parent has ended
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private void readRemaining(Element parent, Element child) throws XMLStreamException {
+		Element current = child;
+		while (current != null) {
+			parent.addContent(current);
+			readChildren(current);
+			current = nextChildElement(parent);
+		}
+	}
+
+	/**
+	 * Decodes a measure section one entry at a time, handing each decoded measure reference results block to the
+	 * block handler. The section header is decoded first. An entry is decoded once the start of the following entry
+	 * is attached, and emptied once its blocks have been handled.
+	 *
+	 * @param sectionDecoder Decoder of the sections
+	 * @param section Section element, holding its template ids
+	 * @param next Unattached child element that follows the template ids, or null if the section has ended
+	 * @param rootNode Node the sections are decoded into
+	 * @param first Whether the section's component is the first component of the structured body
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private void streamBlocks(QppXmlDecoder sectionDecoder, Element section, Element next, Node rootNode,
+			boolean first) throws XMLStreamException {
+		Element component = section.getParentElement();
+		// whether components follow the first one is only known at the end of the body, so its paths are settled then
+		if (first) {
+			unreadComponents = new UnreadSiblings(component);
+			component.getParentElement().addContent(unreadComponents);
+		}
+
+		Element child = next;
+		while (child != null && !isNamed(child, ENTRY, section)) {
+			section.addContent(child);
+			readChildren(child);
+			child = nextChildElement(section);
+		}
+
+		int rootChildren = rootNode.getChildNodes().size();
+		sectionDecoder.decode(component, rootNode);
+		Node sectionNode = findSectionNode(rootNode, rootChildren);
+
+		Element pending = null;
+		while (child != null) {
+			section.addContent(child);
+			decodeBlocks(sectionDecoder, pending, sectionNode);
+			pending = child;
+			readChildren(child);
+			child = nextChildElement(section);
+		}
+		decodeBlocks(sectionDecoder, pending, sectionNode);
+
+		if (first) {
+			unreadComponents.detach();
+		}
+	}
+
+	/**
+	 * Finds the measure section node decoded from a section header. Without a measure section node, the entries
+	 * of the section are decoded into the root node, as they are when the whole section is decoded, and their
+	 * blocks are kept whole rather than handed to the block handler.
+	 *
+	 * @param rootNode Node the sections are decoded into
+	 * @param decodedBefore Number of children the root node had before the section header was decoded
+	 * @return The node the entries of the section are decoded into
+	 */
+	private Node findSectionNode(Node rootNode, int decodedBefore) {
+		List<Node> children = rootNode.getChildNodes();
+		for (int index = children.size() - 1; index >= decodedBefore; index--) {
+			if (children.get(index).getType() == TemplateId.MEASURE_SECTION_V2) {
+				return children.get(index);
+			}
+		}
+
+		return rootNode;
+	}
+
+	/**
+	 * Decodes an entry of a measure section, hands its measure reference results blocks to the block handler when
+	 * they are decoded into a measure section node, and releases its content
+	 *
+	 * @param sectionDecoder Decoder of the sections
+	 * @param entry Entry to decode
+	 * @param sectionNode Node the entry is decoded into
+	 */
+	private void decodeBlocks(QppXmlDecoder sectionDecoder, Element entry, Node sectionNode) {
+		if (entry == null) {
+			return;
+		}
+
+		int decodedBefore = sectionNode.getChildNodes().size();
+		sectionDecoder.decode(entry, sectionNode);
+
+		if (sectionNode.getType() == TemplateId.MEASURE_SECTION_V2) {
+			List<Node> children = sectionNode.getChildNodes();
+			for (Node block : new ArrayList<>(children.subList(decodedBefore, children.size()))) {
+				if (block.getType() == TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2) {
+					blockHandler.accept(block);
+				}
+			}
+		}
+
+		entry.removeContent();
+	}
+
+	/**
+	 * Decodes a section component and releases its content
+	 *
+	 * @param sectionDecoder Decoder of the sections
+	 * @param section Section component to decode
+	 * @param rootNode Node the section is decoded into
+	 */
+	private void decodeSection(QppXmlDecoder sectionDecoder, Element section, Node rootNode) {
+		if (section != null) {
+			sectionDecoder.decode(section, rootNode);
+			section.removeContent();
+		}
+	}
+
+	/**
+	 * Builds the content of the current element until its end
+	 *
+	 * @param parent Element for the current start tag
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private void readChildren(Element parent) throws XMLStreamException {
+		Element child;
+		while ((child = nextChildElement(parent)) != null) {
+			parent.addContent(child);
+			readChildren(child);
+		}
+	}
+
+	/**
+	 * Advances to the next child element of the current element, adding any text along the way to the parent
+	 *
+	 * @param parent Element for the current start tag
+	 * @return The unattached child element, or null when the end of the parent is reached
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private Element nextChildElement(Element parent) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					return startElement();
+
+				case XMLStreamConstants.END_ELEMENT:
+					return null;
+
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					parent.addContent(reader.getText());
+					break;
+
+				default:
+					break;
+			}
+		}
+
+		throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+	}
+
+	/**
+	 * Creates an element with the namespaces and attributes of the current start tag
+	 *
+	 * @return The new element
+	 */
+	private Element startElement() {
+		Element element = new Element(reader.getLocalName(),
+				namespace(reader.getPrefix(), reader.getNamespaceURI()));
+
+		for (int index = 0; index < reader.getNamespaceCount(); index++) {
+			Namespace declared = namespace(reader.getNamespacePrefix(index), reader.getNamespaceURI(index));
+			if (declared != element.getNamespace()) {
+				element.addNamespaceDeclaration(declared);
+			}
+		}
+
+		for (int index = 0; index < reader.getAttributeCount(); index++) {
+			element.setAttribute(new Attribute(reader.getAttributeLocalName(index),
+					reader.getAttributeValue(index),
+					namespace(reader.getAttributePrefix(index), reader.getAttributeNamespace(index))));
+		}
+
+		return element;
+	}
+
+	/**
+	 * Reads through the rest of the document without building it, so that it is still checked for well-formedness
+	 *
+	 * @throws XMLStreamException When the XML cannot be read
+	 */
+	private void skipRemaining() throws XMLStreamException {
+		while (reader.hasNext()) {
+			reader.next();
+		}
+	}
+
+	/**
+	 * Releases the reader
+	 *
+	 * @param reader Reader to release
+	 */
+	private static void close(XMLStreamReader reader) {
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			DEV_LOG.warn("Failed to close XML stream", e);
+		}
+	}
+
+	private static boolean isNamed(Element element, String name, Element parent) {
+		return name.equals(element.getName()) && parent.getNamespace().equals(element.getNamespace());
+	}
+
+	private static Namespace namespace(String prefix, String uri) {
+		if (Strings.isNullOrEmpty(uri)) {
+			return Namespace.NO_NAMESPACE;
+		}
+
+		return Namespace.getNamespace(Strings.nullToEmpty(prefix), uri);
+	}
+}
@@ -37,7 +37,7 @@ public class AciProportionDenominatorEncoder extends QppOutputEncoder {
 
 			if (null != value.getInteger(VALUE)) {
 				wrapper.putObject(ENCODE_LABEL, value.getInteger(VALUE));
-				wrapper.mergeMetadata(value, ENCODE_LABEL);
+				wrapper.mergeProvenance(value, ENCODE_LABEL);
 			}
 		}
 	}
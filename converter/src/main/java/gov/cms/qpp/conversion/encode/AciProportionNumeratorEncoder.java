@@ -36,7 +36,7 @@ public class AciProportionNumeratorEncoder extends QppOutputEncoder {
 
 			if (null != numerator.getInteger(VALUE)) {
 				wrapper.putObject(ENCODE_LABEL, numerator.getInteger(VALUE));
-				wrapper.mergeMetadata(numerator, ENCODE_LABEL);
+				wrapper.mergeProvenance(numerator, ENCODE_LABEL);
 			}
 		}
 	}
@@ -12,6 +12,7 @@ import gov.cms.qpp.conversion.model.error.ErrorCode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,7 +42,7 @@ public class AciSectionEncoder extends QppOutputEncoder {
 		List<Node> children = node.getChildNodes();
 		JsonWrapper measurementsWrapper = new JsonWrapper();
 
-		encodeChildren(children, measurementsWrapper);
+		encodeChildren(children, context.takeReleasedBlocks(node), measurementsWrapper);
 
 		wrapper.putObject("measurements", measurementsWrapper);
 
@@ -55,17 +56,24 @@ public class AciSectionEncoder extends QppOutputEncoder {
 	}
 
 	/**
-	 * Encodes the children of the given section
+	 * Encodes the children of the given section. Measure reference results blocks the section released while it was
+	 * decoded were already encoded, and their folded encodings are placed instead.
 	 *
 	 * @param children child nodes of the given section
+	 * @param releasedBlocks encodings of the released blocks of the section, or null if it released none
 	 * @param measurementsWrapper wrapper that holds the measurements of a section
 	 */
-	private void encodeChildren(List<Node> children, JsonWrapper measurementsWrapper) {
+	private void encodeChildren(List<Node> children, Iterator<JsonWrapper> releasedBlocks,
+			JsonWrapper measurementsWrapper) {
 		JsonWrapper childWrapper;
 		for (Node currentChild : children) {
 			childWrapper = new JsonWrapper();
 			TemplateId templateId = currentChild.getType();
-			if (TemplateId.REPORTING_PARAMETERS_ACT != templateId) {
+			if (releasedBlocks != null && TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2 == templateId) {
+				if (releasedBlocks.hasNext()) {
+					measurementsWrapper.putObject(releasedBlocks.next());
+				}
+			} else if (TemplateId.REPORTING_PARAMETERS_ACT != templateId) {
 				JsonOutputEncoder childEncoder = encoders.get(templateId);
 
 				if (childEncoder != null) {
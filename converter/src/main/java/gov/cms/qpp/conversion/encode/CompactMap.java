@@ -0,0 +1,278 @@
+package gov.cms.qpp.conversion.encode;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Insertion ordered {@link Map} that holds the attributes of a JSON object built by a {@link JsonWrapper}.
+ *
+ * Keys and values are kept side by side in two arrays and looked up by a linear scan. For the handful of attributes
+ * an encoded object has, this is both smaller and faster than the table, entries and links of a
+ * {@link java.util.LinkedHashMap}. An object that grows past {@link #INDEXED_SIZE} attributes also gets a hash index of
+ * its keys, so large objects keep constant time lookups.
+ */
+final class CompactMap extends AbstractMap<String, Object> {
+	static final int INDEXED_SIZE = 16;
+	private static final int DEFAULT_CAPACITY = 4;
+
+	private String[] keys;
+	private Object[] values;
+	private int size;
+	private Map<String, Integer> index;
+
+	/**
+	 * Creates an empty object
+	 */
+	CompactMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty object with room for a number of attributes
+	 *
+	 * @param capacity attributes the object will hold without growing
+	 */
+	CompactMap(int capacity) {
+		keys = new String[Math.max(capacity, 1)];
+		values = new Object[keys.length];
+	}
+
+	/**
+	 * Creates an object holding the attributes of another, in the same order
+	 *
+	 * @param other attributes to copy
+	 */
+	CompactMap(Map<String, ?> other) {
+		if (other instanceof CompactMap) {
+			CompactMap compact = (CompactMap) other;
+			keys = Arrays.copyOf(compact.keys, Math.max(compact.size, 1));
+			values = Arrays.copyOf(compact.values, keys.length);
+			size = compact.size;
+			index = compact.index == null ? null : new HashMap<>(compact.index);
+		} else {
+			keys = new String[Math.max(other.size(), 1)];
+			values = new Object[keys.length];
+			other.forEach(this::put);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public Object get(Object key) {
+		int position = indexOf(key);
+		return position < 0 ? null : values[position];
+	}
+
+	/**
+	 * Places an attribute at the end of the object, or replaces the value of an existing attribute in place
+	 *
+	 * @param key name of the attribute
+	 * @param value of the attribute
+	 * @return the replaced value, or null if the attribute is new
+	 */
+	@Override
+	public Object put(String key, Object value) {
+		int position = indexOf(key);
+		if (position >= 0) {
+			Object previous = values[position];
+			values[position] = value;
+			return previous;
+		}
+
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			values = Arrays.copyOf(values, keys.length);
+		}
+		keys[size] = key;
+		values[size] = value;
+		if (index != null) {
+			index.put(key, size);
+		}
+		size++;
+
+		if (index == null && size > INDEXED_SIZE) {
+			buildIndex();
+		}
+		return null;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		int position = indexOf(key);
+		if (position < 0) {
+			return null;
+		}
+		Object previous = values[position];
+		removeAt(position);
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+		index = null;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super Object> action) {
+		for (int position = 0; position < size; position++) {
+			action.accept(keys[position], values[position]);
+		}
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new EntrySet();
+	}
+
+	private int indexOf(Object key) {
+		if (index != null) {
+			Integer position = index.get(key);
+			return position == null ? -1 : position;
+		}
+
+		for (int position = 0; position < size; position++) {
+			if (Objects.equals(keys[position], key)) {
+				return position;
+			}
+		}
+		return -1;
+	}
+
+	private void removeAt(int position) {
+		int moved = size - position - 1;
+		System.arraycopy(keys, position + 1, keys, position, moved);
+		System.arraycopy(values, position + 1, values, position, moved);
+		size--;
+		keys[size] = null;
+		values[size] = null;
+
+		if (index != null) {
+			if (size > INDEXED_SIZE) {
+				buildIndex();
+			} else {
+				index = null;
+			}
+		}
+	}
+
+	private void buildIndex() {
+		index = new HashMap<>(size * 2);
+		for (int position = 0; position < size; position++) {
+			index.put(keys[position], position);
+		}
+	}
+
+	/**
+	 * View of the attributes, in insertion order
+	 */
+	private final class EntrySet extends AbstractSet<Entry<String, Object>> {
+		@Override
+		public Iterator<Entry<String, Object>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * Walks the attributes, supporting removal of the last one returned
+	 */
+	private final class EntryIterator implements Iterator<Entry<String, Object>> {
+		private int cursor;
+		private int last = -1;
+
+		@Override
+		public boolean hasNext() {
+			return cursor < size;
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			if (cursor >= size) {
+				throw new NoSuchElementException();
+			}
+			last = cursor++;
+			return new CompactEntry(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			removeAt(last);
+			cursor = last;
+			last = -1;
+		}
+	}
+
+	/**
+	 * View of one attribute, writing value changes through to the object
+	 */
+	private final class CompactEntry implements Entry<String, Object> {
+		private final int position;
+
+		private CompactEntry(int position) {
+			this.position = position;
+		}
+
+		@Override
+		public String getKey() {
+			return keys[position];
+		}
+
+		@Override
+		public Object getValue() {
+			return values[position];
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			Object previous = values[position];
+			values[position] = value;
+			return previous;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> entry = (Entry<?, ?>) other;
+			return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
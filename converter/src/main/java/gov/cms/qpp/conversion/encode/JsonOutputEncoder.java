@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,25 +24,33 @@ public abstract class JsonOutputEncoder implements OutputEncoder {
 	@Override
 	public void encode(Writer writer) {
 		try {
-			JsonWrapper wrapper = new JsonWrapper();
-			for (Node curNode : nodes) {
-				encode(wrapper, curNode);
-			}
-			writer.write(wrapper.toString());
-			writer.flush();
+			encode().writeTo(writer);
 		} catch (IOException exception) {
-			DEV_LOG.error("Couldn't write out JSON file.", exception);
-			Detail detail = Detail.forErrorCode(ErrorCode.UNEXPECTED_ENCODE_ERROR);
-			detail.setMessage(exception.getMessage());
-			details.add(detail);
+			addWriteError(exception);
+		}
+	}
+
+	@Override
+	public void encode(OutputStream output) {
+		try {
+			encode().writeTo(output);
+		} catch (IOException exception) {
+			addWriteError(exception);
 		}
 	}
 
+	private void addWriteError(IOException exception) {
+		DEV_LOG.error("Couldn't write out JSON file.", exception);
+		Detail detail = Detail.forErrorCode(ErrorCode.UNEXPECTED_ENCODE_ERROR);
+		detail.setMessage(exception.getMessage());
+		details.add(detail);
+	}
+
 	public void encode(JsonWrapper wrapper, Node node) {
 		try {
 			internalEncode(wrapper, node);
 			if (wrapper.isObject()) {
-				wrapper.attachMetadata(node);
+				wrapper.attachProvenance(node);
 			}
 		} catch (EncodeException e) {
 			DEV_LOG.warn("Encode error when doing internalEncode, adding a new Detail", e);
@@ -1,96 +1,117 @@
 package gov.cms.qpp.conversion.encode;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.introspect.Annotated;
-import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
-import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
-import com.fasterxml.jackson.databind.ser.PropertyWriter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import gov.cms.qpp.conversion.InputStreamSupplierSource;
 import gov.cms.qpp.conversion.Source;
 import gov.cms.qpp.conversion.model.Node;
 
 import java.io.ByteArrayInputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Manages building a "simple" object of JSON conversion.
  * JSON renderers can convert maps and list into JSON Strings.
  * This class is a wrapper around a list/map impl.
+ *
+ * The {@link Provenance} of encoded objects is kept beside the content in a {@link ProvenanceTree}, keyed by the
+ * <a href="https://tools.ietf.org/html/rfc6901">JSON pointer</a> of each object relative to the wrapper. Placing a
+ * wrapper within another attaches its tree under the pointer it is placed at, so the serialized content holds
+ * nothing but the QPP json.
  */
 public class JsonWrapper {
-	private static final String METADATA_HOLDER = "metadata_holder";
-	private ObjectWriter ow;
+	private static final ObjectWriter WRITER = warm(createObjectWriter());
 	private Map<String, Object> object;
 	private List<Object> list;
+	private ProvenanceTree provenance;
+	private boolean readOnly;
 
 	public JsonWrapper() {
-		this(true);
+		// empty until the first put decides between a hash and an array
 	}
 
-	public JsonWrapper(boolean filterMeta) {
-		ow = getObjectWriter(filterMeta);
-	}
-
-	public JsonWrapper(JsonWrapper wrapper, boolean filterMeta) {
-		this(filterMeta);
+	/**
+	 * Creates a wrapper holding the content and provenance of another. Containers are copied, the values they
+	 * hold are shared.
+	 *
+	 * @param wrapper to copy
+	 */
+	public JsonWrapper(JsonWrapper wrapper) {
 		if (wrapper.isObject()) {
 			this.initAsObject();
-			this.object = new LinkedHashMap<>(wrapper.object);
+			this.object = new CompactMap(wrapper.object);
 		} else {
 			this.initAsList();
-			this.list = new LinkedList<>(wrapper.list);
+			this.list = new ArrayList<>(wrapper.list);
 		}
+		this.provenance = wrapper.provenance == null ? null : new ProvenanceTree(wrapper.provenance);
 	}
 
-	protected JsonWrapper(JsonWrapper jsonWrapper) {
-		this(jsonWrapper, true);
+	/**
+	 * Retrieves the shared {@link com.fasterxml.jackson.databind.ObjectWriter}. It is immutable and thread safe,
+	 * so every wrapper uses it instead of building its own mapper.
+	 *
+	 * @return utility that will allow client to serialize wrapper contents as json
+	 */
+	public static ObjectWriter getObjectWriter() {
+		return WRITER;
 	}
 
 	/**
-	 * Static factory that creates {@link com.fasterxml.jackson.databind.ObjectWriter}s.
+	 * Creates an {@link com.fasterxml.jackson.databind.ObjectWriter} with its own mapper.
 	 *
 	 * @return utility that will allow client to serialize wrapper contents as json
 	 */
-	public static ObjectWriter getObjectWriter(boolean filterMeta) {
+	private static ObjectWriter createObjectWriter() {
 		DefaultIndenter withLinefeed = new DefaultIndenter("  ", "\n");
 		DefaultPrettyPrinter printer = new DefaultPrettyPrinter();
 		printer.indentObjectsWith(withLinefeed);
-		ObjectMapper om = new ObjectMapper();
-
-		if (filterMeta) {
-			outfitMetadataFilter(om);
-		}
-
-		return om.writer().with(printer);
+		return new ObjectMapper().writer().with(printer);
 	}
 
 	/**
-	 * Outfit the given {@link ObjectMapper} with a filter that will treat all metadata map entries as transient.
+	 * Serializes a sample of the containers and values that wrappers hold, so the serializers for them are built
+	 * and cached before the first conversion needs them.
 	 *
-	 * @param om object mapper to modify
+	 * @param writer to warm
+	 * @return the same writer
 	 */
-	private static void outfitMetadataFilter(ObjectMapper om) {
-		final String filterName = "exclude-metadata";
-		SimpleFilterProvider filters = new SimpleFilterProvider();
-		filters.addFilter(filterName, new MetadataPropertyFilter());
-		om.setAnnotationIntrospector(new JsonWrapperIntrospector(filterName));
-		om.setFilterProvider(filters);
+	private static ObjectWriter warm(ObjectWriter writer) {
+		Map<String, Object> entry = new CompactMap();
+		entry.put("string", "");
+		entry.put("integer", 0);
+		entry.put("float", 0f);
+		entry.put("boolean", true);
+		List<Object> list = new ArrayList<>();
+		list.add(entry);
+		list.add(Collections.unmodifiableMap(new CompactMap(entry)));
+
+		Map<String, Object> sample = new CompactMap();
+		sample.put("list", list);
+		sample.put("snapshot", Collections.unmodifiableList(list));
+		try {
+			writer.writeValueAsBytes(sample);
+		} catch (JsonProcessingException e) {
+			throw new EncodeException("Issue rendering JSON from JsonWrapper Map", e);
+		}
+		return writer;
 	}
 
 	/**
@@ -179,6 +200,21 @@ public class JsonWrapper {
 		}
 	}
 
+	/**
+	 * Places a named {@link java.lang.Integer} value of a {@link Node} within the wrapper. The value parsed when the
+	 * node was decoded is used when there is one.
+	 *
+	 * @see #putInteger(String, String)
+	 * @param name key for value
+	 * @param node that holds the value
+	 * @param key of the value on the node
+	 * @return <i><b>this</b></i> reference for chaining
+	 */
+	public JsonWrapper putInteger(String name, Node node, String key) {
+		Integer value = node.getIntegerValue(key);
+		return value == null ? putInteger(name, node.getValue(key)) : putObject(name, value);
+	}
+
 	/**
 	 * Places an unnamed String that represents a {@link java.lang.Integer} within the wrapper.
 	 *
@@ -212,6 +248,21 @@ public class JsonWrapper {
 		}
 	}
 
+	/**
+	 * Places a named {@link java.lang.Float} value of a {@link Node} within the wrapper. The value parsed when the
+	 * node was decoded is used when there is one.
+	 *
+	 * @see #putFloat(String, String)
+	 * @param name key for value
+	 * @param node that holds the value
+	 * @param key of the value on the node
+	 * @return <i><b>this</b></i> reference for chaining
+	 */
+	public JsonWrapper putFloat(String name, Node node, String key) {
+		Float value = node.getFloatValue(key);
+		return value == null ? putFloat(name, node.getValue(key)) : putObject(name, value);
+	}
+
 	/**
 	 * Places an unnamed String that represents a {@link java.lang.Float} within the wrapper.
 	 *
@@ -273,13 +324,20 @@ public class JsonWrapper {
 	 * @return <i><b>this</b></i> reference for chaining
 	 */
 	public JsonWrapper putObject(String name, Object value) {
+		checkWritable();
 		checkState(list);
 		initAsObject();
 		Object internalValue = stripWrapper(value);
 		if (internalValue == null) {
 			return this;
 		}
-		this.object.put(name, internalValue);
+		String token = token(name);
+		if (this.object.put(name, internalValue) != null && provenance != null) {
+			provenance.removeChild(token);
+		}
+		if (value instanceof JsonWrapper) {
+			adoptProvenance(token, (JsonWrapper) value);
+		}
 		return this;
 	}
 
@@ -293,6 +351,7 @@ public class JsonWrapper {
 	 * @return <i><b>this</b></i> reference for chaining
 	 */
 	public JsonWrapper putObject(Object value) {
+		checkWritable();
 		checkState(object);
 		initAsList();
 		Object internalValue = stripWrapper(value);
@@ -300,6 +359,9 @@ public class JsonWrapper {
 			return this;
 		}
 		this.list.add(internalValue);
+		if (value instanceof JsonWrapper) {
+			adoptProvenance(String.valueOf(this.list.size() - 1), (JsonWrapper) value);
+		}
 		return this;
 	}
 
@@ -449,7 +511,7 @@ public class JsonWrapper {
 	 */
 	protected void initAsObject() {
 		if (object == null) {
-			object = new LinkedHashMap<>();
+			object = new CompactMap();
 		}
 	}
 
@@ -458,7 +520,7 @@ public class JsonWrapper {
 	 */
 	protected void initAsList() {
 		if (list == null) {
-			list = new LinkedList<>();
+			list = new ArrayList<>();
 		}
 	}
 
@@ -473,6 +535,73 @@ public class JsonWrapper {
 		}
 	}
 
+	/**
+	 * Rejects changes to a read only {@link JsonWrapper}.
+	 */
+	private void checkWritable() {
+		if (readOnly) {
+			throw new UnsupportedOperationException("JsonWrapper is a read only snapshot");
+		}
+	}
+
+	/**
+	 * Creates a read only snapshot of the {@link JsonWrapper}. Containers are replaced by unmodifiable ones
+	 * while the values they hold are shared, so the snapshot is unaffected by later changes to this wrapper
+	 * and may be handed out repeatedly without being copied again.
+	 *
+	 * @return a read only wrapper, or this wrapper if it is already read only
+	 */
+	public JsonWrapper snapshot() {
+		if (readOnly) {
+			return this;
+		}
+
+		JsonWrapper snapshot = new JsonWrapper();
+		snapshot.object = object == null ? null : readOnlyMap(object);
+		snapshot.list = list == null ? null : readOnlyList(list);
+		snapshot.provenance = provenance == null ? null : new ProvenanceTree(provenance);
+		snapshot.readOnly = true;
+		return snapshot;
+	}
+
+	/**
+	 * Whether the {@link JsonWrapper} is a read only snapshot.
+	 *
+	 * @return true if it cannot be changed
+	 * @see #snapshot()
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Object readOnly(Object value) {
+		if (value instanceof Map) {
+			return readOnlyMap((Map<String, Object>) value);
+		}
+		if (value instanceof List) {
+			return readOnlyList((List<Object>) value);
+		}
+		if (value instanceof Set) {
+			Set<Object> set = new LinkedHashSet<>();
+			((Set<Object>) value).forEach(entry -> set.add(readOnly(entry)));
+			return Collections.unmodifiableSet(set);
+		}
+		return value;
+	}
+
+	private static Map<String, Object> readOnlyMap(Map<String, Object> map) {
+		Map<String, Object> copy = new CompactMap(map.size());
+		map.forEach((key, value) -> copy.put(key, readOnly(value)));
+		return Collections.unmodifiableMap(copy);
+	}
+
+	private static List<Object> readOnlyList(List<Object> list) {
+		List<Object> copy = new ArrayList<>(list.size());
+		list.forEach(entry -> copy.add(readOnly(entry)));
+		return Collections.unmodifiableList(copy);
+	}
+
 	/**
 	 * Identifies whether or not the {@link JsonWrapper}'s content is a hash or array.
 	 *
@@ -492,7 +621,7 @@ public class JsonWrapper {
 	}
 
 	/**
-	 * Stream of wrapped object or list.
+	 * Stream of wrapped object or list. The wrappers of list entries carry the provenance of their entry.
 	 *
 	 * @return Stream of wrapped object or list.
 	 */
@@ -500,11 +629,13 @@ public class JsonWrapper {
 	public Stream<JsonWrapper> stream() {
 		Stream<JsonWrapper> returnValue = Stream.of(this);
 		if (list != null) {
-			returnValue = list.stream()
-				.filter(entry -> entry instanceof Map)
-				.map(entry -> {
+			returnValue = IntStream.range(0, list.size())
+				.filter(index -> list.get(index) instanceof Map)
+				.mapToObj(index -> {
 					JsonWrapper wrapper = new JsonWrapper();
-					wrapper.object = (Map<String, Object>) entry;
+					wrapper.object = (Map<String, Object>) list.get(index);
+					wrapper.provenance = provenance == null ? null : provenance.getChild(String.valueOf(index));
+					wrapper.readOnly = readOnly;
 					return wrapper;
 				});
 		}
@@ -519,117 +650,151 @@ public class JsonWrapper {
 	@Override
 	public String toString() {
 		try {
-			return ow.writeValueAsString(isObject() ? object : list);
+			return WRITER.writeValueAsString(isObject() ? object : list);
 		} catch (JsonProcessingException e) {
 			throw new EncodeException("Issue rendering JSON from JsonWrapper Map", e);
 		}
 	}
 
 	/**
-	 * Convenience method to get the JsonWrapper's content as an input stream.
+	 * UTF-8 representation of the {@link JsonWrapper}, serialized without an intermediate {@link String}.
 	 *
-	 * @return input stream containing serialized json
+	 * @return the bytes of {@link #toString()} in UTF-8
 	 */
-	public Source toSource() {
-		byte[] qppBytes = toString().getBytes(StandardCharsets.UTF_8);
-		return new InputStreamSupplierSource("QPP", () -> new ByteArrayInputStream(qppBytes), qppBytes.length);
+	public byte[] toBytes() {
+		try {
+			return WRITER.writeValueAsBytes(getObject());
+		} catch (JsonProcessingException e) {
+			throw new EncodeException("Issue rendering JSON from JsonWrapper Map", e);
+		}
 	}
 
 	/**
-	 * JsonWrapper specific annotation introspector. This gives us a way to programmatically associate
-	 * filtering for metadata properties prior to serialization. This is an advantage over annotated filtering
-	 * in that it's less rigid than compile time modification.
+	 * Serializes the {@link JsonWrapper}'s content as UTF-8 straight onto a stream through a {@link JsonGenerator}.
+	 * The bytes written are those of {@link #toString()}. The stream is flushed but left open.
+	 *
+	 * @param output stream to write to
+	 * @throws IOException if the stream cannot be written
 	 */
-	private static class JsonWrapperIntrospector extends JacksonAnnotationIntrospector {
-		private String filterName;
-
-		/**
-		 * @param filterName name of filter to be aassociated during introspection
-		 */
-		private JsonWrapperIntrospector(String filterName) {
-			this.filterName = filterName;
+	public void writeTo(OutputStream output) throws IOException {
+		try (JsonGenerator generator = WRITER.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+			writeTo(generator);
 		}
+	}
 
-		/**
-		 * Apply the {@link JsonWrapperIntrospector#filterName} filter to all instances of Map.
-		 *
-		 * @param a objects to be serialized
-		 * @return either the specified filter or a the default supplied by the parent.
-		 * @see JacksonAnnotationIntrospector
-		 */
-		@Override
-		public Object findFilterId(Annotated a) {
-			if (Map.class.isAssignableFrom(a.getRawType())) {
-				return filterName;
-			}
-			return super.findFilterId(a);
+	/**
+	 * Serializes the {@link JsonWrapper}'s content straight onto a writer through a {@link JsonGenerator}.
+	 * The characters written are those of {@link #toString()}. The writer is flushed but left open.
+	 *
+	 * @param writer writer to write to
+	 * @throws IOException if the writer cannot be written
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		try (JsonGenerator generator = WRITER.getFactory().createGenerator(writer)) {
+			writeTo(generator);
 		}
 	}
 
+	private void writeTo(JsonGenerator generator) throws IOException {
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		WRITER.writeValue(generator, getObject());
+	}
+
 	/**
-	 * Filters out all map entries during serialization that have keys prefixed with "metadata_".
+	 * Convenience method to get the JsonWrapper's content as an input stream.
+	 *
+	 * @return input stream containing serialized json
 	 */
-	private static class MetadataPropertyFilter extends SimpleBeanPropertyFilter {
-		/**
-		 * Pass through inclusion for beans.
-		 *
-		 * @param writer that performs serialization
-		 * @return determination of whether or not it should be serialized
-		 */
-		@Override
-		protected boolean include(BeanPropertyWriter writer) {
-			return true;
-		}
+	public Source toSource() {
+		byte[] qppBytes = toBytes();
+		return new InputStreamSupplierSource("QPP", () -> new ByteArrayInputStream(qppBytes), qppBytes.length);
+	}
 
-		/**
-		 * Denies inclusion for "metadata_" prefixed properties.
-		 *
-		 * @param writer that performs serialization
-		 * @return determination of whether or not it should be serialized
-		 */
-		@Override
-		protected boolean include(PropertyWriter writer) {
-			return !writer.getName().startsWith("metadata_");
-		}
+	/**
+	 * Records that the wrapped object was encoded from a node.
+	 *
+	 * @param node decoded QRDA node
+	 */
+	void attachProvenance(Node node) {
+		mergeProvenance(Provenance.of(node, ""));
 	}
 
-	void attachMetadata(Node node) {
-		addMetaMap(createMetaMap(node, ""));
+	/**
+	 * Records the origin of the wrapped object.
+	 *
+	 * @param record origin of the object
+	 */
+	void mergeProvenance(Provenance record) {
+		checkWritable();
+		checkState(list);
+		initAsObject();
+		provenance().addRecords(Collections.singletonList(record));
 	}
 
-	Map<String,String> createMetaMap(Node node, String encodeLabel) {
-		Map<String, String> metaMap = new HashMap<>();
-		metaMap.put("encodeLabel", encodeLabel);
-		metaMap.put("nsuri", node.getDefaultNsUri());
-		metaMap.put("template", node.getType().name());
-		metaMap.put("path", node.getPath());
-		return metaMap;
+	/**
+	 * Records the origins of another wrapped object as those of a single attribute of this one.
+	 *
+	 * @param otherWrapper wrapper whose object the attribute was harvested from
+	 * @param encodeLabel name of the attribute
+	 */
+	void mergeProvenance(JsonWrapper otherWrapper, String encodeLabel) {
+		for (Provenance record : otherWrapper.getProvenance("")) {
+			mergeProvenance(record.withEncodeLabel(encodeLabel));
+		}
 	}
 
-	private void addMetaMap(Map<String, String> metaMap) {
-		Set<Map<String, String>> metaHolder = this.getMetadataHolder();
-		metaHolder.add(metaMap);
+	/**
+	 * Retrieves the origins of an object within the wrapper.
+	 *
+	 * @param pointer JSON pointer of the object relative to the wrapper, empty for the wrapped object itself
+	 * @return the records in the order they were made, empty if there are none
+	 */
+	public List<Provenance> getProvenance(String pointer) {
+		ProvenanceTree tree = provenance == null ? null : provenance.find(pointer);
+		return tree == null ? Collections.emptyList() : tree.getRecords();
 	}
 
-	private Set<Map<String, String>> getMetadataHolder() {
-		Set<Map<String, String>> returnValue = this.getValue(METADATA_HOLDER);
-		if (returnValue == null) {
-			returnValue = new LinkedHashSet<>();
-			this.putObject(METADATA_HOLDER, returnValue);
+	/**
+	 * Appends a reference token to a JSON pointer, escaping '~' and '/' as RFC 6901 requires.
+	 *
+	 * @param pointer JSON pointer of the parent, empty for the root
+	 * @param token attribute name or array index of the child
+	 * @return JSON pointer of the child
+	 */
+	public static String pointer(String pointer, Object token) {
+		return pointer + "/" + token(token);
+	}
+
+	/**
+	 * Escapes '~' and '/' in a reference token as RFC 6901 requires.
+	 *
+	 * @param token attribute name or array index
+	 * @return the escaped reference token
+	 */
+	private static String token(Object token) {
+		String step = String.valueOf(token);
+		if (step.indexOf('~') >= 0 || step.indexOf('/') >= 0) {
+			step = step.replace("~", "~0").replace("/", "~1");
 		}
-		return returnValue;
+		return step;
 	}
 
-	void mergeMetadata(JsonWrapper otherWrapper, String encodeLabel) {
-		Set<Map<String, String>> meta = this.getMetadataHolder();
-		Set<Map<String, String>> otherMeta = otherWrapper.getMetadataHolder();
-		otherMeta.forEach(other -> {
-			other.put("encodeLabel", encodeLabel);
-			meta.add(other);
-		});
+	/**
+	 * Attaches the provenance of a wrapper placed directly within this one.
+	 *
+	 * @param token reference token the wrapper was placed at
+	 * @param other the placed wrapper
+	 */
+	private void adoptProvenance(String token, JsonWrapper other) {
+		if (other.provenance != null) {
+			provenance().putChild(token, other.provenance);
+		}
 	}
 
-	void mergeMetadata(Map<String, String> otherMeta) {
-		this.getMetadataHolder().add(otherMeta);
+	private ProvenanceTree provenance() {
+		if (provenance == null) {
+			provenance = new ProvenanceTree();
+		}
+		return provenance;
 	}
 }
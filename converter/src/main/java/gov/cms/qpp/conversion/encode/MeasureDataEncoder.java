@@ -43,7 +43,7 @@ public class MeasureDataEncoder extends QppOutputEncoder {
 			Node aggCount = node.findFirstNode(TemplateId.ACI_AGGREGATE_COUNT);
 
 			String encodeLabel = measureTypeMapper.get(measureType);
-			wrapper.putInteger(encodeLabel, aggCount.getValue(AGGREGATE_COUNT));
+			wrapper.putInteger(encodeLabel, aggCount, AGGREGATE_COUNT);
 			maintainContinuity(wrapper, aggCount, encodeLabel);
 		}
 	}
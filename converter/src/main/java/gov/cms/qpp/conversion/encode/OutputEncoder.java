@@ -1,5 +1,6 @@
 package gov.cms.qpp.conversion.encode;
 
+import java.io.OutputStream;
 import java.io.Writer;
 
 /**
@@ -14,6 +15,13 @@ public interface OutputEncoder {
 	 */
 	void encode(Writer writer);
 
+	/**
+	 * Encode data as UTF-8 to an OutputStream
+	 *
+	 * @param output stream the encoded json is written to, which is left open
+	 */
+	void encode(OutputStream output);
+
 	/**
 	 * Encode data to JsonWrapper
 	 */
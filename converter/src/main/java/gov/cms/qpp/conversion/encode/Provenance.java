@@ -0,0 +1,116 @@
+package gov.cms.qpp.conversion.encode;
+
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.SourceLocation;
+
+import java.util.Objects;
+
+/**
+ * Records where an encoded JSON object came from: the template and namespace of the decoded {@link Node}, its
+ * location in the original document and, when a value was harvested by an encoder other than the node's own, the
+ * JSON attribute it was encoded as.
+ *
+ * Records are kept by a {@link JsonWrapper} beside the content it wraps, so they are never serialized. The XPath of
+ * the node is only rendered when it is asked for.
+ */
+public final class Provenance {
+
+	private final String template;
+	private final String nsUri;
+	private final String encodeLabel;
+	private final SourceLocation location;
+	private final String path;
+
+	private Provenance(String template, String nsUri, String encodeLabel, SourceLocation location, String path) {
+		this.template = template;
+		this.nsUri = nsUri;
+		this.encodeLabel = encodeLabel;
+		this.location = location;
+		this.path = path;
+	}
+
+	/**
+	 * Records the origin of an object encoded from a node.
+	 *
+	 * @param node decoded QRDA node
+	 * @param encodeLabel encoded json attribute name, empty if the whole object was encoded from the node
+	 * @return the record
+	 */
+	static Provenance of(Node node, String encodeLabel) {
+		SourceLocation location = node.getLocation();
+		return new Provenance(node.getType().name(), node.getDefaultNsUri(), encodeLabel,
+				location, location == null ? node.getPath() : null);
+	}
+
+	/**
+	 * Records the same origin under another encode label.
+	 *
+	 * @param label encoded json attribute name
+	 * @return the relabeled record
+	 */
+	Provenance withEncodeLabel(String label) {
+		return Objects.equals(encodeLabel, label) ? this : new Provenance(template, nsUri, label, location, path);
+	}
+
+	/**
+	 * Gets the name of the {@link gov.cms.qpp.conversion.model.TemplateId} of the originating node.
+	 *
+	 * @return The template name
+	 */
+	public String getTemplate() {
+		return template;
+	}
+
+	/**
+	 * Gets the default namespace URI of the originating node.
+	 *
+	 * @return The namespace URI
+	 */
+	public String getNsUri() {
+		return nsUri;
+	}
+
+	/**
+	 * Gets the JSON attribute a harvested value was encoded as.
+	 *
+	 * @return The attribute name, empty if the whole object was encoded from the node
+	 */
+	public String getEncodeLabel() {
+		return encodeLabel;
+	}
+
+	/**
+	 * Gets the absolute XPath of the originating node, rendering it from its location when it has one.
+	 *
+	 * @return The XPath
+	 */
+	public String getPath() {
+		return location == null ? path : location.toXPath();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof Provenance)) {
+			return false;
+		}
+		Provenance that = (Provenance) other;
+		return Objects.equals(template, that.template)
+				&& Objects.equals(nsUri, that.nsUri)
+				&& Objects.equals(encodeLabel, that.encodeLabel)
+				&& Objects.equals(location, that.location)
+				&& Objects.equals(path, that.path);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(template, nsUri, encodeLabel, location, path);
+	}
+
+	@Override
+	public String toString() {
+		return template + (encodeLabel.isEmpty() ? "" : "#" + encodeLabel) + " at " + getPath();
+	}
+}
@@ -0,0 +1,146 @@
+package gov.cms.qpp.conversion.encode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@link Provenance} of a wrapped json value and of the values within it, keyed by the
+ * <a href="https://tools.ietf.org/html/rfc6901">JSON pointer</a> reference tokens that lead to them.
+ *
+ * A tree travels with the content it describes: placing a {@link JsonWrapper} within another attaches its tree under
+ * the token it is placed at, and a wrapper taken from an array entry reads the tree of that entry. Neither copies
+ * any records, and finding the records of a pointer walks one tree node per reference token.
+ */
+final class ProvenanceTree {
+
+	private List<Provenance> records = Collections.emptyList();
+	private Map<String, ProvenanceTree> children;
+
+	ProvenanceTree() {
+		// no records until the first are added
+	}
+
+	/**
+	 * Creates a tree holding the records of another. The trees of the values within are shared.
+	 *
+	 * @param tree to copy
+	 */
+	ProvenanceTree(ProvenanceTree tree) {
+		this.records = tree.records;
+		this.children = tree.children == null ? null : new HashMap<>(tree.children);
+	}
+
+	/**
+	 * Gets the records of the value itself
+	 *
+	 * @return the records in the order they were made, empty if there are none
+	 */
+	List<Provenance> getRecords() {
+		return records;
+	}
+
+	/**
+	 * Adds records of the value itself, keeping earlier records first and leaving out duplicates. Record lists are
+	 * never changed once made, so trees may share them.
+	 *
+	 * @param added records to add
+	 */
+	void addRecords(List<Provenance> added) {
+		if (records.isEmpty()) {
+			records = added;
+			return;
+		}
+
+		List<Provenance> merged = new ArrayList<>(records.size() + added.size());
+		merged.addAll(records);
+		for (Provenance record : added) {
+			if (!merged.contains(record)) {
+				merged.add(record);
+			}
+		}
+		if (merged.size() > records.size()) {
+			records = Collections.unmodifiableList(merged);
+		}
+	}
+
+	/**
+	 * Finds the tree of a value within this one
+	 *
+	 * @param pointer JSON pointer of the value relative to this one, empty for this value
+	 * @return the tree, or null if nothing is recorded for the value
+	 */
+	ProvenanceTree find(String pointer) {
+		ProvenanceTree tree = this;
+		int start = 1;
+		while (tree != null && start <= pointer.length()) {
+			int end = pointer.indexOf('/', start);
+			end = end < 0 ? pointer.length() : end;
+			tree = tree.getChild(pointer.substring(start, end));
+			start = end + 1;
+		}
+		return tree;
+	}
+
+	/**
+	 * Gets the tree of a value directly within this one
+	 *
+	 * @param token reference token of the value
+	 * @return the tree, or null if nothing is recorded for the value
+	 */
+	ProvenanceTree getChild(String token) {
+		return children == null ? null : children.get(token);
+	}
+
+	/**
+	 * Attaches the tree of a value directly within this one. When the value already has a tree, the records of
+	 * the attached one are merged into it.
+	 *
+	 * @param token reference token of the value
+	 * @param child tree of the value
+	 */
+	void putChild(String token, ProvenanceTree child) {
+		if (children == null) {
+			children = new HashMap<>();
+		}
+		ProvenanceTree existing = children.putIfAbsent(token, child);
+		if (existing != null && existing != child) {
+			existing.merge(child);
+		}
+	}
+
+	/**
+	 * Drops the tree of a value directly within this one
+	 *
+	 * @param token reference token of the value
+	 */
+	void removeChild(String token) {
+		if (children != null) {
+			children.remove(token);
+		}
+	}
+
+	/**
+	 * Merges the records of another tree into this one
+	 *
+	 * @param other tree to merge
+	 */
+	void merge(ProvenanceTree other) {
+		addRecords(other.records);
+		other.forEachChild(this::putChild);
+	}
+
+	/**
+	 * Performs an action for the tree of each value directly within this one
+	 *
+	 * @param action receives the reference token and tree of each value
+	 */
+	void forEachChild(BiConsumer<String, ProvenanceTree> action) {
+		if (children != null) {
+			children.forEach(action);
+		}
+	}
+}
@@ -7,8 +7,6 @@ import gov.cms.qpp.conversion.model.Registry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-
 /**
  * Top level Encoder for serializing into QPP format.
  */
@@ -56,7 +54,6 @@ public class QppOutputEncoder extends JsonOutputEncoder {
 	 * @param leafLabel encoded json attribute name
 	 */
 	void maintainContinuity(JsonWrapper wrapper, Node node, String leafLabel) {
-		Map<String, String> otherMeta = wrapper.createMetaMap(node, leafLabel);
-		wrapper.mergeMetadata(otherMeta);
+		wrapper.mergeProvenance(Provenance.of(node, leafLabel));
 	}
 }
@@ -44,8 +44,7 @@ public class QualityMeasureIdEncoder extends QppOutputEncoder {
 	 */
 	@Override
 	public void internalEncode(JsonWrapper wrapper, Node node) {
-		Map<String, MeasureConfig> configurationMap = MeasureConfigs.getConfigurationMap();
-		MeasureConfig measureConfig = configurationMap.get(node.getValue(MEASURE_ID));
+		MeasureConfig measureConfig = MeasureConfigs.getMeasureConfig(node.getValue(MEASURE_ID));
 		String measureId = measureConfig.getMeasureId();
 		wrapper.putString(MEASURE_ID, measureId);
 
@@ -203,7 +202,7 @@ public class QualityMeasureIdEncoder extends QppOutputEncoder {
 			node -> {
 				Node aggCount = node.getChildNodes().get(0);
 				maintainContinuity(wrapper, aggCount, "performanceMet");
-				wrapper.putInteger("performanceMet", aggCount.getValue(AGGREGATE_COUNT));
+				wrapper.putInteger("performanceMet", aggCount, AGGREGATE_COUNT);
 			});
 	}
 
@@ -0,0 +1,110 @@
+package gov.cms.qpp.conversion.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the nodes of a tree by {@link TemplateId}, built once the tree is complete.
+ *
+ * Nodes are numbered depth first, and each node records the range of numbers its subtree spans, so a search from any
+ * node of the tree reads that range of the indexed nodes of a type.
+ *
+ * Every node of the tree holds a reference to the index, and a change to the children or type of any of them marks
+ * the index as stale. A stale index is never read again; searches walk the tree instead.
+ */
+final class DescendantIndex {
+
+	private final Node root;
+	private final Map<TemplateId, List<Node>> nodesByType = new EnumMap<>(TemplateId.class);
+	private final Map<Node, int[]> spans = new IdentityHashMap<>();
+	private volatile boolean stale;
+
+	private DescendantIndex(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Indexes a tree and attaches the index to each of its nodes
+	 *
+	 * @param root of the tree
+	 * @return The index
+	 */
+	static DescendantIndex build(Node root) {
+		DescendantIndex index = new DescendantIndex(root);
+		index.add(root, 0);
+		return index;
+	}
+
+	/**
+	 * Indexes a node and its descendants, depth first
+	 *
+	 * @param node node to index
+	 * @param number depth first number of the node
+	 * @return The number following the last descendant of the node
+	 */
+	private int add(Node node, int number) {
+		node.attach(this);
+		if (node.getType() != null) {
+			nodesByType.computeIfAbsent(node.getType(), key -> new ArrayList<>()).add(node);
+		}
+
+		int[] span = {number, number + 1};
+		spans.put(node, span);
+		for (Node child : node.getChildNodes()) {
+			span[1] = add(child, span[1]);
+		}
+		return span[1];
+	}
+
+	/**
+	 * Gets the indexed nodes of a type in the subtree of a node
+	 *
+	 * @param from node the search starts from
+	 * @param templateId type of the nodes
+	 * @return The nodes in depth first order, or null if the index cannot answer a search from the given node
+	 */
+	List<Node> find(Node from, TemplateId templateId) {
+		int[] span = spans.get(from);
+		if (stale || span == null || templateId == null) {
+			return null;
+		}
+
+		List<Node> nodes = nodesByType.getOrDefault(templateId, Collections.emptyList());
+		if (from == root) {
+			return nodes;
+		}
+		return nodes.subList(numberedFrom(nodes, span[0]), numberedFrom(nodes, span[1]));
+	}
+
+	/**
+	 * Finds the position of the first node numbered at or after a number
+	 *
+	 * @param nodes indexed nodes, in depth first order
+	 * @param number depth first number
+	 * @return The position, or the size of the list if every node is numbered before
+	 */
+	private int numberedFrom(List<Node> nodes, int number) {
+		int low = 0;
+		int high = nodes.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (spans.get(nodes.get(middle))[0] < number) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Marks the index as no longer matching the tree
+	 */
+	void invalidate() {
+		stale = true;
+	}
+}
@@ -1,36 +1,40 @@
 package gov.cms.qpp.conversion.model;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.common.base.MoreObjects;
 
 /**
- * Represents a node of data that should be converted. Consists of a key/value
- * Map that holds the data gleaned from an input file.
+ * Represents a node of data that should be converted. Consists of a compact
+ * key/value store that holds the data gleaned from an input file.
  * Nodes can contain other nodes as children to create a hierarchy.
  */
 public class Node {
-	private final List<Node> childNodes = new ArrayList<>();
-	private final Map<String, String> data = new HashMap<>();
-	private final Map<String, List<String>> duplicateData = new HashMap<>();
+	private final List<Node> childNodes = new ChildList();
+	private volatile Map<TemplateId, List<Node>> childIndex;
+	private DescendantIndex descendantIndex;
+	private final NodeData data = new NodeData();
 
 	private TemplateId type;
 	private Node parent;
 	private boolean validated;
+	private boolean frozen;
 
 	private String defaultNsUri;
 	private String path;
+	private SourceLocation location;
 
 	/**
 	 * Default constructor initializes internal list of Nodes
@@ -76,7 +80,30 @@ public class Node {
 	 * @return mapped duplicates of target value
 	 */
 	public List<String> getDuplicateValues(String name) {
-		return duplicateData.get(name);
+		List<String> duplicates = data.getDuplicates(name);
+		return frozen && duplicates != null ? Collections.unmodifiableList(duplicates) : duplicates;
+	}
+
+	/**
+	 * getIntegerValue returns the value under the key: name, if it was a plain integer when it was put
+	 *
+	 * @param name String key for the value
+	 * @return The parsed value, or null if there is no value or it is not a plain integer
+	 */
+	public Integer getIntegerValue(String name) {
+		Number number = data.getNumber(name);
+		return number instanceof Integer ? (Integer) number : null;
+	}
+
+	/**
+	 * getFloatValue returns the value under the key: name, if it was a plain integer or decimal when it was put
+	 *
+	 * @param name String key for the value
+	 * @return The parsed value, or null if there is no value or it is not a plain number
+	 */
+	public Float getFloatValue(String name) {
+		Number number = data.getNumber(name);
+		return number == null ? null : number.floatValue();
 	}
 
 	/**
@@ -96,15 +123,11 @@ public class Node {
 	 * @param value String that is stored with this xml parsed Node
 	 */
 	public void putValue(String name, String value, boolean replace) {
+		checkNotFrozen();
 		if (getValue(name) == null || replace) {
 			data.put(name, value);
 		} else {
-			List<String> duplicates = Optional.ofNullable(duplicateData.get(name))
-					.orElseGet(() -> {
-				duplicateData.put(name, new ArrayList<>());
-				return duplicateData.get(name);
-			});
-			duplicates.add(value);
+			data.addDuplicate(name, value);
 		}
 	}
 
@@ -114,6 +137,7 @@ public class Node {
 	 * @param name String key to remove value under
 	 */
 	public void removeValue(String name) {
+		checkNotFrozen();
 		data.remove(name);
 	}
 
@@ -124,7 +148,7 @@ public class Node {
 	 * @return corresponding value
 	 */
 	public boolean hasValue(String name) {
-		return data.containsKey(name);
+		return data.contains(name);
 	}
 
 	/**
@@ -142,11 +166,43 @@ public class Node {
 	 * @return List of matching child Nodes.
 	 */
 	public Stream<Node> getChildNodes(TemplateId... templateIds) {
+		if (templateIds.length == 1) {
+			return childrenOfType(templateIds[0]).stream();
+		}
+
 		Set<TemplateId> lookupTemplateIds = EnumSet.noneOf(TemplateId.class);
 		Collections.addAll(lookupTemplateIds, templateIds);
 		return getChildNodes(node -> lookupTemplateIds.contains(node.getType()));
 	}
 
+	/**
+	 * Counts the child Nodes of the template ids specified
+	 *
+	 * @param templateIds types of the child Nodes to count
+	 * @return count of matching child Nodes.
+	 */
+	public int countChildNodes(TemplateId... templateIds) {
+		Set<TemplateId> lookupTemplateIds = EnumSet.noneOf(TemplateId.class);
+		Collections.addAll(lookupTemplateIds, templateIds);
+
+		int count = 0;
+		for (TemplateId templateId : lookupTemplateIds) {
+			count += childrenOfType(templateId).size();
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the first child Node of the given template id.
+	 *
+	 * @param templateId type of the child Node
+	 * @return matching child Node, or null if there is none.
+	 */
+	public Node findChildNode(TemplateId templateId) {
+		List<Node> children = childrenOfType(templateId);
+		return children.isEmpty() ? null : children.get(0);
+	}
+
 	/**
 	 * Returns a list of child Nodes for this Node that satisfy the predicate.
 	 *
@@ -213,6 +269,32 @@ public class Node {
 		return this.childNodes.remove(childNode);
 	}
 
+	/**
+	 * Gets the child Nodes of a type from the index, building the index if the children changed since it was
+	 * last built
+	 *
+	 * @param templateId type of the child Nodes
+	 * @return The matching child Nodes, in the order they appear among the children
+	 */
+	private List<Node> childrenOfType(TemplateId templateId) {
+		if (templateId == null) {
+			return childNodes.stream().filter(node -> node.getType() == null).collect(Collectors.toList());
+		}
+
+		Map<TemplateId, List<Node>> index = childIndex;
+		if (index == null) {
+			// built aside and published whole, so that threads validating in parallel never see a partial index
+			index = new EnumMap<>(TemplateId.class);
+			for (Node childNode : childNodes) {
+				if (childNode.getType() != null) {
+					index.computeIfAbsent(childNode.getType(), key -> new ArrayList<>()).add(childNode);
+				}
+			}
+			childIndex = index;
+		}
+		return index.getOrDefault(templateId, Collections.emptyList());
+	}
+
 	/**
 	 * getKeys gets the internal keyset for the list of Nodes
 	 *
@@ -237,6 +319,7 @@ public class Node {
 	 * @param parent Node
 	 */
 	public void setParent(Node parent) {
+		checkNotFrozen();
 		this.parent = parent;
 	}
 
@@ -246,6 +329,13 @@ public class Node {
 	 * @param type TemplateId
 	 */
 	public void setType(TemplateId type) {
+		checkNotFrozen();
+		if (this.type != type) {
+			treeChanged();
+			if (parent != null) {
+				parent.childIndex = null;
+			}
+		}
 		this.type = type;
 	}
 
@@ -264,6 +354,9 @@ public class Node {
 	 * @return The path.
 	 */
 	public String getPath() {
+		if (path == null && location != null) {
+			return location.toXPath();
+		}
 		return path;
 	}
 
@@ -273,7 +366,30 @@ public class Node {
 	 * @param newPath The path.
 	 */
 	public void setPath(String newPath) {
+		checkNotFrozen();
 		path = newPath;
+		location = null;
+	}
+
+	/**
+	 * Returns the location in the original document this {@code Node} is associated with.
+	 *
+	 * @return The location, or {@code null} if the node has none or was given a literal path.
+	 */
+	public SourceLocation getLocation() {
+		return location;
+	}
+
+	/**
+	 * Sets the location in the original document that this {@code Node} is associated with.
+	 * The path is rendered from the location when it is asked for.
+	 *
+	 * @param newLocation The location.
+	 */
+	public void setLocation(SourceLocation newLocation) {
+		checkNotFrozen();
+		location = newLocation;
+		path = null;
 	}
 
 	/**
@@ -291,6 +407,7 @@ public class Node {
 	 * @param newDefaultNsUri updated default namespace URI.
 	 */
 	public void setDefaultNsUri(String newDefaultNsUri) {
+		checkNotFrozen();
 		defaultNsUri = newDefaultNsUri;
 	}
 
@@ -302,29 +419,18 @@ public class Node {
 	 * {@link gov.cms.qpp.conversion.model.Node}'s hierarchy that match the searched id
 	 */
 	public List<Node> findNode(TemplateId templateId) {
-		return findNode(templateId, null);
-	}
+		List<Node> indexed = indexedDescendants(templateId);
+		if (indexed != null) {
+			return new ArrayList<>(indexed);
+		}
 
-	/**
-	 * Search of this and child nodes for matching ids
-	 *
-	 * @param templateId templateid that identifies matching {@link gov.cms.qpp.conversion.model.Node}s
-	 * @param bail lambda that consumes a list and returns a boolean that governs early exit
-	 * @return a list of {@link gov.cms.qpp.conversion.model.Node}s in this
-	 * {@link gov.cms.qpp.conversion.model.Node}'s hierarchy that match the searched id
-	 */
-	private List<Node> findNode(TemplateId templateId, Predicate<List<Node>> bail) {
 		List<Node> foundNodes = new ArrayList<>();
-		if (this.type == templateId) {
-			foundNodes.add(this);
-		}
-		for (Node childNode : childNodes) {
-			if (bail != null && bail.test(foundNodes)) {
-				break;
+		visit(node -> {
+			if (node.type == templateId) {
+				foundNodes.add(node);
 			}
-			List<Node> matches = childNode.findNode(templateId, bail);
-			foundNodes.addAll(matches);
-		}
+			return true;
+		});
 		return foundNodes;
 	}
 
@@ -337,8 +443,146 @@ public class Node {
 	 * if no matches are found
 	 */
 	public Node findFirstNode(TemplateId templateId) {
-		List<Node> nodes = this.findNode(templateId, Node::foundNode);
-		return nodes.isEmpty() ? null : nodes.get(0);
+		List<Node> indexed = indexedDescendants(templateId);
+		if (indexed != null) {
+			return indexed.isEmpty() ? null : indexed.get(0);
+		}
+
+		Node[] found = new Node[1];
+		visit(node -> {
+			if (node.type == templateId) {
+				found[0] = node;
+				return false;
+			}
+			return true;
+		});
+		return found[0];
+	}
+
+	/**
+	 * Visits this node and its descendants depth first, in document order, until the visitor asks to stop
+	 *
+	 * @param visitor returns false to stop the traversal
+	 * @return false if the visitor stopped the traversal early
+	 */
+	public boolean visit(Predicate<Node> visitor) {
+		if (!visitor.test(this)) {
+			return false;
+		}
+		for (int index = 0; index < childNodes.size(); index++) {
+			if (!childNodes.get(index).visit(visitor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indexes this node and its descendants by template id, so that searches from this node or any of its
+	 * descendants read from the index until any node in the tree changes its children or type
+	 */
+	public void indexDescendants() {
+		DescendantIndex.build(this);
+	}
+
+	/**
+	 * Reads the nodes of a type from the descendant index
+	 *
+	 * @param templateId type of the nodes
+	 * @return The matching nodes, or null if there is no current index covering this node
+	 */
+	private List<Node> indexedDescendants(TemplateId templateId) {
+		DescendantIndex index = descendantIndex;
+		return index == null ? null : index.find(this, templateId);
+	}
+
+	/**
+	 * Attaches the descendant index this node is covered by
+	 *
+	 * @param index Index of the tree
+	 */
+	void attach(DescendantIndex index) {
+		descendantIndex = index;
+	}
+
+	/**
+	 * Marks the descendant index covering this node as stale
+	 */
+	private void treeChanged() {
+		DescendantIndex index = descendantIndex;
+		if (index != null) {
+			index.invalidate();
+			descendantIndex = null;
+		}
+	}
+
+	/**
+	 * Makes this node and its descendants read only, so that they can be handed out without being copied.
+	 * Only the validation state may still change, as validating a node records that it has been validated.
+	 *
+	 * @return this node
+	 * @see #copy()
+	 */
+	public Node freeze() {
+		visit(node -> {
+			node.frozen = true;
+			return true;
+		});
+		return this;
+	}
+
+	/**
+	 * Whether this node has been made read only
+	 *
+	 * @return true if the node has been frozen
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Creates a modifiable deep copy of this node and its descendants. Children whose parent is the node being
+	 * copied get the copy as their parent.
+	 *
+	 * @return the copy
+	 */
+	public Node copy() {
+		return copy(parent);
+	}
+
+	/**
+	 * Creates a modifiable deep copy of this node and its descendants
+	 *
+	 * @param copiedParent parent of the copy
+	 * @return the copy
+	 */
+	private Node copy(Node copiedParent) {
+		Node copy = new Node(type, copiedParent);
+		for (String key : data.keySet()) {
+			copy.data.put(key, data.get(key));
+			List<String> duplicates = data.getDuplicates(key);
+			if (duplicates != null) {
+				duplicates.forEach(duplicate -> copy.data.addDuplicate(key, duplicate));
+			}
+		}
+		copy.validated = validated;
+		copy.defaultNsUri = defaultNsUri;
+		copy.path = path;
+		copy.location = location;
+		for (Node child : childNodes) {
+			copy.childNodes.add(child.copy(child.parent == this ? copy : child.parent));
+		}
+		return copy;
+	}
+
+	/**
+	 * Rejects changes to a frozen node
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("Node " + type + " is frozen");
+		}
 	}
 
 	/**
@@ -375,16 +619,6 @@ public class Node {
 		return !isValidated();
 	}
 
-	/**
-	 * foundNode checks to see if any Node exists in the List
-	 *
-	 * @param nodes A list
-	 * @return Whether the list has an element or not
-	 */
-	private static boolean foundNode(List<?> nodes) {
-		return !nodes.isEmpty();
-	}
-
 	/**
 	 * creates a readable representation of this {@code Node}.
 	 *
@@ -399,7 +633,7 @@ public class Node {
 				.add("parent", parent == null ? null : "not null")
 				.add("validated", validated)
 				.add("defaultNsUri", defaultNsUri)
-				.add("path", path)
+				.add("path", getPath())
 				.toString();
 	}
 
@@ -423,13 +657,13 @@ public class Node {
 
 		boolean halfEquals = isValidated() == node.isValidated()
 			&& Objects.equals(getChildNodes(), node.getChildNodes())
-			&& Objects.equals(data, node.data)
-			&& Objects.equals(duplicateData, node.duplicateData);
+			&& Objects.equals(data, node.data);
 
 		return halfEquals
 			&& getType() == node.getType()
 			&& Objects.equals(getDefaultNsUri(), node.getDefaultNsUri())
-			&& Objects.equals(getPath(), node.getPath());
+			&& Objects.equals(location, node.location)
+			&& Objects.equals(path, node.path);
 	}
 
 	/**
@@ -439,6 +673,59 @@ public class Node {
 	 */
 	@Override
 	public final int hashCode() {
-		return Objects.hash(getChildNodes(), data, duplicateData, getType(), isValidated(), getDefaultNsUri(), getPath());
+		return Objects.hash(getChildNodes(), data, getType(), isValidated(), getDefaultNsUri(), location, path);
+	}
+
+	/**
+	 * Holds the child Nodes and drops the index of child Nodes by type on any change, so it is built again when it
+	 * is next read. A published index is never changed.
+	 */
+	private final class ChildList extends AbstractList<Node> {
+		private final List<Node> children = new ArrayList<>();
+
+		@Override
+		public Node get(int index) {
+			return children.get(index);
+		}
+
+		@Override
+		public int size() {
+			return children.size();
+		}
+
+		@Override
+		public Node set(int index, Node element) {
+			checkNotFrozen();
+			childIndex = null;
+			treeChanged();
+			return children.set(index, element);
+		}
+
+		@Override
+		public void add(int index, Node element) {
+			checkNotFrozen();
+			childIndex = null;
+			treeChanged();
+			modCount++;
+			children.add(index, element);
+		}
+
+		@Override
+		public Node remove(int index) {
+			checkNotFrozen();
+			childIndex = null;
+			treeChanged();
+			modCount++;
+			return children.remove(index);
+		}
+
+		@Override
+		public void clear() {
+			checkNotFrozen();
+			childIndex = null;
+			treeChanged();
+			modCount++;
+			children.clear();
+		}
 	}
 }
@@ -0,0 +1,302 @@
+package gov.cms.qpp.conversion.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Compact store for the values of a {@link Node}.
+ *
+ * Most nodes hold a handful of values, so they are kept in parallel arrays keyed by ids that are shared by every
+ * node. Values that are plain integers or decimals are parsed once when they are put, so that validators and
+ * encoders do not parse them again. Duplicate values are only given a map when a node has some.
+ */
+final class NodeData {
+
+	private static final int INITIAL_CAPACITY = 4;
+	private static final int MAX_INTEGER_DIGITS = 9;
+
+	private static final ConcurrentMap<String, Integer> KEY_IDS = new ConcurrentHashMap<>();
+	private static final List<String> KEY_NAMES = new CopyOnWriteArrayList<>();
+
+	private int[] keys = new int[INITIAL_CAPACITY];
+	private String[] values = new String[INITIAL_CAPACITY];
+	private Number[] numbers;
+	private int size;
+	private Map<String, List<String>> duplicates;
+
+	/**
+	 * Gets the value stored under a key
+	 *
+	 * @param name key of the value
+	 * @return The value, or null if there is none
+	 */
+	String get(String name) {
+		int index = indexOf(name);
+		return index < 0 ? null : values[index];
+	}
+
+	/**
+	 * Gets the number parsed from the value stored under a key
+	 *
+	 * @param name key of the value
+	 * @return An {@link Integer} or {@link Float}, or null if the value is not a plain number
+	 */
+	Number getNumber(String name) {
+		int index = indexOf(name);
+		return index < 0 || numbers == null ? null : numbers[index];
+	}
+
+	/**
+	 * Determines whether a value is stored under a key
+	 *
+	 * @param name key of the value
+	 * @return true if the key is present, even when its value is null
+	 */
+	boolean contains(String name) {
+		return indexOf(name) >= 0;
+	}
+
+	/**
+	 * Stores a value under a key, replacing the value that was there
+	 *
+	 * @param name key of the value
+	 * @param value to store
+	 */
+	void put(String name, String value) {
+		int index = indexOf(name);
+		if (index < 0) {
+			index = append(idOf(name));
+		}
+		values[index] = value;
+
+		Number number = parse(value);
+		if (number != null && numbers == null) {
+			numbers = new Number[values.length];
+		}
+		if (numbers != null) {
+			numbers[index] = number;
+		}
+	}
+
+	/**
+	 * Removes the value stored under a key
+	 *
+	 * @param name key of the value
+	 */
+	void remove(String name) {
+		int index = indexOf(name);
+		if (index < 0) {
+			return;
+		}
+
+		int moved = size - index - 1;
+		System.arraycopy(keys, index + 1, keys, index, moved);
+		System.arraycopy(values, index + 1, values, index, moved);
+		if (numbers != null) {
+			System.arraycopy(numbers, index + 1, numbers, index, moved);
+			numbers[size - 1] = null;
+		}
+		size--;
+		values[size] = null;
+	}
+
+	/**
+	 * Gets the duplicate values stored under a key
+	 *
+	 * @param name key of the values
+	 * @return The duplicates, or null if there are none
+	 */
+	List<String> getDuplicates(String name) {
+		return duplicates == null ? null : duplicates.get(name);
+	}
+
+	/**
+	 * Adds a duplicate value under a key
+	 *
+	 * @param name key of the value
+	 * @param value to add
+	 */
+	void addDuplicate(String name, String value) {
+		if (duplicates == null) {
+			duplicates = new HashMap<>();
+		}
+		duplicates.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+	}
+
+	/**
+	 * Gets the keys that have values, in the order they were first put
+	 *
+	 * @return The keys
+	 */
+	Set<String> keySet() {
+		Set<String> names = new LinkedHashSet<>();
+		for (int index = 0; index < size; index++) {
+			names.add(KEY_NAMES.get(keys[index]));
+		}
+		return names;
+	}
+
+	/**
+	 * Copies the values into a map
+	 *
+	 * @return The values by key
+	 */
+	Map<String, String> asMap() {
+		Map<String, String> map = new LinkedHashMap<>();
+		for (int index = 0; index < size; index++) {
+			map.put(KEY_NAMES.get(keys[index]), values[index]);
+		}
+		return map;
+	}
+
+	private int indexOf(String name) {
+		Integer id = name == null ? null : KEY_IDS.get(name);
+		return id == null ? -1 : indexOfKey(id);
+	}
+
+	private int append(int key) {
+		if (size == keys.length) {
+			int capacity = size * 2;
+			keys = Arrays.copyOf(keys, capacity);
+			values = Arrays.copyOf(values, capacity);
+			if (numbers != null) {
+				numbers = Arrays.copyOf(numbers, capacity);
+			}
+		}
+		keys[size] = key;
+		return size++;
+	}
+
+	/**
+	 * Gets the id shared by every node for a key, assigning one if the key is new
+	 *
+	 * @param name key
+	 * @return The key's id
+	 */
+	private static int idOf(String name) {
+		Objects.requireNonNull(name, "name");
+		Integer id = KEY_IDS.get(name);
+		return id != null ? id : register(name);
+	}
+
+	private static synchronized int register(String name) {
+		Integer id = KEY_IDS.get(name);
+		if (id == null) {
+			KEY_NAMES.add(name);
+			id = KEY_NAMES.size() - 1;
+			KEY_IDS.put(name, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Parses plain integers and decimals. Anything else, including exponents and surrounding whitespace, is left
+	 * to the callers to parse as they always have.
+	 *
+	 * @param value to parse
+	 * @return An {@link Integer}, a {@link Float} or null
+	 */
+	static Number parse(String value) {
+		if (value == null || value.isEmpty()) {
+			return null;
+		}
+
+		int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+		int digits = 0;
+		int point = -1;
+		for (int index = start; index < value.length(); index++) {
+			char character = value.charAt(index);
+			if (character == '.' && point < 0) {
+				point = index;
+			} else if (character >= '0' && character <= '9') {
+				digits++;
+			} else {
+				return null;
+			}
+		}
+
+		if (digits == 0) {
+			return null;
+		}
+		if (point < 0 && digits <= MAX_INTEGER_DIGITS) {
+			return Integer.valueOf(value);
+		}
+		return point < 0 ? null : Float.valueOf(value);
+	}
+
+	/**
+	 * Compares the values and duplicates of two stores, regardless of the order they were put in
+	 *
+	 * @param o The other object
+	 * @return {@code true} if both hold the same values
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof NodeData)) {
+			return false;
+		}
+
+		NodeData that = (NodeData) o;
+		if (size != that.size) {
+			return false;
+		}
+		for (int index = 0; index < size; index++) {
+			int other = that.indexOfKey(keys[index]);
+			if (other < 0 || !Objects.equals(values[index], that.values[other])) {
+				return false;
+			}
+		}
+		return Objects.equals(duplicatesOrEmpty(), that.duplicatesOrEmpty());
+	}
+
+	/**
+	 * Computes the hash code from the key ids and values, regardless of the order they were put in
+	 *
+	 * @return The hash code
+	 */
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int index = 0; index < size; index++) {
+			hash += keys[index] ^ Objects.hashCode(values[index]);
+		}
+		return 31 * hash + duplicatesOrEmpty().hashCode();
+	}
+
+	/**
+	 * Renders the values as a map
+	 *
+	 * @return A string representation
+	 */
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+
+	private int indexOfKey(int key) {
+		for (int index = 0; index < size; index++) {
+			if (keys[index] == key) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	private Map<String, List<String>> duplicatesOrEmpty() {
+		return duplicates == null ? Collections.emptyMap() : duplicates;
+	}
+}
@@ -1,15 +1,21 @@
 package gov.cms.qpp.conversion.model;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -20,10 +26,14 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.util.HandlerIndexProcessor;
 
 /**
  * This class manages the available transformation handlers. Currently it takes
@@ -35,13 +45,20 @@ import gov.cms.qpp.conversion.Context;
 public class Registry<R> {
 
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(Registry.class);
-	private static final Map<Class<?>, Function<Context, Object>> CONSTRUCTORS = new IdentityHashMap<>();
+	private static final String SCANNED_PACKAGE = "gov.cms";
+	private static final ClassValue<Function<Context, Object>> CONSTRUCTORS = new ClassValue<Function<Context, Object>>() {
+		@Override
+		protected Function<Context, Object> computeValue(Class<?> handlerClass) {
+			return createHandler(handlerClass);
+		}
+	};
 	private static final Map<Class<? extends Annotation>, Map<ComponentKey, Class<?>>> SHARED_REGISTRY_MAP
 		= new ConcurrentHashMap<>();
 
 	private final Context context;
 	private final Map<ComponentKey, Class<?>> registryMap;
 	private final Class<? extends Annotation> annotationClass;
+	private volatile boolean customized;
 
 	/**
 	 * Registry constructor
@@ -59,13 +76,111 @@ public class Registry<R> {
 	}
 
 	/**
-	 * Searches the class path for types with the given annotation
+	 * Finds the types with the given annotation, from the handler indexes written at compile time, and by searching
+	 * the class path roots that have no index
 	 *
 	 * @param annotationClass The annotation for which to search
 	 * @return A map of classes with the given annotation
 	 */
 	private Map<ComponentKey, Class<?>> lookupAnnotatedClasses(Class<? extends Annotation> annotationClass) {
-		Reflections reflections = new Reflections("gov.cms");
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		return lookupAnnotatedClasses(annotationClass, loader == null ? Registry.class.getClassLoader() : loader);
+	}
+
+	/**
+	 * Finds the types with the given annotation. Handler indexes are read first, then the class path roots without
+	 * an index are searched, and what the search finds is kept for the keys no index lists.
+	 *
+	 * @param annotationClass The annotation for which to search
+	 * @param loader The class loader that finds the indexes and class path roots, and loads the classes
+	 * @return A map of classes with the given annotation
+	 */
+	Map<ComponentKey, Class<?>> lookupAnnotatedClasses(Class<? extends Annotation> annotationClass, ClassLoader loader) {
+		Set<String> indexedRoots = new HashSet<>();
+		Map<ComponentKey, Class<?>> registry = readIndex(annotationClass, loader, indexedRoots);
+
+		List<URL> unindexedRoots = ClasspathHelper.forPackage(SCANNED_PACKAGE, loader).stream()
+				.filter(root -> !indexedRoots.contains(root.toExternalForm()))
+				.collect(Collectors.toList());
+		if (!unindexedRoots.isEmpty()) {
+			DEV_LOG.info("No handler index found in " + unindexedRoots + " for " + annotationClass.getSimpleName()
+					+ ", searching them instead");
+			scanAnnotatedClasses(annotationClass, loader, unindexedRoots).forEach(registry::putIfAbsent);
+		}
+
+		return registry;
+	}
+
+	/**
+	 * Reads the entries for the given annotation from every handler index on the class path
+	 *
+	 * @param annotationClass The annotation for which to read entries
+	 * @param loader The class loader that finds the indexes and loads the classes
+	 * @return A map of classes with the given annotation, empty if no index lists any
+	 */
+	Map<ComponentKey, Class<?>> readIndex(Class<? extends Annotation> annotationClass, ClassLoader loader) {
+		return readIndex(annotationClass, loader, new HashSet<>());
+	}
+
+	/**
+	 * Reads the entries for the given annotation from every handler index on the class path, and collects the class
+	 * path roots the indexes were found in
+	 *
+	 * @param annotationClass The annotation for which to read entries
+	 * @param loader The class loader that finds the indexes and loads the classes
+	 * @param indexedRoots Receives the external form of every class path root that holds an index
+	 * @return A map of classes with the given annotation, empty if no index lists any
+	 */
+	private Map<ComponentKey, Class<?>> readIndex(Class<? extends Annotation> annotationClass, ClassLoader loader,
+			Set<String> indexedRoots) {
+		Map<ComponentKey, Class<?>> registry = new HashMap<>();
+		try {
+			Enumeration<URL> indexes = loader.getResources(HandlerIndexProcessor.INDEX_RESOURCE);
+			while (indexes.hasMoreElements()) {
+				URL index = indexes.nextElement();
+				String location = index.toExternalForm();
+				indexedRoots.add(location.substring(0, location.lastIndexOf(HandlerIndexProcessor.INDEX_RESOURCE)));
+				try (BufferedReader reader = new BufferedReader(
+						new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+					reader.lines().forEach(line -> readIndexEntry(annotationClass, loader, line, registry));
+				}
+			}
+		} catch (IOException e) {
+			DEV_LOG.warn("Unable to read the handler index", e);
+		}
+
+		return registry;
+	}
+
+	private void readIndexEntry(Class<? extends Annotation> annotationClass, ClassLoader loader, String line,
+			Map<ComponentKey, Class<?>> registry) {
+		String[] columns = line.split(HandlerIndexProcessor.SEPARATOR);
+		if (columns.length != 4 || !annotationClass.getName().equals(columns[0])) {
+			return;
+		}
+
+		try {
+			ComponentKey key = new ComponentKey(TemplateId.valueOf(columns[1]), Program.valueOf(columns[2]));
+			registry.put(key, Class.forName(columns[3], false, loader));
+		} catch (IllegalArgumentException | ClassNotFoundException e) {
+			DEV_LOG.warn("Ignoring stale handler index entry '" + line + "'", e);
+		}
+	}
+
+	/**
+	 * Searches class path roots for types with the given annotation
+	 *
+	 * @param annotationClass The annotation for which to search
+	 * @param loader The class loader that loads the classes found
+	 * @param roots The class path roots to search
+	 * @return A map of classes with the given annotation
+	 */
+	private Map<ComponentKey, Class<?>> scanAnnotatedClasses(Class<? extends Annotation> annotationClass,
+			ClassLoader loader, Collection<URL> roots) {
+		Reflections reflections = new Reflections(new ConfigurationBuilder()
+				.setUrls(roots)
+				.addClassLoader(loader)
+				.filterInputsBy(new FilterBuilder().includePackage(SCANNED_PACKAGE)));
 		Set<Class<?>> annotatedClasses = reflections.getTypesAnnotatedWith(annotationClass);
 		Map<ComponentKey, Class<?>> registry = new HashMap<>(annotatedClasses.size());
 
@@ -109,7 +224,8 @@ public class Registry<R> {
 	}
 
 	/**
-	 * Instantiate a given handler class.
+	 * Instantiate a given handler class. Handlers keep state between calls, so each lookup gets a new instance;
+	 * only the constructor handle of the class is cached.
 	 *
 	 * @param handlerClass the class to instantiate
 	 * @return an instance of the given class
@@ -119,7 +235,7 @@ public class Registry<R> {
 			return null;
 		}
 
-		return handlerClass.cast(CONSTRUCTORS.computeIfAbsent(handlerClass, this::createHandler).apply(context));
+		return handlerClass.cast(CONSTRUCTORS.get(handlerClass).apply(context));
 	}
 
 	/**
@@ -128,7 +244,7 @@ public class Registry<R> {
 	 * @param handlerClass The class of which to create new instances
 	 * @return A function that returns instances of the handlerClass when supplied with a context
 	 */
-	private Function<Context, Object> createHandler(Class<?> handlerClass) {
+	private static Function<Context, Object> createHandler(Class<?> handlerClass) {
 		try {
 			return createHandlerConstructor(handlerClass);
 		} catch (NoSuchMethodException | IllegalAccessException e) {
@@ -137,7 +253,7 @@ public class Registry<R> {
 		}
 	}
 
-	private Function<Context, Object> createHandlerConstructor(Class<?> handlerClass)
+	private static Function<Context, Object> createHandlerConstructor(Class<?> handlerClass)
 			throws NoSuchMethodException, IllegalAccessException {
 		try {
 			Constructor<?> constructor = handlerClass.getConstructor(Context.class);
@@ -154,7 +270,7 @@ public class Registry<R> {
 		}
 	}
 
-	private Constructor<?> getNoArgsConstructor(Class<?> type) throws NoSuchMethodException {
+	private static Constructor<?> getNoArgsConstructor(Class<?> type) throws NoSuchMethodException {
 		Constructor<?> constructor = getNoArgsConstructor(type.getConstructors());
 		if (constructor == null) {
 			constructor = getNoArgsConstructor(type.getDeclaredConstructors());
@@ -169,7 +285,7 @@ public class Registry<R> {
 		return constructor;
 	}
 
-	private Constructor<?> getNoArgsConstructor(Constructor<?>[] constructors) {
+	private static Constructor<?> getNoArgsConstructor(Constructor<?>[] constructors) {
 		for (Constructor<?> constructor : constructors) {
 			if (constructor.getParameterCount() == 0) {
 				return constructor;
@@ -179,7 +295,7 @@ public class Registry<R> {
 		return null;
 	}
 
-	private Function<Context, Object> constructorContextArgument(MethodHandle handle) {
+	private static Function<Context, Object> constructorContextArgument(MethodHandle handle) {
 		return passedContext -> {
 			try {
 				return handle.invokeExact(passedContext);
@@ -192,7 +308,7 @@ public class Registry<R> {
 		};
 	}
 
-	private Function<Context, Object> constructorNoArgs(MethodHandle handle) {
+	private static Function<Context, Object> constructorNoArgs(MethodHandle handle) {
 		return ignore -> {
 			try {
 				return handle.invokeExact();
@@ -212,11 +328,22 @@ public class Registry<R> {
 	 * @return all applicable handlers
 	 */
 	public Set<R> inclusiveGet(TemplateId registryKey) {
-		return findHandlers(getKeys(registryKey, true)).stream()
+		return inclusiveGetClasses(registryKey).stream()
 				.map(this::instantiateHandler)
 				.collect(Collectors.toCollection(LinkedHashSet<R>::new));
 	}
 
+	/**
+	 * Retrieve the classes of the handlers that apply generally and specifically to the given template, without
+	 * instantiating them
+	 *
+	 * @param registryKey the template for which handlers will be searched
+	 * @return all applicable handler classes, general first
+	 */
+	public Set<Class<? extends R>> inclusiveGetClasses(TemplateId registryKey) {
+		return findHandlers(getKeys(registryKey, true));
+	}
+
 	/**
 	 * Get a template specific list that specifies the order in which handler classes will be searched.
 	 *
@@ -286,7 +413,20 @@ public class Registry<R> {
 						+ " and " + handler.getName());
 		}
 		
-		registryMap.put(registryKey, handler);
+		synchronized (this) {
+			registryMap.put(registryKey, handler);
+			customized = true;
+		}
+	}
+
+	/**
+	 * Determines whether handlers were registered on this registry, in which case it no longer matches the handlers
+	 * found on the class path, and anything derived from it must not be shared with other contexts
+	 *
+	 * @return true if {@link #register(ComponentKey, Class)} was called
+	 */
+	public boolean isCustomized() {
+		return customized;
 	}
 
 	public int size() {
@@ -0,0 +1,155 @@
+package gov.cms.qpp.conversion.model;
+
+import java.util.Objects;
+
+/**
+ * Compact handle to the location of an element in the original document.
+ *
+ * A location is a step (element name, namespace URI and sibling position) and a pointer to the location of the
+ * parent element. Locations of siblings share their ancestry, and the absolute XPath is only rendered on request.
+ *
+ * Whether an element renders a position can depend on siblings that follow it. A location made before they are read
+ * is {@link #unsettled(SourceLocation, String, String) unsettled} until {@link #settle(boolean)} is called, and every
+ * location below it renders the settled step.
+ */
+public final class SourceLocation {
+
+	private final SourceLocation parent;
+	private final String localName;
+	private final String namespaceUri;
+	private int position;
+	private boolean unsettled;
+	private final int hash;
+
+	/**
+	 * Creates a location one step below the given parent.
+	 *
+	 * @param parent location of the parent element, {@code null} for the root element
+	 * @param localName local name of the element
+	 * @param namespaceUri namespace URI of the element, empty when it has no namespace
+	 * @param position one based position among same named siblings, 0 if the element has no such siblings
+	 */
+	public SourceLocation(SourceLocation parent, String localName, String namespaceUri, int position) {
+		Objects.requireNonNull(localName, "localName");
+		Objects.requireNonNull(namespaceUri, "namespaceUri");
+
+		this.parent = parent;
+		this.localName = localName;
+		this.namespaceUri = namespaceUri;
+		this.position = position;
+		// positions are left out so that the hash holds once an unsettled position is settled
+		this.hash = Objects.hash(parent == null ? 0 : parent.hash, localName, namespaceUri);
+	}
+
+	/**
+	 * Creates the location of an element that has no same named siblings before it, while the siblings that may
+	 * follow it are still unread. Until settled, it renders as if a sibling follows.
+	 *
+	 * @param parent location of the parent element
+	 * @param localName local name of the element
+	 * @param namespaceUri namespace URI of the element, empty when it has no namespace
+	 * @return The unsettled location
+	 */
+	public static SourceLocation unsettled(SourceLocation parent, String localName, String namespaceUri) {
+		SourceLocation location = new SourceLocation(parent, localName, namespaceUri, 1);
+		location.unsettled = true;
+		return location;
+	}
+
+	/**
+	 * Settles the position of an {@link #unsettled(SourceLocation, String, String) unsettled} location, now that
+	 * the siblings that follow its element are known.
+	 *
+	 * @param followed whether a same named sibling follows the element
+	 * @throws IllegalStateException if the location is already settled
+	 */
+	public void settle(boolean followed) {
+		if (!unsettled) {
+			throw new IllegalStateException("The position of " + this + " is already settled");
+		}
+		position = followed ? 1 : 0;
+		unsettled = false;
+	}
+
+	/**
+	 * Gets the location of the parent element.
+	 *
+	 * @return The parent location, or {@code null} for the root element
+	 */
+	public SourceLocation getParent() {
+		return parent;
+	}
+
+	/**
+	 * Renders the absolute XPath of this location.
+	 *
+	 * @return The XPath in the same form that JDOM's {@code XPathHelper.getAbsolutePath} produces
+	 */
+	public String toXPath() {
+		return appendTo(new StringBuilder()).toString();
+	}
+
+	/**
+	 * Appends the steps from the root element down to this location.
+	 *
+	 * @param builder holds the rendered steps
+	 * @return The given builder
+	 */
+	private StringBuilder appendTo(StringBuilder builder) {
+		if (parent != null) {
+			parent.appendTo(builder);
+		}
+
+		builder.append('/');
+		if (namespaceUri.isEmpty()) {
+			builder.append(localName);
+		} else {
+			builder.append("*[local-name() = '").append(localName)
+					.append("' and namespace-uri() = '").append(namespaceUri).append("']");
+		}
+
+		if (position > 0) {
+			builder.append('[').append(position).append(']');
+		}
+
+		return builder;
+	}
+
+	/**
+	 * Locations are equal when every step from the root element down to them is equal.
+	 *
+	 * @param o The other object
+	 * @return {@code true} if {@code o} is a location of the same element
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof SourceLocation)) {
+			return false;
+		}
+
+		SourceLocation that = (SourceLocation) o;
+		return hash == that.hash
+				&& position == that.position
+				&& localName.equals(that.localName)
+				&& namespaceUri.equals(that.namespaceUri)
+				&& Objects.equals(parent, that.parent);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Renders the absolute XPath of this location.
+	 *
+	 * @return The XPath
+	 */
+	@Override
+	public String toString() {
+		return toXPath();
+	}
+}
@@ -0,0 +1,165 @@
+package gov.cms.qpp.conversion.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import gov.cms.qpp.conversion.model.validation.MeasureConfig;
+import gov.cms.qpp.conversion.model.validation.MeasureConfigs;
+import gov.cms.qpp.conversion.model.validation.Strata;
+import gov.cms.qpp.conversion.model.validation.SubPopulation;
+import gov.cms.qpp.conversion.model.validation.SupplementalData;
+
+/**
+ * Bounded intern table for the values decoders store on {@link Node}s.
+ *
+ * QRDA documents repeat the same population GUIDs, supplemental codes, measure UUIDs and counts many times over.
+ * Short values are kept in a table of the conversion's own until it is full, after which they are stored as they
+ * are, so one submission never holds on to the values of another. Decoders of measure identifiers and codes may
+ * instead resolve their values against the known vocabularies, the instances held by {@link TemplateId},
+ * {@link SupplementalData} and {@link MeasureConfigs} that are shared by every conversion. The vocabularies are
+ * only loaded once such a decoder asks for them.
+ */
+public final class ValueInterner {
+
+	static final int MAX_ENTRIES = 16 * 1024;
+	static final int MAX_LENGTH = 64;
+
+	/**
+	 * Approximate size of a String and its backing array, excluding the characters themselves
+	 */
+	private static final int STRING_OVERHEAD = 40;
+
+	private final ConcurrentMap<String, String> observed = new ConcurrentHashMap<>();
+	private final AtomicLong interned = new AtomicLong();
+	private final AtomicLong savedBytes = new AtomicLong();
+
+	/**
+	 * Resolves a value of the known vocabularies to its canonical instance, loading the vocabularies on first use.
+	 * Other values are resolved as {@link #intern(String)} does.
+	 *
+	 * @param value to resolve
+	 * @return An equal instance shared by every conversion or with other holders of the value, or the value itself
+	 */
+	public String internVocabulary(String value) {
+		if (value == null || value.length() > MAX_LENGTH) {
+			return value;
+		}
+
+		String canonical = Vocabulary.CANONICAL.get(value);
+		return canonical == null ? intern(value) : replace(value, canonical);
+	}
+
+	/**
+	 * Resolves a value to its canonical instance in the table of the conversion
+	 *
+	 * @param value to resolve
+	 * @return An equal instance shared with other holders of the value, or the value itself
+	 */
+	public String intern(String value) {
+		if (value == null || value.length() > MAX_LENGTH) {
+			return value;
+		}
+
+		String canonical = observed.get(value);
+		if (canonical == null) {
+			if (observed.size() >= MAX_ENTRIES) {
+				return value;
+			}
+			canonical = observed.putIfAbsent(value, value);
+			if (canonical == null) {
+				return value;
+			}
+		}
+		return replace(value, canonical);
+	}
+
+	/**
+	 * Counts a value that is replaced by its canonical instance
+	 *
+	 * @param value resolved value
+	 * @param canonical instance the value resolved to
+	 * @return The canonical instance
+	 */
+	private String replace(String value, String canonical) {
+		if (canonical != value) {
+			interned.incrementAndGet();
+			savedBytes.addAndGet(STRING_OVERHEAD + 2L * value.length());
+		}
+		return canonical;
+	}
+
+	/**
+	 * Gets the number of values that were replaced by a canonical instance
+	 *
+	 * @return count of replaced values
+	 */
+	public long getInternedCount() {
+		return interned.get();
+	}
+
+	/**
+	 * Gets the estimated heap that is no longer retained because values were replaced by a canonical instance
+	 *
+	 * @return estimated bytes saved
+	 */
+	public long getSavedBytes() {
+		return savedBytes.get();
+	}
+
+	/**
+	 * Canonical instances of the known vocabularies, loaded on first use
+	 */
+	private static final class Vocabulary {
+		private static final Map<String, String> CANONICAL = load();
+
+		private static Map<String, String> load() {
+			Map<String, String> canonical = new HashMap<>();
+			for (TemplateId templateId : TemplateId.values()) {
+				add(canonical, templateId.getRoot());
+				add(canonical, templateId.getExtension());
+			}
+			for (SupplementalData supplementalData : SupplementalData.values()) {
+				add(canonical, supplementalData.getCode());
+			}
+			for (MeasureConfig config : MeasureConfigs.getMeasureConfigs()) {
+				add(canonical, config.getMeasureId());
+				add(canonical, config.getElectronicMeasureId());
+				add(canonical, config.getElectronicMeasureVerUuid());
+				if (config.getStrata() != null) {
+					for (Strata strata : config.getStrata()) {
+						add(canonical, strata.getElectronicMeasureUuids());
+					}
+				}
+				if (config.getSubPopulation() != null) {
+					for (SubPopulation subPopulation : config.getSubPopulation()) {
+						add(canonical, subPopulation);
+					}
+				}
+			}
+			return canonical;
+		}
+
+		private static void add(Map<String, String> canonical, SubPopulation subPopulation) {
+			if (subPopulation == null) {
+				return;
+			}
+			add(canonical, subPopulation.getInitialPopulationUuid());
+			add(canonical, subPopulation.getDenominatorUuid());
+			add(canonical, subPopulation.getDenominatorExclusionsUuid());
+			add(canonical, subPopulation.getNumeratorUuid());
+			add(canonical, subPopulation.getDenominatorExceptionsUuid());
+			if (subPopulation.getStrata() != null) {
+				subPopulation.getStrata().forEach(uuid -> add(canonical, uuid));
+			}
+		}
+
+		private static void add(Map<String, String> canonical, String value) {
+			if (value != null) {
+				canonical.putIfAbsent(value, value);
+			}
+		}
+	}
+}
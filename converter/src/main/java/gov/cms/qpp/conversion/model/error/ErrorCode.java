@@ -106,7 +106,9 @@ public enum ErrorCode implements LocalizedError {
 			"Missing the Supplemental Code %s for eCQM measure %s's Sub-population %s", true),
 	CPC_PLUS_SUPPLEMENTAL_DATA_MISSING_COUNT(67,
 			"Must have one count for Supplemental Data %s on Sub-population %s for eCQM measure %s", true),
-	CPC_PLUS_SUBMISSION_ENDED(68, "CPC+ Submission is after the end date %s.", true);
+	CPC_PLUS_SUBMISSION_ENDED(68, "CPC+ Submission is after the end date %s.", true),
+	VALIDATION_DETAILS_TRUNCATED(69, "Validation stopped after %d errors. Correct them and convert again "
+			+ "to find any further errors", true);
 
 
 	private static final Map<Integer, ErrorCode> CODE_TO_VALUE = Arrays.stream(values())
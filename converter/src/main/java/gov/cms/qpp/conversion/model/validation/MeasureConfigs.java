@@ -1,7 +1,7 @@
 package gov.cms.qpp.conversion.model.validation;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import gov.cms.qpp.conversion.util.JsonHelper;
 import org.reflections.util.ClasspathHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,9 +9,12 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -20,8 +23,7 @@ public class MeasureConfigs {
 	public static final String DEFAULT_MEASURE_DATA_FILE_NAME = "measures-data.json";
 
 	private static String measureDataFileName = DEFAULT_MEASURE_DATA_FILE_NAME;
-	private static Map<String, MeasureConfig> configurationMap;
-	private static Map<String, List<MeasureConfig>> cpcPlusGroups;
+	private static volatile Indexes indexes;
 
 	/**
 	 * Static initialization
@@ -41,22 +43,15 @@ public class MeasureConfigs {
 	 * Initialize all measure configurations
 	 */
 	private static void initMeasureConfigs() {
-		configurationMap = grabConfiguration(measureDataFileName);
-		cpcPlusGroups = new HashMap<>();
-		getMeasureConfigs().stream()
-				.filter(config -> config.getCpcPlusGroup() != null)
-				.forEach(config -> cpcPlusGroups.computeIfAbsent(
-						config.getCpcPlusGroup(), key -> new ArrayList<>()).add(config));
+		indexes = new Indexes(grabConfiguration(measureDataFileName));
 	}
 
 	public static Map<String, MeasureConfig> grabConfiguration(String fileName) {
-		ObjectMapper mapper = new ObjectMapper();
-
 		InputStream measuresInput = ClasspathHelper.contextClassLoader().getResourceAsStream(fileName);
 
 		try {
 			TypeReference<List<MeasureConfig>> measureConfigType = new TypeReference<List<MeasureConfig>>() {};
-			List<MeasureConfig> configurations = mapper.readValue(measuresInput, measureConfigType);
+			List<MeasureConfig> configurations = JsonHelper.getReader().forType(measureConfigType).readValue(measuresInput);
 			return configurations.stream()
 					.collect(Collectors.toMap(MeasureConfigs::getMeasureId, Function.identity()));
 		} catch (IOException e) {
@@ -89,39 +84,125 @@ public class MeasureConfigs {
 		initMeasureConfigs();
 	}
 
+	/**
+	 * Retrieves all the measure configurations
+	 *
+	 * @return unmodifiable list of configurations
+	 */
 	public static List<MeasureConfig> getMeasureConfigs() {
-		return configurationMap.values().stream().collect(Collectors.toList());
+		return indexes.configurations;
 	}
 
 	/**
 	 * Retrieves a mapping of the configurations
 	 *
-	 * @return mapped configurations
+	 * @return unmodifiable mapped configurations
 	 */
 	public static Map<String, MeasureConfig> getConfigurationMap() {
-		return configurationMap;
+		return indexes.configurationMap;
+	}
+
+	/**
+	 * Finds the configuration of a measure by the guid, electronicMeasureId, or measureId it is keyed by, ignoring case
+	 *
+	 * @param measureId Identifier of the measure
+	 * @return The configuration, or null if there is none
+	 */
+	public static MeasureConfig getMeasureConfig(String measureId) {
+		return measureId == null ? null : indexes.byMeasureUuid.get(normalize(measureId));
+	}
+
+	/**
+	 * Finds the configuration of the measure that declares a sub population, by the numerator uuid of that sub
+	 * population, ignoring case
+	 *
+	 * @param numeratorUuid Numerator uuid of the sub population, which is also its performance rate uuid
+	 * @return The configuration, or null if no measure declares the sub population
+	 */
+	public static MeasureConfig getMeasureConfigBySubPopulationUuid(String numeratorUuid) {
+		return numeratorUuid == null ? null : indexes.bySubPopulationUuid.get(normalize(numeratorUuid));
+	}
+
+	/**
+	 * Retrieves the configurations of a category, for example aci or quality
+	 *
+	 * @param category Category of the measures
+	 * @return unmodifiable list of configurations, empty if there are none
+	 */
+	public static List<MeasureConfig> getMeasureConfigsByCategory(String category) {
+		return indexes.byCategory.getOrDefault(category, Collections.emptyList());
 	}
 
 	/**
 	 * Retrieves a mapping of CPC+ measure groups
 	 *
-	 * @return mapped CPC+ measure groups
+	 * @return unmodifiable mapped CPC+ measure groups
 	 */
 	public static Map<String, List<MeasureConfig>> getCpcPlusGroups() {
-		return cpcPlusGroups;
+		return indexes.cpcPlusGroups;
 	}
 
 	/**
 	 * Retrieves a list of required mappings for any given section
 	 *
 	 * @param section Specified section for measures required
-	 * @return The list of required measures
+	 * @return The unmodifiable list of required measures
 	 */
 	static List<String> requiredMeasuresForSection(String section) {
+		return indexes.requiredBySection.getOrDefault(section, Collections.emptyList());
+	}
 
-		return configurationMap.values().stream()
-			.filter(measureConfig -> measureConfig.isRequired() && section.equals(measureConfig.getCategory()))
-			.map(MeasureConfigs::getMeasureId)
-			.collect(Collectors.toList());
+	private static String normalize(String uuid) {
+		return uuid.toUpperCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * The lookups over one measure data file. They are built together when the file is loaded and never change
+	 * afterwards, so a reload swaps all of them at once.
+	 */
+	private static final class Indexes {
+		private final List<MeasureConfig> configurations;
+		private final Map<String, MeasureConfig> configurationMap;
+		private final Map<String, MeasureConfig> byMeasureUuid = new HashMap<>();
+		private final Map<String, MeasureConfig> bySubPopulationUuid = new HashMap<>();
+		private final Map<String, List<MeasureConfig>> byCategory;
+		private final Map<String, List<String>> requiredBySection;
+		private final Map<String, List<MeasureConfig>> cpcPlusGroups;
+
+		private Indexes(Map<String, MeasureConfig> configurationMap) {
+			this.configurationMap = Collections.unmodifiableMap(configurationMap);
+			this.configurations = Collections.unmodifiableList(new ArrayList<>(configurationMap.values()));
+
+			Map<String, List<MeasureConfig>> categories = new HashMap<>();
+			Map<String, List<String>> required = new HashMap<>();
+			Map<String, List<MeasureConfig>> groups = new HashMap<>();
+
+			configurationMap.forEach((measureId, config) -> {
+				byMeasureUuid.putIfAbsent(normalize(measureId), config);
+				config.getSubPopulation().stream()
+						.filter(Objects::nonNull)
+						.map(SubPopulation::getNumeratorUuid)
+						.filter(Objects::nonNull)
+						.forEach(uuid -> bySubPopulationUuid.putIfAbsent(normalize(uuid), config));
+				if (config.getCategory() != null) {
+					categories.computeIfAbsent(config.getCategory(), key -> new ArrayList<>()).add(config);
+					if (config.isRequired()) {
+						required.computeIfAbsent(config.getCategory(), key -> new ArrayList<>()).add(measureId);
+					}
+				}
+				if (config.getCpcPlusGroup() != null) {
+					groups.computeIfAbsent(config.getCpcPlusGroup(), key -> new ArrayList<>()).add(config);
+				}
+			});
+
+			this.byCategory = freeze(categories);
+			this.requiredBySection = freeze(required);
+			this.cpcPlusGroups = freeze(groups);
+		}
+
+		private static <T> Map<String, List<T>> freeze(Map<String, List<T>> lists) {
+			lists.replaceAll((key, list) -> Collections.unmodifiableList(list));
+			return Collections.unmodifiableMap(lists);
+		}
 	}
 }
@@ -1,7 +1,10 @@
 package gov.cms.qpp.conversion.util;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.jayway.jsonpath.JsonPath;
 
 import java.io.IOException;
@@ -15,6 +18,14 @@ public class JsonHelper {
 
 	private static final String PROBLEM_PARSING_JSON = "Problem parsing json string";
 
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final ObjectReader READER = MAPPER.reader();
+	private static final ObjectWriter WRITER = MAPPER.writer();
+	private static final ObjectWriter PRETTY_NON_NULL_WRITER = new ObjectMapper()
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL)
+			.writer()
+			.withDefaultPrettyPrinter();
+
 	/**
 	 * Constructor that is private and empty because this is a utility class.
 	 */
@@ -22,6 +33,34 @@ public class JsonHelper {
 		//private and empty because this is a utility class
 	}
 
+	/**
+	 * Shared reader for json. Readers are immutable and thread safe, and sharing one lets every read reuse the
+	 * deserializers its mapper has already built.
+	 *
+	 * @return reader that is not bound to a type yet
+	 */
+	public static ObjectReader getReader() {
+		return READER;
+	}
+
+	/**
+	 * Shared writer for compact json.
+	 *
+	 * @return writer without pretty printing
+	 */
+	public static ObjectWriter getWriter() {
+		return WRITER;
+	}
+
+	/**
+	 * Shared writer for pretty printed json that leaves out null properties, as used for error reports.
+	 *
+	 * @return pretty printing writer
+	 */
+	public static ObjectWriter getPrettyNonNullWriter() {
+		return PRETTY_NON_NULL_WRITER;
+	}
+
 	/**
 	 * Read json and return object type specified
 	 *
@@ -34,7 +73,7 @@ public class JsonHelper {
 	public static <T> T readJson(String json, Class<T> valueType) {
 		T returnValue;
 		try {
-			returnValue = new ObjectMapper().readValue(json, valueType);
+			returnValue = READER.forType(valueType).readValue(json);
 		} catch (IOException ex) {
 			throw new JsonReadException(PROBLEM_PARSING_JSON, ex);
 		}
@@ -51,7 +90,7 @@ public class JsonHelper {
 	 * @throws IOException if problems arise while attempting to parse the resource at the given filePath
 	 */
 	public static <T> T readJson(Path filePath, Class<T> valueType) throws IOException {
-		return new ObjectMapper().readValue(filePath.toFile(), valueType);
+		return READER.forType(valueType).readValue(filePath.toFile());
 	}
 
 	/**
@@ -66,7 +105,7 @@ public class JsonHelper {
 	public static <T> T readJson(InputStream json, Class<T> valueType) {
 		T returnValue;
 		try {
-			returnValue = new ObjectMapper().readValue(json, valueType);
+			returnValue = READER.forType(valueType).readValue(json);
 		} catch (IOException ex) {
 			throw new JsonReadException(PROBLEM_PARSING_JSON, ex);
 		}
@@ -85,7 +124,7 @@ public class JsonHelper {
 	public static <T> T readJson(InputStream json, TypeReference<T> valueType) {
 		T returnValue;
 		try {
-			returnValue = new ObjectMapper().readValue(json, valueType);
+			returnValue = READER.forType(valueType).readValue(json);
 		} catch (IOException ex) {
 			throw new JsonReadException(PROBLEM_PARSING_JSON, ex);
 		}
@@ -102,7 +141,7 @@ public class JsonHelper {
 	 * @throws JsonReadException if problems arise while attempting to parse the json input stream
 	 */
 	public static <T> T readJson(Path filePath, TypeReference<T> valueType) throws IOException {
-		return new ObjectMapper().readValue(filePath.toFile(), valueType);
+		return READER.forType(valueType).readValue(filePath.toFile());
 	}
 
 	/**
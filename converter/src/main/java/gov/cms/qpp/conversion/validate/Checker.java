@@ -11,14 +11,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -30,18 +27,12 @@ class Checker {
 	private Node node;
 	private Set<Detail> details;
 	private boolean anded;
-	private Map<TemplateId, AtomicInteger> nodeCount;
 	private Comparable<?> lastAppraised;
 
 	private Checker(Node node, Set<Detail> details, boolean anded) {
 		this.node = node;
 		this.details = details;
 		this.anded = anded;
-		this.nodeCount = new EnumMap<>(TemplateId.class);
-		node.getChildNodes()
-			.stream()
-			.map(Node::getType)
-			.forEach(type -> this.nodeCount.computeIfAbsent(type, key -> new AtomicInteger()).incrementAndGet());
 		this.node.setValidated(true);
 	}
 
@@ -177,7 +168,8 @@ class Checker {
 	Checker intValue(LocalizedError code, String name) {
 		if (!shouldShortcut()) {
 			try {
-				lastAppraised = Integer.parseInt(node.getValue(name));
+				Integer parsed = node.getIntegerValue(name);
+				lastAppraised = parsed != null ? parsed : Integer.parseInt(node.getValue(name));
 			} catch (NumberFormatException ex) {
 				DEV_LOG.warn("Problem with non int value: " + node.getValue(name), ex);
 				details.add(detail(code));
@@ -231,7 +223,8 @@ class Checker {
 	Checker inDecimalRangeOf(LocalizedError code, String name, float startValue, float endValue) {
 		if (!shouldShortcut()) {
 			try {
-				lastAppraised = Float.parseFloat(node.getValue(name));
+				Float parsed = node.getFloatValue(name);
+				lastAppraised = parsed != null ? parsed : Float.parseFloat(node.getValue(name));
 				if (((Comparable<Float>) lastAppraised).compareTo(startValue) < 0
 						|| ((Comparable<Float>) lastAppraised).compareTo(endValue) > 0) {
 					details.add(detail(code));
@@ -408,9 +401,7 @@ class Checker {
 	 */
 	private int tallyNodes(TemplateId... types) {
 		return Arrays.stream(types)
-			.map(nodeCount::get)
-			.filter(Objects::nonNull)
-			.mapToInt(AtomicInteger::get)
+			.mapToInt(node::countChildNodes)
 			.sum();
 	}
 
@@ -106,8 +106,7 @@ public class CpcMeasureDataValidator extends NodeValidator {
 	 */
 	private void addSupplementalValidationError(Node node, SupplementalData supplementalData) {
 		MeasureConfig config =
-				MeasureConfigs.getConfigurationMap()
-						.get(node.getParent().getValue(QualityMeasureIdValidator.MEASURE_ID));
+				MeasureConfigs.getMeasureConfig(node.getParent().getValue(QualityMeasureIdValidator.MEASURE_ID));
 		if (config != null) {
 			LocalizedError error =
 					ErrorCode.CPC_PLUS_MISSING_SUPPLEMENTAL_CODE.format(supplementalData.getCode(),
@@ -138,7 +137,7 @@ public class CpcMeasureDataValidator extends NodeValidator {
 	 * @return
 	 */
 	private LocalizedError makeIncorrectCountSizeLocalizedError(Node node, Node thisNode) {
-		MeasureConfig config = MeasureConfigs.getConfigurationMap().get(
+		MeasureConfig config = MeasureConfigs.getMeasureConfig(
 				node.getParent().getValue(QualityMeasureIdValidator.MEASURE_ID));
 		if (config == null) {
 			return ErrorCode.CPC_PLUS_SUPPLEMENTAL_DATA_MISSING_COUNT.format(
@@ -16,7 +16,6 @@ import gov.cms.qpp.conversion.model.validation.SubPopulations;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -41,9 +40,7 @@ public class CpcQualityMeasureIdValidator extends QualityMeasureIdValidator {
 	@Override
 	protected void internalValidateSingleNode(Node node) {
 		super.internalValidateSingleNode(node);
-		Map<String, MeasureConfig> configurationMap = MeasureConfigs.getConfigurationMap();
-		String value = node.getValue(MEASURE_ID);
-		MeasureConfig measureConfig = configurationMap.get(value);
+		MeasureConfig measureConfig = MeasureConfigs.getMeasureConfig(node.getValue(MEASURE_ID));
 
 		if (measureConfig != null) {
 			int requiredPerformanceRateCount = measureConfig.getStrata().size();
@@ -4,7 +4,6 @@ import static gov.cms.qpp.conversion.decode.PerformanceRateProportionMeasureDeco
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -44,13 +43,10 @@ public class MipsQualityMeasureIdValidator extends QualityMeasureIdValidator {
 	protected void internalValidateSingleNode(Node node) {
 		super.internalValidateSingleNode(node);
 
-		Map<String, MeasureConfig> configurationMap = MeasureConfigs.getConfigurationMap();
-		String value = node.getValue(MEASURE_ID);
-		MeasureConfig measureConfig = configurationMap.get(value);
+		MeasureConfig measureConfig = MeasureConfigs.getMeasureConfig(node.getValue(MEASURE_ID));
 
 		if (measureConfig != null) {
-			List<SubPopulation> subPopulations = measureConfig.getSubPopulation();
-			validateExistingPerformanceRates(node, subPopulations);
+			validateExistingPerformanceRates(node, measureConfig);
 		}
 	}
 
@@ -66,9 +62,10 @@ public class MipsQualityMeasureIdValidator extends QualityMeasureIdValidator {
 	 * Validates performance rates that were decoded
 	 *
 	 * @param node The current parent node
-	 * @param subPopulations The current sub population
+	 * @param measureConfig The configuration of the current measure
 	 */
-	private void validateExistingPerformanceRates(Node node, List<SubPopulation> subPopulations) {
+	private void validateExistingPerformanceRates(Node node, MeasureConfig measureConfig) {
+		List<SubPopulation> subPopulations = measureConfig.getSubPopulation();
 		if (subPopulations.isEmpty()) {
 			return;
 		}
@@ -77,7 +74,7 @@ public class MipsQualityMeasureIdValidator extends QualityMeasureIdValidator {
 				.collect(Collectors.toList());
 
 		for (Node performanceRateNode: performanceRateNodes) {
-			validatePerformanceRateUuid(node, subPopulations, performanceRateNode);
+			validatePerformanceRateUuid(node, measureConfig, subPopulations, performanceRateNode);
 		}
 	}
 
@@ -85,24 +82,38 @@ public class MipsQualityMeasureIdValidator extends QualityMeasureIdValidator {
 	 * Validates an individual performance rate
 	 *
 	 * @param node The current parent node
+	 * @param measureConfig The configuration of the current measure
 	 * @param subPopulations The current sub population
 	 * @param performanceRateNode The current performance rate node
 	 */
-	private void validatePerformanceRateUuid(Node node, List<SubPopulation> subPopulations, Node performanceRateNode) {
+	private void validatePerformanceRateUuid(Node node, MeasureConfig measureConfig, List<SubPopulation> subPopulations,
+			Node performanceRateNode) {
 		validatePerformanceRateUuidExists(performanceRateNode);
 
 		String performanceUuid = performanceRateNode.getValue(PERFORMANCE_RATE_ID);
 
-		if (performanceUuid != null) {
-			SubPopulation subPopulation = subPopulations.stream()
-					.filter(makePerformanceRateUuidFinder(performanceUuid))
-					.findFirst()
-					.orElse(null);
+		if (performanceUuid != null && !isPerformanceRateOf(measureConfig, subPopulations, performanceUuid)) {
+			addPerformanceRateValidationMessage(node, performanceUuid);
+		}
+	}
 
-			if (subPopulation == null) {
-				addPerformanceRateValidationMessage(node, performanceUuid);
-			}
+	/**
+	 * Checks whether a performance rate uuid belongs to one of the sub populations of a measure, looking it up in the
+	 * sub population index first. The sub populations are only scanned when the index maps the uuid to another
+	 * measure, as two measures could declare the same uuid.
+	 *
+	 * @param measureConfig The configuration of the current measure
+	 * @param subPopulations The sub populations of the measure
+	 * @param performanceUuid The performance rate uuid
+	 * @return whether the uuid is the numerator uuid of one of the sub populations
+	 */
+	private boolean isPerformanceRateOf(MeasureConfig measureConfig, List<SubPopulation> subPopulations,
+			String performanceUuid) {
+		MeasureConfig owner = MeasureConfigs.getMeasureConfigBySubPopulationUuid(performanceUuid);
+		if (owner == measureConfig) {
+			return true;
 		}
+		return owner != null && subPopulations.stream().anyMatch(makePerformanceRateUuidFinder(performanceUuid));
 	}
 
 	/**
@@ -134,8 +145,7 @@ public class MipsQualityMeasureIdValidator extends QualityMeasureIdValidator {
 	 * @param performanceUuid The current performance rate uuid
 	 */
 	private void addPerformanceRateValidationMessage(Node node, String performanceUuid) {
-		MeasureConfig config =
-				MeasureConfigs.getConfigurationMap().get(node.getValue(MEASURE_ID));
+		MeasureConfig config = MeasureConfigs.getMeasureConfig(node.getValue(MEASURE_ID));
 		LocalizedError error = ErrorCode.QUALITY_MEASURE_ID_INCORRECT_UUID.format(config.getElectronicMeasureId(),
 				PERFORMANCE_RATE_ID, performanceUuid);
 		addValidationError(Detail.forErrorAndNode(error, node));
@@ -2,31 +2,44 @@ package gov.cms.qpp.conversion.validate;
 
 import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Program;
 import gov.cms.qpp.conversion.model.Registry;
 import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.model.Validator;
 import gov.cms.qpp.conversion.model.error.Detail;
+import gov.cms.qpp.conversion.model.error.ErrorCode;
 import gov.cms.qpp.conversion.segmentation.QrdaScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
 
 /**
  * The engine that executes the VALIDATORS on the entire hierarchy of {@link gov.cms.qpp.conversion.model.Node}s.
  */
 public class QrdaValidator {
 	private static final Logger DEV_LOG = LoggerFactory.getLogger(QrdaValidator.class);
+	private static final Map<Program, Map<Set<QrdaScope>, ValidationPlan>> PLANS = new ConcurrentHashMap<>();
 
-	private final List<Detail> details = new ArrayList<>();
+	private final Context context;
 	private final Set<TemplateId> scope;
 	private final Registry<NodeValidator> validators;
+	private final int budget;
+	private ValidationPlan plan;
+	private int kept;
+	private boolean truncated;
 
 	public QrdaValidator(Context context) {
+		this.context = context;
+		this.budget = context.getMaxValidationDetails();
 		this.validators = context.getRegistry(Validator.class);
 		this.scope = context.hasScope() ? QrdaScope.getTemplates(context.getScope()) : null;
 	}
@@ -34,69 +47,124 @@ public class QrdaValidator {
 	/**
 	 * Validate all the {@link gov.cms.qpp.conversion.model.Node}s from the passed in Node and on down.
 	 *
+	 * When the context sets a maximum number of validation errors, the maximum is shared by every tree this validator
+	 * is given. Validation stops once an error beyond the maximum is found, and the errors end with a
+	 * {@link ErrorCode#VALIDATION_DETAILS_TRUNCATED} error. Trees given after that are not validated. A validation
+	 * with a maximum runs on one thread, so that the errors it keeps are the first ones in document order.
+	 *
 	 * @param rootNode The root node that all other nodes descend from.
 	 * @return The list of validation errors for the entire tree of nodes.
 	 */
 	public List<Detail> validate(Node rootNode) {
+		List<Detail> details = new ArrayList<>();
+		if (truncated) {
+			DEV_LOG.info("Skipping validation, the maximum of {} errors has been reached", budget);
+			return details;
+		}
+
 		DEV_LOG.info("Validating all nodes in the tree");
+		plan = getPlan();
 
 		//validate each node while traversing the tree
-		validateTree(rootNode);
+		if (context.isParallelValidation() && budget == 0) {
+			details.addAll(ForkJoinPool.commonPool().invoke(new SubtreeValidation(rootNode)));
+		} else {
+			validateTree(rootNode, details);
+		}
+
+		if (isOverBudget(details)) {
+			details.subList(budget - kept, details.size()).clear();
+			truncated = true;
+		}
+		kept += details.size();
+		if (truncated) {
+			DEV_LOG.info("Validation stopped after {} errors", budget);
+			details.add(Detail.forErrorCode(ErrorCode.VALIDATION_DETAILS_TRUNCATED.format(budget)));
+		}
 
 		return details;
 	}
 
+	/**
+	 * Determines whether the validation errors found so far go beyond the budget left, in which case validation
+	 * stops and the errors beyond it are discarded
+	 *
+	 * @param found The validation errors found so far by the current validation
+	 * @return true if no further validators are to run
+	 */
+	private boolean isOverBudget(final List<Detail> found) {
+		return budget > 0 && kept + found.size() > budget;
+	}
+
 	/**
 	 * Validates the {@link gov.cms.qpp.conversion.model.Node} and all of its children.
 	 *
 	 * @param node The root node to start validating from.
+	 * @param details The list the validation errors are added to.
 	 */
-	private void validateTree(final Node node) {
-		validateSingleNode(node);
+	private void validateTree(final Node node, final List<Detail> details) {
+		if (isOverBudget(details)) {
+			return;
+		}
 
-		validateChildren(node);
+		validateSingleNode(node, details);
+
+		validateChildren(node, details);
 	}
 
 	/**
-	 * Validates a single {@link gov.cms.qpp.conversion.model.Node} based on its ID.
+	 * Gets the validation plan for the program and scope of the context. Plans are shared by conversions, unless
+	 * validators were registered on the context.
 	 *
-	 * @param node The node to validate.
+	 * @return The plan
 	 */
-	private void validateSingleNode(final Node node) {
-		getValidators(node.getType())
-			.filter(this::isValidationRequired)
-			.forEach(validatorForNode -> {
-				Set<Detail> nodeErrors = validatorForNode.validateSingleNode(node);
-				details.addAll(nodeErrors);
-			});
+	private ValidationPlan getPlan() {
+		if (validators.isCustomized()) {
+			return new ValidationPlan(validators, this::isValidationRequired);
+		}
+
+		Set<QrdaScope> contextScope = context.hasScope()
+				? EnumSet.copyOf(context.getScope()) : EnumSet.noneOf(QrdaScope.class);
+		return PLANS.computeIfAbsent(context.getProgram(), program -> new ConcurrentHashMap<>())
+				.computeIfAbsent(contextScope, key -> new ValidationPlan(validators, this::isValidationRequired));
 	}
 
 	/**
-	 * Retrieve permitted {@link Validator}s. {@link #scope} is used to determine which VALIDATORS are allowable.
+	 * Validates a single {@link gov.cms.qpp.conversion.model.Node} based on its ID.
 	 *
-	 * @param templateId string representation of a would be validator's template id
-	 * @return validators that correspond to the given template id
+	 * @param node The node to validate.
+	 * @param details The list the validation errors are added to.
 	 */
-	private Stream<NodeValidator> getValidators(TemplateId templateId) {
-		Set<NodeValidator> nodeValidators = validators.inclusiveGet(templateId);
-		return nodeValidators.stream()
-				.filter(Objects::nonNull)
-				.filter(nodeValidator -> {
-					Validator validator = nodeValidator.getClass().getAnnotation(Validator.class);
-					TemplateId template = validator == null ? TemplateId.DEFAULT : validator.value();
-					return scope == null || scope.contains(template);
-				})
-				.distinct();
+	private void validateSingleNode(final Node node, final List<Detail> details) {
+		List<Class<? extends NodeValidator>> chain = plan.getValidators(node.getType());
+		if (chain.isEmpty()) {
+			return;
+		}
+
+		for (NodeValidator validatorForNode : validators.inclusiveGet(node.getType())) {
+			if (isOverBudget(details)) {
+				return;
+			}
+
+			if (validatorForNode != null && chain.contains(validatorForNode.getClass())) {
+				Set<Detail> nodeErrors = validatorForNode.validateSingleNode(node);
+				details.addAll(nodeErrors);
+			}
+		}
 	}
 
 	/**
-	 * Determines whether the validation the {@link gov.cms.qpp.conversion.validate.NodeValidator} does is required.
+	 * Determines whether the validation the {@link gov.cms.qpp.conversion.validate.NodeValidator} does is required,
+	 * and allowed by {@link #scope}.
 	 *
-	 * @param validatorForNode The NodeValidator
+	 * @param validatorClass The NodeValidator class
 	 * @return Whether the validation the NodeValidator does is required.
 	 */
-	private boolean isValidationRequired(NodeValidator validatorForNode) {
-		Validator validator = getAnnotation(validatorForNode);
+	private boolean isValidationRequired(Class<? extends NodeValidator> validatorClass) {
+		Validator validator = getAnnotation(validatorClass);
+		if (scope != null && !scope.contains(validator == null ? TemplateId.DEFAULT : validator.value())) {
+			return false;
+		}
 		return validator != null && !validator.optional();
 	}
 
@@ -104,21 +172,64 @@ public class QrdaValidator {
 	 * Returns the {@link gov.cms.qpp.conversion.model.Validator} that is used on the
 	 * {@link gov.cms.qpp.conversion.validate.NodeValidator}.
 	 *
-	 * @param validator The NodeValidator that has the @Validator annotation
+	 * @param validator The NodeValidator class that has the @Validator annotation
 	 * @return The @Validator annotation
 	 */
-	private Validator getAnnotation(final NodeValidator validator) {
-		return validator.getClass().getAnnotation(Validator.class);
+	private Validator getAnnotation(final Class<? extends NodeValidator> validator) {
+		return validator.getAnnotation(Validator.class);
 	}
 
 	/**
 	 * Validates all the children of the passed in {@link gov.cms.qpp.conversion.model.Node}.
 	 *
 	 * @param parentNode The children of this node are validated.
+	 * @param details The list the validation errors are added to.
 	 */
-	private void validateChildren(final Node parentNode) {
+	private void validateChildren(final Node parentNode, final List<Detail> details) {
 		parentNode.getChildNodes().stream()
 				.filter(Node::isNotValidated)
-				.forEach(this::validateTree);
+				.forEach(child -> validateTree(child, details));
+	}
+
+	/**
+	 * Validates a {@link gov.cms.qpp.conversion.model.Node}, then each of its children that has children of its own
+	 * as a task of its own. Leaves are validated in place, as they are too small to be worth a task.
+	 *
+	 * Each task collects its validation errors in a list of its own. The lists of the children are appended in the
+	 * order of the children, so the errors come out in the order a validation on one thread reports them. Validators
+	 * only mark the nodes under the one they validate, so the subtrees of siblings do not share any state.
+	 */
+	private class SubtreeValidation extends RecursiveTask<List<Detail>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Node node;
+
+		SubtreeValidation(Node node) {
+			this.node = node;
+		}
+
+		@Override
+		protected List<Detail> compute() {
+			List<Detail> subtreeDetails = new ArrayList<>();
+			validateSingleNode(node, subtreeDetails);
+
+			List<SubtreeValidation> children = node.getChildNodes().stream()
+					.filter(Node::isNotValidated)
+					.map(SubtreeValidation::new)
+					.collect(Collectors.toList());
+			for (SubtreeValidation child : children) {
+				if (child.node.getChildNodes().isEmpty()) {
+					child.invoke();
+				} else {
+					child.fork();
+				}
+			}
+
+			for (SubtreeValidation child : children) {
+				subtreeDetails.addAll(child.join());
+			}
+			return subtreeDetails;
+		}
 	}
 }
@@ -6,7 +6,6 @@ import static gov.cms.qpp.conversion.decode.MeasureDataDecoder.MEASURE_TYPE;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -69,9 +68,8 @@ abstract class QualityMeasureIdValidator extends NodeValidator {
 	 * @param node to validate
 	 */
 	private void validateMeasureConfigs(Node node) {
-		Map<String, MeasureConfig> configurationMap = MeasureConfigs.getConfigurationMap();
 		String value = node.getValue(MEASURE_ID);
-		MeasureConfig measureConfig = configurationMap.get(value);
+		MeasureConfig measureConfig = MeasureConfigs.getMeasureConfig(value);
 
 		if (measureConfig != null) {
 			validateAllSubPopulations(node, measureConfig);
@@ -200,7 +198,7 @@ abstract class QualityMeasureIdValidator extends NodeValidator {
 		long actualChildTypeCount = node.getChildNodes(TemplateId.MEASURE_DATA_CMS_V2).filter(childTypeFinder).count();
 
 		if (expectedChildTypeCount != actualChildTypeCount) {
-			MeasureConfig config = MeasureConfigs.getConfigurationMap().get(node.getValue(MEASURE_ID));
+			MeasureConfig config = MeasureConfigs.getMeasureConfig(node.getValue(MEASURE_ID));
 			LocalizedError error =
 					ErrorCode.POPULATION_CRITERIA_COUNT_INCORRECT.format(config.getElectronicMeasureId(),
 							expectedChildTypeCount, key, actualChildTypeCount);
@@ -258,8 +256,7 @@ abstract class QualityMeasureIdValidator extends NodeValidator {
 	 * @param node Contains the current child nodes
 	 */
 	protected void addMeasureConfigurationValidationMessage(Supplier<String> check, String[] keys, Node node) {
-		MeasureConfig config =
-				MeasureConfigs.getConfigurationMap().get(node.getValue(MEASURE_ID));
+		MeasureConfig config = MeasureConfigs.getMeasureConfig(node.getValue(MEASURE_ID));
 		LocalizedError error = ErrorCode.QUALITY_MEASURE_ID_INCORRECT_UUID.format(config.getElectronicMeasureId(),
 				String.join(",", keys), check.get());
 		addValidationError(Detail.forErrorAndNode(error, node));
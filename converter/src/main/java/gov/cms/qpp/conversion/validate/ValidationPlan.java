@@ -0,0 +1,54 @@
+package gov.cms.qpp.conversion.validate;
+
+import gov.cms.qpp.conversion.model.Registry;
+import gov.cms.qpp.conversion.model.TemplateId;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The validators to run on each {@link TemplateId}, resolved once from a {@link Registry}.
+ *
+ * A plan only depends on the program and scope of the context it was built for, so it is immutable and may be
+ * shared by every conversion with the same program and scope.
+ */
+final class ValidationPlan {
+
+	private final Map<TemplateId, List<Class<? extends NodeValidator>>> validators = new EnumMap<>(TemplateId.class);
+
+	/**
+	 * Resolves the validators of every template id
+	 *
+	 * @param registry The validator registry of the context
+	 * @param required Whether a validator class is to be run
+	 */
+	ValidationPlan(Registry<NodeValidator> registry, Predicate<Class<? extends NodeValidator>> required) {
+		for (TemplateId templateId : TemplateId.values()) {
+			List<Class<? extends NodeValidator>> chain = new ArrayList<>();
+			for (Class<? extends NodeValidator> validator : registry.inclusiveGetClasses(templateId)) {
+				if (required.test(validator)) {
+					chain.add(validator);
+				}
+			}
+
+			if (!chain.isEmpty()) {
+				validators.put(templateId, Collections.unmodifiableList(chain));
+			}
+		}
+	}
+
+	/**
+	 * Gets the validators to run on nodes of a type, general validators first
+	 *
+	 * @param templateId type of the nodes
+	 * @return The validator classes, in the order they are run
+	 */
+	List<Class<? extends NodeValidator>> getValidators(TemplateId templateId) {
+		List<Class<? extends NodeValidator>> chain = templateId == null ? null : validators.get(templateId);
+		return chain == null ? Collections.emptyList() : chain;
+	}
+}
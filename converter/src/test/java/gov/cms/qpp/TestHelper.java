@@ -119,7 +119,7 @@ public class TestHelper {
 	 * @throws Exception If the mocking fails.
 	 */
 	private static void mockQrdaValidator(QrdaValidator spy, Class<? extends NodeValidator> validator, boolean required) throws Exception {
-		PowerMockito.doReturn(required).when(spy, METHOD_IS_VALIDATION_REQUIRED, ArgumentMatchers.isA(validator));
+		PowerMockito.doReturn(required).when(spy, METHOD_IS_VALIDATION_REQUIRED, ArgumentMatchers.eq(validator));
 	}
 
 	private TestHelper() {
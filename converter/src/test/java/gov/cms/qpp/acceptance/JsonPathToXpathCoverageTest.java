@@ -29,9 +29,8 @@ class JsonPathToXpathCoverageTest {
 	@ParameterizedTest
 	@MethodSource("paths")
 	void testCoverage(Path path) throws IOException {
-		JsonWrapper metaWrapper = new JsonWrapper(false);
-		helper = new JsonPathToXpathHelper(path, metaWrapper, false);
-		JsonWrapper wrapper = new JsonWrapper(metaWrapper, true);
+		JsonWrapper wrapper = new JsonWrapper();
+		helper = new JsonPathToXpathHelper(path, wrapper, false);
 		JsonNode root = om.readTree(wrapper.toString());
 		JsonPathAggregator agg = new JsonPathAggregator(root);
 
@@ -2,6 +2,7 @@ package gov.cms.qpp.acceptance.helper;
 
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.PathSource;
+import gov.cms.qpp.conversion.correlation.CorrelationIndex;
 import gov.cms.qpp.conversion.correlation.PathCorrelator;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.encode.QppOutputEncoder;
@@ -24,7 +25,7 @@ public class JsonPathToXpathHelper {
 
 	private static XPathFactory xpf = XPathFactory.instance();
 	private Path path;
-	private JsonWrapper wrapper;
+	private CorrelationIndex index;
 
 	public JsonPathToXpathHelper(Path inPath, JsonWrapper inWrapper) throws IOException {
 		this(inPath, inWrapper, true);
@@ -32,24 +33,24 @@ public class JsonPathToXpathHelper {
 
 	public JsonPathToXpathHelper(Path inPath, JsonWrapper inWrapper, boolean doDefaults) throws IOException {
 		path = inPath;
-		wrapper = inWrapper;
 		Converter converter = new Converter(new PathSource(inPath));
 		converter.getContext().setDoDefaults(doDefaults);
 		converter.transform();
 		QppOutputEncoder encoder = new QppOutputEncoder(converter.getContext());
-		encoder.encode(wrapper, converter.getReport().getDecoded());
+		encoder.encode(inWrapper, converter.getReport().getDecoded());
+		index = CorrelationIndex.of(inWrapper);
 	}
 
 	public void executeElementTest(String jsonPath, String xmlElementName)
 			throws IOException, XmlException {
-		String xPath = PathCorrelator.prepPath(jsonPath, wrapper);
+		String xPath = PathCorrelator.prepPath(jsonPath, index);
 		Element element = evaluateXpath(xPath, Filters.element());
 
 		assertThat(xmlElementName).isEqualTo(element.getName());
 	}
 
 	public void executeAttributeTest(String jsonPath, String expectedValue) {
-		String xPath = PathCorrelator.prepPath(jsonPath, wrapper);
+		String xPath = PathCorrelator.prepPath(jsonPath, index);
 
 		Attribute attribute = null;
 		try {
@@ -74,7 +75,7 @@ public class JsonPathToXpathHelper {
 
 	public void executeAttributeTest(String jsonPath, String xmlAttributeName, String expectedValue)
 			throws IOException, XmlException {
-		String xPath = PathCorrelator.prepPath(jsonPath, wrapper);
+		String xPath = PathCorrelator.prepPath(jsonPath, index);
 		Attribute attribute = evaluateXpath(xPath, Filters.attribute());
 
 		assertThat(attribute.getName())
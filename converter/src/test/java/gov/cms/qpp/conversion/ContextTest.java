@@ -25,6 +25,45 @@ class ContextTest {
 		assertThat(new Context().isHistorical()).isFalse();
 	}
 
+	@Test
+	void testIsNotStreamingDecodeByDefault() {
+		assertThat(new Context().isStreamingDecode()).isFalse();
+	}
+
+	@Test
+	void testNoBlockConversionThresholdByDefault() {
+		assertThat(new Context().getBlockConversionThreshold()).isEqualTo(0L);
+	}
+
+	@Test
+	void testIsNotParallelDecodeByDefault() {
+		assertThat(new Context().isParallelDecode()).isFalse();
+	}
+
+	@Test
+	void testIsNotParallelValidationByDefault() {
+		assertThat(new Context().isParallelValidation()).isFalse();
+	}
+
+	@Test
+	void testNoMaxValidationDetailsByDefault() {
+		assertThat(new Context().getMaxValidationDetails()).isEqualTo(0);
+	}
+
+	@Test
+	void testMaxValidationDetailsSetter() {
+		Context context = new Context();
+		context.setMaxValidationDetails(10);
+		assertThat(context.getMaxValidationDetails()).isEqualTo(10);
+	}
+
+	@Test
+	void testNegativeMaxValidationDetailsMeansNoMaximum() {
+		Context context = new Context();
+		context.setMaxValidationDetails(-1);
+		assertThat(context.getMaxValidationDetails()).isEqualTo(0);
+	}
+
 	@Test
 	void testIsDoDefaultsSetter() {
 		Context context = new Context();
@@ -46,6 +85,41 @@ class ContextTest {
 		assertThat(context.isHistorical()).isTrue();
 	}
 
+	@Test
+	void testIsStreamingDecodeSetter() {
+		Context context = new Context();
+		context.setStreamingDecode(true);
+		assertThat(context.isStreamingDecode()).isTrue();
+	}
+
+	@Test
+	void testBlockConversionThresholdSetter() {
+		Context context = new Context();
+		context.setBlockConversionThreshold(1024);
+		assertThat(context.getBlockConversionThreshold()).isEqualTo(1024L);
+	}
+
+	@Test
+	void testNegativeBlockConversionThresholdMeansWholeConversion() {
+		Context context = new Context();
+		context.setBlockConversionThreshold(-1);
+		assertThat(context.getBlockConversionThreshold()).isEqualTo(0L);
+	}
+
+	@Test
+	void testIsParallelDecodeSetter() {
+		Context context = new Context();
+		context.setParallelDecode(true);
+		assertThat(context.isParallelDecode()).isTrue();
+	}
+
+	@Test
+	void testIsParallelValidationSetter() {
+		Context context = new Context();
+		context.setParallelValidation(true);
+		assertThat(context.isParallelValidation()).isTrue();
+	}
+
 	@Test
 	void testProgramIsAllByDefault() {
 		assertThat(new Context().getProgram())
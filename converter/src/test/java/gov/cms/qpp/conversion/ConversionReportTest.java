@@ -2,9 +2,10 @@ package gov.cms.qpp.conversion;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import gov.cms.qpp.conversion.encode.EncodeException;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.error.AllErrors;
 import gov.cms.qpp.conversion.model.error.Error;
 import gov.cms.qpp.conversion.model.error.TransformException;
@@ -63,6 +64,41 @@ class ConversionReportTest {
 				.isEqualTo(wrapper.toString());
 	}
 
+	@Test
+	void testDecodedIsFrozen() {
+		Node decoded = report.getDecoded();
+
+		assertThat(decoded.isFrozen()).isTrue();
+		assertThat(report.getDecoded()).isSameAs(decoded);
+		assertThrows(UnsupportedOperationException.class, () -> decoded.putValue("key", "value"));
+	}
+
+	@Test
+	void testEncodedIsReadOnly() {
+		JsonWrapper encoded = report.getEncoded();
+
+		assertThat(encoded.isReadOnly()).isTrue();
+		assertThat(report.getEncoded()).isSameAs(encoded);
+		assertThrows(UnsupportedOperationException.class, () -> encoded.putString("key", "value"));
+	}
+
+	@Test
+	void testEncodedIsIsolatedFromTransformResult() {
+		Converter converter = new Converter(inputSource);
+		JsonWrapper transformed = converter.transform();
+		String expected = converter.getReport().getEncoded().toString();
+
+		transformed.putString("extra", "value");
+
+		assertThat(converter.getReport().getEncoded().toString()).isEqualTo(expected);
+	}
+
+	@Test
+	void testInternedValuesAreReported() {
+		assertThat(report.getInternedValueCount()).isGreaterThan(0L);
+		assertThat(report.getInternedBytesSaved()).isGreaterThan(0L);
+	}
+
 	@Test
 	void getReportDetails() {
 		assertThat(errorReport.getReportDetails()).isNotNull();
@@ -81,17 +117,17 @@ class ConversionReportTest {
 
 	@Test
 	void getBadReportDetails() throws NoSuchFieldException, IllegalAccessException, JsonProcessingException {
-		ObjectMapper mockMapper = mock(ObjectMapper.class);
-		when(mockMapper.writeValueAsBytes(any(AllErrors.class)))
+		ObjectWriter mockWriter = mock(ObjectWriter.class);
+		when(mockWriter.writeValueAsBytes(any(AllErrors.class)))
 			.thenThrow(new JsonMappingException("meep"));
 
 		Converter converter = new Converter(
 			new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")));
 		Converter.ConversionReport badReport = converter.getReport();
 
-		Field field = badReport.getClass().getDeclaredField("mapper");
+		Field field = badReport.getClass().getDeclaredField("writer");
 		field.setAccessible(true);
-		field.set(badReport, mockMapper);
+		field.set(badReport, mockWriter);
 
 		assertThrows(EncodeException.class, badReport::getValidationErrorsSource);
 	}
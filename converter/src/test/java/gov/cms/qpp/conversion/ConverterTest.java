@@ -17,7 +17,9 @@ import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
@@ -228,6 +230,72 @@ public class ConverterTest {
 		Truth.assertThat(thrown).hasCauseThat().isInstanceOf(XmlInputFileException.class);
 	}
 
+	@Test
+	public void testBoundedConversionMatchesWholeConversion() {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		Context context = new Context();
+		context.setBlockConversionThreshold(1);
+
+		JsonWrapper whole = new Converter(new PathSource(path)).transform();
+		JsonWrapper bounded = new Converter(new PathSource(path), context).transform();
+
+		assertWithMessage("Converting one block at a time should produce the same json")
+				.that(bounded.toString())
+				.isEqualTo(whole.toString());
+		assertWithMessage("Converting one block at a time should record the same provenance")
+				.that(provenanceOf(bounded, "", bounded.getObject(), new ArrayList<>()))
+				.containsExactlyElementsIn(provenanceOf(whole, "", whole.getObject(), new ArrayList<>()))
+				.inOrder();
+	}
+
+	private static List<String> provenanceOf(JsonWrapper wrapper, String pointer, Object content, List<String> found) {
+		wrapper.getProvenance(pointer).forEach(record -> found.add(pointer + " " + record));
+		if (content instanceof Map) {
+			((Map<?, ?>) content).forEach((key, value) ->
+					provenanceOf(wrapper, JsonWrapper.pointer(pointer, key), value, found));
+		} else if (content instanceof List) {
+			List<?> entries = (List<?>) content;
+			for (int index = 0; index < entries.size(); index++) {
+				provenanceOf(wrapper, JsonWrapper.pointer(pointer, index), entries.get(index), found);
+			}
+		}
+		return found;
+	}
+
+	@Test
+	public void testBoundedConversionReportsSameErrors() {
+		Path path = Paths.get("../qrda-files/QRDA-III-without-required-measure.xml");
+		Context context = new Context();
+		context.setBlockConversionThreshold(1);
+
+		List<Detail> whole = transformErrors(new Converter(new PathSource(path)));
+		List<Detail> bounded = transformErrors(new Converter(new PathSource(path), context));
+
+		assertThat(bounded).containsExactlyElementsIn(whole);
+	}
+
+	@Test
+	public void testBlockConversionThresholdAboveSourceSize() {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		Context context = new Context();
+		context.setBlockConversionThreshold(Long.MAX_VALUE);
+
+		JsonWrapper whole = new Converter(new PathSource(path)).transform();
+		JsonWrapper converted = new Converter(new PathSource(path), context).transform();
+
+		assertThat(converted.toString()).isEqualTo(whole.toString());
+	}
+
+	private List<Detail> transformErrors(Converter converter) {
+		try {
+			converter.transform();
+			fail();
+			return null;
+		} catch (TransformException exception) {
+			return exception.getDetails().getErrors().get(0).getDetails();
+		}
+	}
+
 	private void checkup(TransformException exception, LocalizedError error) {
 		AllErrors allErrors = exception.getDetails();
 		List<Error> errors = allErrors.getErrors();
@@ -0,0 +1,68 @@
+package gov.cms.qpp.conversion.correlation;
+
+import com.jayway.jsonpath.PathNotFoundException;
+import gov.cms.qpp.conversion.Converter;
+import gov.cms.qpp.conversion.PathSource;
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CorrelationIndexTest {
+
+	private static JsonWrapper wrapper;
+	private static CorrelationIndex index;
+
+	@BeforeAll
+	static void setup() {
+		wrapper = new Converter(new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml"))).transform();
+		index = CorrelationIndex.of(wrapper);
+	}
+
+	@Test
+	void testIndexMatchesWrapper() {
+		String[] paths = {"", "programName", "$.performanceYear", "measurementSets[0].category",
+				"measurementSets[0].measurements[0].measureId", "measurementSets[1].measurements[0].value",
+				"$['measurementSets'][2]['measurements'][0]['value']"};
+
+		for (String path : paths) {
+			assertThat(PathCorrelator.prepPath(path, index)).isEqualTo(PathCorrelator.prepPath(path, wrapper));
+		}
+	}
+
+	@Test
+	void testLabeledAttributeCorrelatesToItsOrigin() {
+		String document = PathCorrelator.prepPath("", index);
+
+		assertThat(PathCorrelator.prepPath("performanceYear", index)).isNotEqualTo(document);
+		assertThat(PathCorrelator.prepPath("performanceYear", index)).startsWith(document + "/");
+	}
+
+	@Test
+	void testArrayHasNoOrigin() {
+		assertThat(PathCorrelator.prepPath("$.measurementSets.meep", index)).isEmpty();
+	}
+
+	@Test
+	void testMissingContent() {
+		assertThrows(PathNotFoundException.class, () -> PathCorrelator.prepPath("meep.mawp", index));
+		assertThrows(PathNotFoundException.class, () -> PathCorrelator.prepPath("measurementSets[99].meep", index));
+	}
+
+	@Test
+	void testIndexIsUnaffectedByChanges() {
+		JsonWrapper changing = new JsonWrapper();
+		changing.putString("mawp", "meep");
+		CorrelationIndex early = CorrelationIndex.of(changing);
+
+		changing.putObject("late", new JsonWrapper().putString("mawp", "meep"));
+
+		assertThat(early.contains("")).isTrue();
+		assertThat(early.contains("/late")).isFalse();
+		assertThat(CorrelationIndex.of(changing).contains("/late")).isTrue();
+	}
+}
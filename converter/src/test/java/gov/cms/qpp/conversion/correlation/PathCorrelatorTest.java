@@ -1,6 +1,9 @@
 package gov.cms.qpp.conversion.correlation;
 
-import com.google.common.collect.Lists;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.PathNotFoundException;
+import gov.cms.qpp.conversion.Converter;
+import gov.cms.qpp.conversion.PathSource;
 import gov.cms.qpp.conversion.decode.ClinicalDocumentDecoder;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.TemplateId;
@@ -10,8 +13,7 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Paths;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
@@ -63,12 +65,43 @@ class PathCorrelatorTest {
 
 	@Test
 	void unacknowledgedEncodedLabel() {
-		Map<String, String> map = new HashMap<>();
-		map.put("meep", "meep");
-		map.put("encodeLabel", "mawp");
 		JsonWrapper wrapper = new JsonWrapper();
-		wrapper.putObject("metadata_holder", Lists.newArrayList(map));
+		wrapper.putString("mawp", "meep");
 
 		assertThat(PathCorrelator.prepPath("$.mawp", wrapper)).isEmpty();
 	}
+
+	@Test
+	void prepPathUsesRecordedProvenance() {
+		JsonWrapper wrapper = new Converter(new PathSource(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")))
+				.transform();
+
+		String document = PathCorrelator.prepPath("", wrapper);
+
+		assertThat(document).isNotEmpty();
+		assertThat(PathCorrelator.prepPath("$.programName", wrapper)).startsWith(document + "/");
+		assertThat(PathCorrelator.prepPath("measurementSets[0].measurements[0].measureId", wrapper))
+				.startsWith(document + "/");
+	}
+
+	@Test
+	void prepPathOfMissingContent() {
+		JsonWrapper wrapper = new JsonWrapper();
+		wrapper.putString("mawp", "meep");
+
+		assertThrows(PathNotFoundException.class, () -> PathCorrelator.prepPath("meep.mawp", wrapper));
+	}
+
+	@Test
+	void toPointerOfDefinitePaths() {
+		assertThat(PathCorrelator.toPointer("$")).isEmpty();
+		assertThat(PathCorrelator.toPointer("measurements[0]")).isEqualTo("/measurements/0");
+		assertThat(PathCorrelator.toPointer("$['measurements'][0]['a/b']")).isEqualTo("/measurements/0/a~1b");
+	}
+
+	@Test
+	void toPointerOfIndefinitePath() {
+		assertThrows(InvalidPathException.class, () -> PathCorrelator.toPointer("$.mawp[*]"));
+		assertThrows(InvalidPathException.class, () -> PathCorrelator.toPointer("$..mawp"));
+	}
 }
@@ -27,7 +27,7 @@ class QrdaQppAssociationTest {
 
 	@Test
 	void testAssociation() {
-		mapper.mapIt("$", qpp.getObject());
+		mapper.mapIt(qpp);
 		mapper.writeAssociations();
 
 		assertWithMessage("registered associations does not match expectation")
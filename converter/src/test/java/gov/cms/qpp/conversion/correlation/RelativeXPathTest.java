@@ -0,0 +1,129 @@
+package gov.cms.qpp.conversion.correlation;
+
+import gov.cms.qpp.conversion.decode.ClinicalDocumentDecoder;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+import org.jdom2.Attribute;
+import org.jdom2.Element;
+import org.jdom2.filter.AbstractFilter;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RelativeXPathTest {
+
+	private static final String NS = "urn:hl7-org:v3";
+	private static final String SUBSTITUTION = "<nsuri>";
+
+	private Element element;
+
+	@BeforeEach
+	void setup() throws XmlException {
+		element = XmlUtils.stringToDom(XmlUtils.buildString(
+				"<root xmlns=\"urn:hl7-org:v3\">",
+				"  <reference><externalDocument><id root=\"1\" extension=\"first\"/></externalDocument></reference>",
+				"  <reference><externalDocument><id root=\"2\" extension=\"second\"/></externalDocument></reference>",
+				"  <reference><externalDocument><id root=\"2\"/></externalDocument></reference>",
+				"  <value code=\"code\"/>",
+				"</root>"));
+	}
+
+	@Test
+	void testEvaluateAttributes() {
+		RelativeXPath path = RelativeXPath.compile("." + step("reference") + step("externalDocument") + step("id")
+				+ "/@extension", SUBSTITUTION);
+
+		List<Attribute> attributes = Filters.attribute().filter(path.evaluate(element, NS));
+
+		assertThat(attributes).hasSize(2);
+		assertThat(attributes.get(0).getValue()).isEqualTo("first");
+		assertThat(attributes.get(1).getValue()).isEqualTo("second");
+	}
+
+	@Test
+	void testEvaluateWithPredicate() {
+		RelativeXPath path = RelativeXPath.compile("." + step("reference") + step("externalDocument") + step("id")
+				+ "[@root='2']/@extension", SUBSTITUTION);
+
+		Attribute attribute = Filters.attribute().filter(path.evaluateFirst(element, NS));
+
+		assertThat(attribute.getValue()).isEqualTo("second");
+	}
+
+	@Test
+	void testEvaluateElements() {
+		RelativeXPath path = RelativeXPath.compile("." + step("reference"), SUBSTITUTION);
+
+		assertThat(Filters.element().filter(path.evaluate(element, NS))).hasSize(3);
+	}
+
+	@Test
+	void testEvaluateFirstWithoutMatch() {
+		RelativeXPath path = RelativeXPath.compile("." + step("value") + "/@nullFlavor", SUBSTITUTION);
+
+		assertThat(path.evaluateFirst(element, NS)).isNull();
+	}
+
+	@Test
+	void testEvaluateFirstSkipsFilteredSelections() {
+		RelativeXPath path = RelativeXPath.compile("." + step("reference") + step("externalDocument") + step("id")
+				+ "/@extension", SUBSTITUTION);
+
+		Attribute attribute = path.evaluateFirst(element, NS, new AbstractFilter<Attribute>() {
+			@Override
+			public Attribute filter(Object content) {
+				Attribute selected = Filters.attribute().filter(content);
+				return selected == null || "first".equals(selected.getValue()) ? null : selected;
+			}
+		});
+
+		assertThat(attribute.getValue()).isEqualTo("second");
+	}
+
+	@Test
+	void testNamespaceMismatch() {
+		RelativeXPath path = RelativeXPath.compile("." + step("value") + "/@code", SUBSTITUTION);
+
+		assertThat(path.evaluate(element, "meep")).isEmpty();
+	}
+
+	@Test
+	void testUnsupportedExpression() {
+		assertThrows(PathCorrelationException.class,
+				() -> RelativeXPath.compile("//*[local-name() = 'value']", SUBSTITUTION));
+	}
+
+	@Test
+	void testAttributeMustBeLast() {
+		assertThrows(PathCorrelationException.class,
+				() -> RelativeXPath.compile("./@code" + step("value"), SUBSTITUTION));
+	}
+
+	@Test
+	void testMatchesXpathEvaluation() throws XmlException {
+		Element document = XmlUtils.parseXmlStream(XmlUtils.fileToStream(
+				Paths.get("../qrda-files/valid-QRDA-III-latest.xml")));
+		String template = TemplateId.CLINICAL_DOCUMENT.name();
+		String label = ClinicalDocumentDecoder.NATIONAL_PROVIDER_IDENTIFIER;
+
+		List<Attribute> expected = XPathFactory.instance()
+				.compile(PathCorrelator.getXpath(template, label, NS), Filters.attribute())
+				.evaluate(document);
+		List<Attribute> actual = Filters.attribute()
+				.filter(PathCorrelator.getCompiledXpath(template, label).evaluate(document, NS));
+
+		assertThat(actual).containsExactlyElementsIn(expected).inOrder();
+	}
+
+	private String step(String name) {
+		return "/*[local-name() = '" + name + "' and namespace-uri() = '" + SUBSTITUTION + "']";
+	}
+}
@@ -1,5 +1,8 @@
 package gov.cms.qpp.conversion.correlation;
 
+import gov.cms.qpp.conversion.encode.JsonWrapper;
+import gov.cms.qpp.conversion.encode.Provenance;
+
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -8,7 +11,6 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 class ValueOriginMapper {
 	private List<Association> associations = new ArrayList<>();
@@ -20,28 +22,27 @@ class ValueOriginMapper {
 		return associations;
 	}
 
+	void mapIt(JsonWrapper wrapper) {
+		mapIt(wrapper, "$", "", wrapper.getObject());
+	}
+
 	@SuppressWarnings("unchecked")
-	void mapIt(String base, Object holder) {
+	private void mapIt(JsonWrapper wrapper, String base, String pointer, Object holder) {
 		if (holder instanceof Map) {
-			map(base, (Map) holder);
+			map(wrapper, base, pointer, (Map) holder);
 		} else {
-			map(base, (List) holder);
+			map(wrapper, base, pointer, (List) holder);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private void map(String base, Map<String, Object> toAssociate) {
+	private void map(JsonWrapper wrapper, String base, String pointer, Map<String, Object> toAssociate) {
 		for (Map.Entry<String, Object> entry : toAssociate.entrySet()) {
-			if (entry.getKey().equals("metadata_holder")) {
-				continue;
-			}
 			String newBase = base + "." + entry.getKey();
 
 			if (entry.getValue() instanceof Map || entry.getValue() instanceof List) {
-				mapIt(newBase, entry.getValue());
+				mapIt(wrapper, newBase, JsonWrapper.pointer(pointer, entry.getKey()), entry.getValue());
 			} else {
-				Set<Map<String, String>> metadataSet = ((Set<Map<String, String>>)toAssociate.get("metadata_holder"));
-				String xPath = getXpath(metadataSet, entry.getKey());
+				String xPath = getXpath(wrapper.getProvenance(pointer), entry.getKey());
 				if (xPath != null) {
 					associations.add(
 							new Association(xPath, base + "." + entry.getKey(),
@@ -51,32 +52,29 @@ class ValueOriginMapper {
 		}
 	}
 
-	private String getXpath(Set<Map<String, String>> metadataSet, String key) {
+	private String getXpath(List<Provenance> provenance, String key) {
 		String xPath = null;
-		Map<String, String> current = null;
-		if (metadataSet == null) {
-			return xPath;
-		}
-		for (Map<String, String> metaMap : metadataSet) {
-			String label = metaMap.get("encodeLabel");
+		Provenance current = null;
+		for (Provenance record : provenance) {
+			String label = record.getEncodeLabel();
 			if (label.equals(key)) {
-				String relative = PathCorrelator.getXpath(metaMap.get("template"), label, metaMap.get("nsuri"));
-				xPath = (relative == null) ? metaMap.get("path") : metaMap.get("path") + "/" + relative;
+				String relative = PathCorrelator.getXpath(record.getTemplate(), label, record.getNsUri());
+				xPath = (relative == null) ? record.getPath() : record.getPath() + "/" + relative;
 				break;
 			}
-			if (current == null || metaMap.get("path").length() < current.get("path").length()) {
-				current = metaMap;
-				xPath = metaMap.get("path");
+			if (current == null || record.getPath().length() < current.getPath().length()) {
+				current = record;
+				xPath = record.getPath();
 			}
 		}
 		return xPath;
 	}
 
-	private void map(String base, List<Object> toAssociate) {
+	private void map(JsonWrapper wrapper, String base, String pointer, List<Object> toAssociate) {
 		int index = 0;
 		for (Object obj : toAssociate) {
-			String newBase = base + "[" + index++ + "]";
-			mapIt(newBase, obj);
+			String newBase = base + "[" + index + "]";
+			mapIt(wrapper, newBase, JsonWrapper.pointer(pointer, index++), obj);
 		}
 	}
 
@@ -135,6 +135,31 @@ class ClinicalDocumentDecoderTest {
 				.isEqualTo("Y");
 	}
 
+	@Test
+	void testParallelDecodeMatchesSequentialDecode() throws XmlException {
+		Context context = new Context();
+		context.setParallelDecode(true);
+
+		Node expected = new QppXmlDecoder(new Context()).decode(XmlUtils.stringToDom(xmlFragment));
+		Node actual = new QppXmlDecoder(context).decode(XmlUtils.stringToDom(xmlFragment));
+
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@Test
+	void testParallelDecodeAttachesSectionsToDocument() throws XmlException {
+		Context context = new Context();
+		context.setParallelDecode(true);
+
+		Node root = new QppXmlDecoder(context).decode(XmlUtils.stringToDom(xmlFragment));
+		Node document = root.findFirstNode(TemplateId.CLINICAL_DOCUMENT);
+
+		assertThat(document.getChildNodes()).isNotEmpty();
+		for (Node section : document.getChildNodes()) {
+			assertThat(section.getParent()).isSameAs(document);
+		}
+	}
+
 	@Test
 	void decodeClinicalDocumentInternalDecode() throws Exception {
 		Element clinicalDocument = makeClinicalDocument("MIPS");
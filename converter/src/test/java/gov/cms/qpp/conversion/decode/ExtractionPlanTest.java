@@ -0,0 +1,87 @@
+package gov.cms.qpp.conversion.decode;
+
+import gov.cms.qpp.conversion.correlation.RelativeXPath;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+import org.jdom2.Attribute;
+import org.jdom2.Element;
+import org.jdom2.filter.Filters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ExtractionPlanTest {
+
+	private static final String NS = "urn:hl7-org:v3";
+	private static final String SUBSTITUTION = "<nsuri>";
+
+	private Element element;
+
+	@BeforeEach
+	void setup() throws XmlException {
+		element = XmlUtils.stringToDom(XmlUtils.buildString(
+				"<root xmlns=\"urn:hl7-org:v3\">",
+				"  <reference><id root=\"1\" extension=\"first\"/><id root=\"2\" extension=\"second\"/></reference>",
+				"  <reference><id root=\"2\" extension=\"third\"/></reference>",
+				"  <value code=\"code\"/>",
+				"</root>"));
+	}
+
+	@Test
+	void testExtractionsShareTraversal() {
+		List<String> all = new ArrayList<>();
+		List<String> first = new ArrayList<>();
+		List<String> codes = new ArrayList<>();
+
+		new ExtractionPlan()
+				.extract(path(step("reference") + step("id") + "/@extension"), Filters.attribute(), false,
+						attr -> all.add(attr.getValue()))
+				.extract(path(step("reference") + step("id") + "[@root='2']/@extension"), Filters.attribute(), true,
+						attr -> first.add(attr.getValue()))
+				.extract(path(step("value") + "/@code"), Filters.attribute(), false,
+						attr -> codes.add(attr.getValue()))
+				.execute(element, NS);
+
+		assertThat(all).containsExactly("first", "second", "third").inOrder();
+		assertThat(first).containsExactly("second");
+		assertThat(codes).containsExactly("code");
+	}
+
+	@Test
+	void testConsumersRunInDeclaredOrder() {
+		List<String> order = new ArrayList<>();
+
+		new ExtractionPlan()
+				.extract(path(step("value") + "/@code"), Filters.attribute(), true,
+						attr -> order.add("value"))
+				.then(() -> order.add("then"))
+				.extract(path(step("reference")), Filters.element(), true,
+						reference -> order.add("reference"))
+				.execute(element, NS);
+
+		assertThat(order).containsExactly("value", "then", "reference").inOrder();
+	}
+
+	@Test
+	void testFilterMismatchIsIgnored() {
+		List<Attribute> attributes = new ArrayList<>();
+
+		new ExtractionPlan()
+				.extract(path(step("reference")), Filters.attribute(), false, attributes::add)
+				.execute(element, NS);
+
+		assertThat(attributes).isEmpty();
+	}
+
+	private RelativeXPath path(String steps) {
+		return RelativeXPath.compile("." + steps, SUBSTITUTION);
+	}
+
+	private String step(String name) {
+		return "/*[local-name() = '" + name + "' and namespace-uri() = '" + SUBSTITUTION + "']";
+	}
+}
@@ -5,9 +5,14 @@ import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.model.ComponentKey;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Program;
+import gov.cms.qpp.conversion.model.SourceLocation;
 import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.xml.XmlUtils;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import org.jdom2.Element;
+import org.jdom2.filter.Filters;
+import org.jdom2.xpath.XPathHelper;
 import org.junit.jupiter.api.Test;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -30,6 +35,41 @@ class QppXmlDecoderTest {
 				.isEqualTo(DecodeResult.ERROR);
 	}
 
+	@Test
+	void locateMatchesAbsolutePath() throws Exception {
+		Element root = XmlUtils.parseXmlStream(
+				XmlUtils.fileToStream(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")));
+
+		for (Element element : root.getDescendants(Filters.element())) {
+			assertWithMessage("Rendered location should match the absolute path")
+					.that(QppXmlDecoder.locate(element).toXPath())
+					.isEqualTo(XPathHelper.getAbsolutePath(element));
+		}
+	}
+
+	@Test
+	void decodedLocationsBuildOnTheirParents() throws Exception {
+		Element root = XmlUtils.parseXmlStream(
+				XmlUtils.fileToStream(Paths.get("../qrda-files/valid-QRDA-III-latest.xml")));
+
+		assertBuildsOnParent(new QppXmlDecoder(new Context()).decode(root));
+	}
+
+	private void assertBuildsOnParent(Node node) {
+		for (Node child : node.getChildNodes()) {
+			SourceLocation parentLocation = node.getLocation();
+			if (parentLocation != null) {
+				SourceLocation location = child.getLocation();
+				while (location != null && location != parentLocation) {
+					location = location.getParent();
+				}
+				assertWithMessage("The location of %s should build on the location of its parent", child.getType())
+						.that(location).isSameAs(parentLocation);
+			}
+			assertBuildsOnParent(child);
+		}
+	}
+
 	@Test
 	void decodeInvalidChildReturnsError() {
 		Context context = new Context();
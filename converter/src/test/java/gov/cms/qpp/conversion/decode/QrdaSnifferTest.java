@@ -0,0 +1,106 @@
+package gov.cms.qpp.conversion.decode;
+
+import com.google.common.io.ByteStreams;
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class QrdaSnifferTest {
+
+	private Context context;
+
+	@BeforeEach
+	void setup() {
+		context = new Context();
+	}
+
+	@Test
+	void testAcceptsValidQrda() throws IOException, XmlException {
+		assertThat(rejects(Paths.get("../qrda-files/valid-QRDA-III-latest.xml"))).isFalse();
+	}
+
+	@Test
+	void testRejectsWrongTemplateId() throws IOException, XmlException {
+		assertThat(rejects(Paths.get("src/test/resources/not-a-QRDA-III-file.xml"))).isTrue();
+	}
+
+	@Test
+	void testRejectsWrongRoot() throws XmlException {
+		assertThat(rejects(XmlUtils.buildString(
+				"<Document xmlns=\"urn:hl7-org:v3\">",
+				"  <templateId root=\"2.16.840.1.113883.10.20.27.1.2\" extension=\"2017-07-01\"/>",
+				"</Document>"))).isTrue();
+	}
+
+	@Test
+	void testAcceptsTemplateIdAfterHeaderStart() throws XmlException {
+		assertThat(rejects(XmlUtils.buildString(
+				"<ClinicalDocument xmlns=\"urn:hl7-org:v3\">",
+				"  <realmCode code=\"US\"/>",
+				"  <templateId root=\"2.16.840.1.113883.10.20.27.1.1\" extension=\"2017-06-01\"/>",
+				"  <id root=\"26a42253-99f5-48e7-9274-b467c6c7f623\"/>",
+				"  <templateId root=\"2.16.840.1.113883.10.20.27.1.2\" extension=\"2017-07-01\"/>",
+				"</ClinicalDocument>"))).isFalse();
+	}
+
+	@Test
+	void testRejectsClosedRootWithoutTemplateId() throws XmlException {
+		assertThat(rejects(XmlUtils.buildString(
+				"<ClinicalDocument xmlns=\"urn:hl7-org:v3\">",
+				"  <realmCode code=\"US\"/>",
+				"  <id root=\"26a42253-99f5-48e7-9274-b467c6c7f623\"/>",
+				"  <templateId root=\"2.16.840.1.113883.10.20.27.1.1\" extension=\"2017-06-01\"/>",
+				"</ClinicalDocument>"))).isTrue();
+	}
+
+	@Test
+	void testLeavesMalformedXmlToTheParser() throws XmlException {
+		assertThat(rejects("this is not xml")).isFalse();
+	}
+
+	@Test
+	void testLeavesUndecidedPrefixToTheParser() throws XmlException {
+		StringBuilder header = new StringBuilder("<ClinicalDocument xmlns=\"urn:hl7-org:v3\">");
+		while (header.length() <= QrdaSniffer.PREFIX_LENGTH) {
+			header.append("<realmCode code=\"US\"/>");
+		}
+		header.append("<templateId root=\"3.16.840.1.113883.10.20.27.1.2\"/></ClinicalDocument>");
+
+		assertThat(rejects(header.toString())).isFalse();
+	}
+
+	@Test
+	void testStreamIsReset() throws IOException, XmlException {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		byte[] expected = Files.readAllBytes(path);
+
+		try (InputStream stream = new BufferedInputStream(Files.newInputStream(path), QrdaSniffer.PREFIX_LENGTH)) {
+			QrdaSniffer.rejects(context, stream);
+
+			assertThat(ByteStreams.toByteArray(stream)).isEqualTo(expected);
+		}
+	}
+
+	private boolean rejects(Path path) throws IOException, XmlException {
+		try (InputStream stream = new BufferedInputStream(Files.newInputStream(path), QrdaSniffer.PREFIX_LENGTH)) {
+			return QrdaSniffer.rejects(context, stream);
+		}
+	}
+
+	private boolean rejects(String xml) throws XmlException {
+		return QrdaSniffer.rejects(context, new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,209 @@
+package gov.cms.qpp.conversion.decode;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.Program;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.segmentation.QrdaScope;
+import gov.cms.qpp.conversion.xml.XmlException;
+import gov.cms.qpp.conversion.xml.XmlUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+class XmlStreamDecoderTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"../qrda-files/valid-QRDA-III-latest.xml",
+			"../qrda-files/ComprehensivePrimaryCare_Sample_QRDA_III-latest.xml",
+			"../qrda-files/QRDA-III-without-required-measure.xml",
+			"src/test/resources/valid-QRDA-III-abridged.xml",
+			"src/test/resources/QRDA-III-with-extra-elements.xml"})
+	void testStreamingDecodeMatchesDocumentDecode(String file) throws IOException, XmlException {
+		Path path = Paths.get(file);
+
+		Node expected = documentDecode(new Context(), path);
+		Node actual = streamingDecode(new Context(), path);
+
+		assertWithMessage("Streaming decode of %s should produce the same nodes", file)
+				.that(actual).isEqualTo(expected);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"../qrda-files/valid-QRDA-III-latest.xml",
+			"../qrda-files/ComprehensivePrimaryCare_Sample_QRDA_III-latest.xml",
+			"src/test/resources/valid-QRDA-III-abridged.xml"})
+	void testBlockDecodeMatchesDocumentDecode(String file) throws IOException, XmlException {
+		Path path = Paths.get(file);
+		List<Node> blocks = new ArrayList<>();
+
+		Node expected = documentDecode(new Context(), path);
+		Node actual;
+		try (InputStream xml = XmlUtils.fileToStream(path)) {
+			actual = XmlInputDecoder.decodeXml(new Context(), xml, blocks::add);
+		}
+
+		assertWithMessage("Block decode of %s should produce the same nodes", file)
+				.that(actual).isEqualTo(expected);
+		assertThat(blocks).containsExactlyElementsIn(actual.findNode(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2))
+				.inOrder();
+	}
+
+	@Test
+	void testStreamingDecodeDetectsProgram() throws IOException, XmlException {
+		Context context = new Context();
+		streamingDecode(context, Paths.get("../qrda-files/ComprehensivePrimaryCare_Sample_QRDA_III-latest.xml"));
+
+		assertThat(context.getProgram()).isSameAs(Program.CPC);
+	}
+
+	@Test
+	void testStreamingDecodeWithScope() throws IOException, XmlException {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		Context documentContext = new Context();
+		documentContext.setScope(EnumSet.of(QrdaScope.ACI_SECTION));
+		Context streamingContext = new Context();
+		streamingContext.setScope(EnumSet.of(QrdaScope.ACI_SECTION));
+
+		Node expected = documentDecode(documentContext, path);
+		Node actual = streamingDecode(streamingContext, path);
+
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"MEASURE_REFERENCE_RESULTS_CMS_V2", "IA_SECTION", "ACI_NUMERATOR", "CLINICAL_DOCUMENT"})
+	void testScopedDecodeMatchesDocumentDecode(String scope) throws IOException, XmlException {
+		Path path = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
+		Context documentContext = new Context();
+		documentContext.setScope(EnumSet.of(QrdaScope.valueOf(scope)));
+		Context scopedContext = new Context();
+		scopedContext.setScope(EnumSet.of(QrdaScope.valueOf(scope)));
+
+		Node expected = documentDecode(documentContext, path);
+		Node actual;
+		try (InputStream xml = XmlUtils.fileToStream(path)) {
+			actual = XmlInputDecoder.decodeXml(scopedContext, xml);
+		}
+
+		assertWithMessage("Decode scoped to %s should produce the same nodes", scope)
+				.that(actual).isEqualTo(expected);
+	}
+
+	@Test
+	void testScopedDecodeKeepsNestedTemplateInScope() throws XmlException {
+		String xml = nestedAciNumerator();
+		Context documentContext = new Context();
+		documentContext.setScope(EnumSet.of(QrdaScope.ACI_NUMERATOR));
+		Context scopedContext = new Context();
+		scopedContext.setScope(EnumSet.of(QrdaScope.ACI_NUMERATOR));
+
+		Node built = XmlInputDecoder.decodeXml(documentContext, XmlUtils.stringToDom(xml));
+		Node decoded = XmlInputDecoder.decodeXml(scopedContext, stream(xml));
+
+		assertThat(built.findNode(TemplateId.ACI_NUMERATOR)).hasSize(1);
+		assertThat(decoded).isEqualTo(built);
+	}
+
+	@Test
+	void testStreamingScopedDecodeKeepsNestedTemplateInScope() throws XmlException {
+		String xml = nestedAciNumerator();
+		Context documentContext = new Context();
+		documentContext.setScope(EnumSet.of(QrdaScope.ACI_NUMERATOR));
+		Context streamingContext = new Context();
+		streamingContext.setScope(EnumSet.of(QrdaScope.ACI_NUMERATOR));
+		streamingContext.setStreamingDecode(true);
+
+		Node built = XmlInputDecoder.decodeXml(documentContext, XmlUtils.stringToDom(xml));
+		Node streamed = XmlInputDecoder.decodeXml(streamingContext, stream(xml));
+
+		assertThat(streamed.findNode(TemplateId.ACI_NUMERATOR)).hasSize(1);
+		assertThat(streamed).isEqualTo(built);
+	}
+
+	@Test
+	void testStreamingDecodeRejectsUnknownDocument() throws IOException, XmlException {
+		Node decoded = streamingDecode(new Context(), Paths.get("../qrda-files/not-a-QDRA-III-file.xml"));
+
+		assertThat(decoded).isNull();
+	}
+
+	@Test
+	void testStreamingDecodeWithoutComponent() throws XmlException {
+		String xml = XmlUtils.buildString("<ClinicalDocument xmlns=\"urn:hl7-org:v3\">",
+				"<templateId root=\"2.16.840.1.113883.10.20.27.1.2\" extension=\"2017-07-01\"/>",
+				"</ClinicalDocument>");
+		Context context = new Context();
+		context.setStreamingDecode(true);
+
+		Node decoded = XmlInputDecoder.decodeXml(context, stream(xml));
+
+		assertThat(decoded.getType()).isEqualTo(TemplateId.CLINICAL_DOCUMENT);
+	}
+
+	@Test
+	void testStreamingDecodeDisallowsDoctype() {
+		String xml = "<!DOCTYPE ClinicalDocument []><ClinicalDocument/>";
+		Context context = new Context();
+		context.setStreamingDecode(true);
+
+		Assertions.assertThrows(XmlException.class, () -> XmlInputDecoder.decodeXml(context, stream(xml)));
+	}
+
+	@Test
+	void testStreamingDecodeMalformedXml() {
+		String xml = "<ClinicalDocument><component></ClinicalDocument>";
+		Context context = new Context();
+		context.setStreamingDecode(true);
+
+		Assertions.assertThrows(XmlException.class, () -> XmlInputDecoder.decodeXml(context, stream(xml)));
+	}
+
+	private Node documentDecode(Context context, Path path) throws IOException, XmlException {
+		try (InputStream xml = XmlUtils.fileToStream(path)) {
+			return XmlInputDecoder.decodeXml(context, XmlUtils.parseXmlStream(xml));
+		}
+	}
+
+	private Node streamingDecode(Context context, Path path) throws IOException, XmlException {
+		context.setStreamingDecode(true);
+		try (InputStream xml = XmlUtils.fileToStream(path)) {
+			return XmlInputDecoder.decodeXml(context, xml);
+		}
+	}
+
+	private String nestedAciNumerator() {
+		return XmlUtils.buildString("<ClinicalDocument xmlns=\"urn:hl7-org:v3\">",
+				templateId(TemplateId.CLINICAL_DOCUMENT),
+				"<component><structuredBody><component><section>",
+				templateId(TemplateId.IA_SECTION),
+				"<entry><observation>",
+				templateId(TemplateId.ACI_NUMERATOR),
+				"</observation></entry>",
+				"</section></component></structuredBody></component>",
+				"</ClinicalDocument>");
+	}
+
+	private String templateId(TemplateId templateId) {
+		return "<templateId root=\"" + templateId.getRoot() + "\" extension=\"" + templateId.getExtension() + "\"/>";
+	}
+
+	private InputStream stream(String xml) {
+		return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,124 @@
+package gov.cms.qpp.conversion.encode;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompactMapTest {
+
+	private CompactMap map;
+
+	@BeforeEach
+	void setup() {
+		map = new CompactMap();
+	}
+
+	@Test
+	void testKeepsInsertionOrder() {
+		map.put("third", 3);
+		map.put("first", 1);
+		map.put("second", 2);
+
+		assertThat(map.keySet()).containsExactly("third", "first", "second").inOrder();
+		assertThat(map.values()).containsExactly(3, 1, 2).inOrder();
+	}
+
+	@Test
+	void testReplacesInPlace() {
+		map.put("first", 1);
+		map.put("second", 2);
+
+		assertThat(map.put("first", 3)).isEqualTo(1);
+		assertThat(map).containsExactly("first", 3, "second", 2).inOrder();
+	}
+
+	@Test
+	void testRemove() {
+		map.put("first", 1);
+		map.put("second", 2);
+		map.put("third", 3);
+
+		assertThat(map.remove("second")).isEqualTo(2);
+		assertThat(map.remove("missing")).isNull();
+		assertThat(map).containsExactly("first", 1, "third", 3).inOrder();
+	}
+
+	@Test
+	void testIteratorRemove() {
+		map.put("first", 1);
+		map.put("second", 2);
+		map.put("third", 3);
+
+		Iterator<Map.Entry<String, Object>> entries = map.entrySet().iterator();
+		entries.next();
+		entries.remove();
+
+		assertThrows(IllegalStateException.class, entries::remove);
+		assertThat(entries.next().getKey()).isEqualTo("second");
+		assertThat(map).containsExactly("second", 2, "third", 3).inOrder();
+	}
+
+	@Test
+	void testEntrySetValueWritesThrough() {
+		map.put("first", 1);
+
+		map.entrySet().iterator().next().setValue(2);
+
+		assertThat(map.get("first")).isEqualTo(2);
+	}
+
+	@Test
+	void testLargeObjectsAreIndexed() {
+		Map<String, Object> expected = new LinkedHashMap<>();
+		for (int count = 0; count <= CompactMap.INDEXED_SIZE * 2; count++) {
+			map.put("key" + count, count);
+			expected.put("key" + count, count);
+		}
+		map.remove("key0");
+		expected.remove("key0");
+		map.put("key1", "replaced");
+		expected.put("key1", "replaced");
+
+		assertThat(map).containsExactlyEntriesIn(expected).inOrder();
+		assertThat(map.get("key" + CompactMap.INDEXED_SIZE)).isEqualTo(CompactMap.INDEXED_SIZE);
+		assertThat(map.containsKey("key0")).isFalse();
+	}
+
+	@Test
+	void testEqualsOtherMaps() {
+		Map<String, Object> expected = new LinkedHashMap<>();
+		expected.put("first", 1);
+		expected.put("second", null);
+		map.put("first", 1);
+		map.put("second", null);
+
+		assertThat(map).isEqualTo(expected);
+		assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(map.containsKey("second")).isTrue();
+	}
+
+	@Test
+	void testCopy() {
+		map.put("first", 1);
+		CompactMap copy = new CompactMap(map);
+		copy.put("second", 2);
+
+		assertThat(map).containsExactly("first", 1);
+		assertThat(copy).containsExactly("first", 1, "second", 2).inOrder();
+	}
+
+	@Test
+	void testClear() {
+		map.put("first", 1);
+		map.clear();
+
+		assertThat(map).isEmpty();
+		assertThat(map.get("first")).isNull();
+	}
+}
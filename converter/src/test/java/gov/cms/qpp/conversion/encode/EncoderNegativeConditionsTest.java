@@ -3,6 +3,8 @@ package gov.cms.qpp.conversion.encode;
 import static com.google.common.truth.Truth.assertThat;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -66,4 +68,28 @@ class EncoderNegativeConditionsTest {
 		assertThat(encoder.getDetails().get(0).getMessage())
 				.isEqualTo("Fake IOException");
 	}
+
+	@Test
+	void testStreamExceptionAddsValidation() {
+		Node numeratorDenominatorNode = new Node(TemplateId.ACI_AGGREGATE_COUNT);
+		numeratorDenominatorNode.putValue("aggregateCount", "600");
+
+		List<Node> nodes = new ArrayList<>();
+		nodes.add(numeratorDenominatorNode);
+
+		QppOutputEncoder encoder = new QppOutputEncoder(new Context());
+
+		encoder.setNodes(nodes);
+
+		encoder.encode(new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Fake IOException");
+			}
+		});
+
+		assertThat(encoder.getDetails()).hasSize(1);
+		assertThat(encoder.getDetails().get(0).getMessage())
+				.isEqualTo("Fake IOException");
+	}
 }
@@ -3,18 +3,24 @@ package gov.cms.qpp.conversion.encode;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.util.JsonHelper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
@@ -22,12 +28,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class JsonWrapperTest {
 
-	private ObjectWriter ow = JsonWrapper.getObjectWriter(true);
+	private ObjectWriter ow = JsonWrapper.getObjectWriter();
 	private JsonWrapper objectObjWrapper;
 	private JsonWrapper objectStrWrapper;
 	private JsonWrapper listObjWrapper;
 	private JsonWrapper listStrWrapper;
-	private JsonWrapper unfilteredMetaWrapper;
 
 	@BeforeEach
 	void before() {
@@ -35,7 +40,6 @@ class JsonWrapperTest {
 		objectStrWrapper = new JsonWrapper();
 		listObjWrapper   = new JsonWrapper();
 		listStrWrapper   = new JsonWrapper();
-		unfilteredMetaWrapper = new JsonWrapper(false);
 	}
 
 	@Test
@@ -419,6 +423,41 @@ class JsonWrapperTest {
 				.isEqualTo(expect);
 	}
 
+	@Test
+	void testToString_nodeIntegerObject() throws Exception {
+		Node node = new Node();
+		node.putValue("aggregateCount", "100");
+		objectStrWrapper.putInteger("name2", node, "aggregateCount");
+
+		assertThat(objectStrWrapper.toString()).isEqualTo("{\n  \"name2\" : 100\n}");
+	}
+
+	@Test
+	void testToString_nodePaddedIntegerObject() throws Exception {
+		Node node = new Node();
+		node.putValue("aggregateCount", " 100 ");
+		objectStrWrapper.putInteger("name2", node, "aggregateCount");
+
+		assertThat(objectStrWrapper.toString()).isEqualTo("{\n  \"name2\" : 100\n}");
+	}
+
+	@Test
+	void testToString_nodeFloatObject() throws Exception {
+		Node node = new Node();
+		node.putValue("rate", "1.01");
+		objectStrWrapper.putFloat("name2", node, "rate");
+
+		assertThat(objectStrWrapper.toString()).isEqualTo("{\n  \"name2\" : 1.01\n}");
+	}
+
+	@Test
+	void testToString_nodeIntegerParseException() {
+		Node node = new Node();
+		node.putValue("aggregateCount", "nope");
+
+		assertThrows(EncodeException.class, () -> objectStrWrapper.putInteger("name2", node, "aggregateCount"));
+	}
+
 	@Test
 	void testToString_booleanObject() throws Exception {
 		objectStrWrapper.putString("name", "True"); // as string where case is preserved
@@ -532,43 +571,93 @@ class JsonWrapperTest {
 	}
 
 	@Test
-	void metadataFiltered() throws IOException {
-		//setup
-		String shouldSerialize = "mawp";
-		String shouldNotSerialize = "metadata_meep";
-		objectObjWrapper.putString(shouldSerialize, shouldSerialize);
-		objectObjWrapper.putString(shouldNotSerialize, shouldNotSerialize);
+	void testProvenanceIsNotSerialized() {
+		Node node = new Node();
+		node.setPath("/ClinicalDocument");
+		objectObjWrapper.putString("mawp", "mawp");
+		objectObjWrapper.attachProvenance(node);
 
-		//when
-		String json = objectObjWrapper.toString();
-		ObjectMapper mapper = new ObjectMapper();
-		JsonNode obj = mapper.readTree(json);
-
-		//then
-		assertThat(shouldSerialize)
-				.isEqualTo(obj.findValue(shouldSerialize).asText());
-		assertThat(obj.findValue(shouldNotSerialize))
-				.isNull();
+		assertThat(objectObjWrapper.toString()).isEqualTo("{\n  \"mawp\" : \"mawp\"\n}");
+		assertThat(objectObjWrapper.getProvenance("")).containsExactly(Provenance.of(node, ""));
 	}
 
 	@Test
-	void metadataUnfiltered() throws IOException {
-		//setup
-		String shouldSerialize = "mawp";
+	void testMetadataPrefixedAttributesSerialize() throws IOException {
 		String shouldAlsoSerialize = "metadata_meep";
-		unfilteredMetaWrapper.putString(shouldSerialize, shouldSerialize);
-		unfilteredMetaWrapper.putString(shouldAlsoSerialize, shouldAlsoSerialize);
+		objectObjWrapper.putString(shouldAlsoSerialize, shouldAlsoSerialize);
+
+		JsonNode obj = new ObjectMapper().readTree(objectObjWrapper.toString());
+
+		assertThat(obj.findValue(shouldAlsoSerialize).asText()).isEqualTo(shouldAlsoSerialize);
+	}
+
+	@Test
+	void testProvenanceFollowsPlacement() {
+		Node node = new Node();
+		objectStrWrapper.putString("name", "value");
+		objectStrWrapper.attachProvenance(node);
+		listObjWrapper.putObject(new JsonWrapper().putString("first", "value"));
+		listObjWrapper.putObject(objectStrWrapper);
+		objectObjWrapper.putObject("a/b", listObjWrapper);
+
+		assertThat(objectObjWrapper.getProvenance("/a~1b/1")).containsExactly(Provenance.of(node, ""));
+		assertThat(objectObjWrapper.getProvenance("/a~1b/0")).isEmpty();
+		assertThat(objectObjWrapper.getProvenance("")).isEmpty();
+	}
+
+	@Test
+	void testReplacedAttributeDropsProvenance() {
+		objectStrWrapper.putString("name", "value");
+		objectStrWrapper.attachProvenance(new Node());
+		objectObjWrapper.putObject("child", objectStrWrapper);
+
+		objectObjWrapper.putString("child", "value");
+
+		assertThat(objectObjWrapper.getProvenance("/child")).isEmpty();
+	}
+
+	@Test
+	void testMergedProvenanceIsRelabeled() {
+		Node node = new Node();
+		objectStrWrapper.putString("value", "1");
+		objectStrWrapper.attachProvenance(node);
+
+		objectObjWrapper.putString("numerator", "1");
+		objectObjWrapper.mergeProvenance(objectStrWrapper, "numerator");
+
+		assertThat(objectObjWrapper.getProvenance("")).containsExactly(Provenance.of(node, "numerator"));
+		assertThat(objectStrWrapper.getProvenance("")).containsExactly(Provenance.of(node, ""));
+	}
+
+	@Test
+	void testDuplicateProvenanceIsRecordedOnce() {
+		Node node = new Node();
+		objectObjWrapper.attachProvenance(node);
+		objectObjWrapper.attachProvenance(node);
+
+		assertThat(objectObjWrapper.getProvenance("")).hasSize(1);
+		assertThat(objectObjWrapper.isObject()).isTrue();
+	}
+
+	@Test
+	void testStreamAndSnapshotCarryProvenance() {
+		Node node = new Node();
+		objectStrWrapper.putString("name", "value");
+		objectStrWrapper.attachProvenance(node);
+		listObjWrapper.putObject(new JsonWrapper().putString("first", "value"));
+		listObjWrapper.putObject(objectStrWrapper);
 
-		//when
-		String json = unfilteredMetaWrapper.toString();
-		ObjectMapper mapper = new ObjectMapper();
-		JsonNode obj = mapper.readTree(json);
+		JsonWrapper snapshot = listObjWrapper.snapshot();
 
-		//then
-		assertThat(shouldSerialize)
-				.isEqualTo(obj.findValue(shouldSerialize).asText());
-		assertThat(shouldAlsoSerialize)
-				.isEqualTo(obj.findValue(shouldAlsoSerialize).asText());
+		assertThat(new JsonWrapper(listObjWrapper).getProvenance("/1")).containsExactly(Provenance.of(node, ""));
+		assertThat(snapshot.stream().map(wrapper -> wrapper.getProvenance("").size()).collect(Collectors.toList()))
+				.containsExactly(0, 1).inOrder();
+	}
+
+	@Test
+	void testPointerEscaping() {
+		assertThat(JsonWrapper.pointer("", "a~b/c")).isEqualTo("/a~0b~1c");
+		assertThat(JsonWrapper.pointer("/list", 2)).isEqualTo("/list/2");
 	}
 
 	@Test
@@ -603,6 +692,101 @@ class JsonWrapperTest {
 				.isEqualTo(2);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void testSnapshotRejectsChanges() {
+		objectStrWrapper.putString("name", "value");
+		JsonWrapper snapshot = objectStrWrapper.snapshot();
+
+		assertThat(snapshot.isReadOnly()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> snapshot.putString("other", "value"));
+		assertThrows(UnsupportedOperationException.class,
+				() -> ((Map<String, Object>) snapshot.getObject()).remove("name"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testSnapshotIsDeep() {
+		JsonWrapper child = new JsonWrapper();
+		child.putString("name", "value");
+		listStrWrapper.putObject(child);
+		JsonWrapper snapshot = listStrWrapper.snapshot();
+
+		Map<String, Object> nested = snapshot.stream().findFirst().map(wrapper -> (Map<String, Object>) wrapper.getObject())
+				.orElseThrow(IllegalStateException::new);
+
+		assertThrows(UnsupportedOperationException.class, () -> nested.put("other", "value"));
+		assertThat(snapshot.stream().allMatch(JsonWrapper::isReadOnly)).isTrue();
+	}
+
+	@Test
+	void testSnapshotIsUnaffectedByChanges() {
+		objectStrWrapper.putString("name", "value");
+		JsonWrapper snapshot = objectStrWrapper.snapshot();
+		objectStrWrapper.putString("other", "value");
+
+		assertThat(snapshot.toString()).isEqualTo("{\n  \"name\" : \"value\"\n}");
+		assertThat(snapshot.snapshot()).isSameAs(snapshot);
+	}
+
+	@Test
+	void testObjectWritersAreShared() {
+		assertThat(JsonWrapper.getObjectWriter()).isSameAs(ow);
+	}
+
+	@Test
+	void testWriteToStreamMatchesToString() throws IOException {
+		JsonWrapper child = new JsonWrapper();
+		child.putString("name", "caf\u00e9 \"quoted\"");
+		child.putFloat("rate", "0.5");
+		child.attachProvenance(new Node());
+		listObjWrapper.putObject(child);
+		listObjWrapper.putString("value");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		listObjWrapper.writeTo(output);
+
+		assertThat(output.toByteArray()).isEqualTo(listObjWrapper.toString().getBytes(StandardCharsets.UTF_8));
+		assertThat(listObjWrapper.toBytes()).isEqualTo(output.toByteArray());
+	}
+
+	@Test
+	void testWriteToWriterMatchesToString() throws IOException {
+		objectStrWrapper.putString("name", "value");
+		objectStrWrapper.putObject("list", listStrWrapper.putString("entry"));
+		StringWriter writer = new StringWriter();
+
+		objectStrWrapper.writeTo(writer);
+
+		assertThat(writer.toString()).isEqualTo(objectStrWrapper.toString());
+	}
+
+	@Test
+	void testWriteToLeavesStreamOpen() throws IOException {
+		boolean[] closed = new boolean[1];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		FilterOutputStream output = new FilterOutputStream(bytes) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		objectStrWrapper.putString("name", "value");
+
+		objectStrWrapper.writeTo(output);
+
+		assertThat(closed[0]).isFalse();
+		assertThat(bytes.toString("UTF-8")).isEqualTo(objectStrWrapper.toString());
+	}
+
+	@Test
+	void testWriteEmptyWrapper() throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		objectStrWrapper.writeTo(output);
+
+		assertThat(output.toString("UTF-8")).isEqualTo("null");
+	}
 }
 
 class MockBadJsonTarget {
@@ -0,0 +1,59 @@
+package gov.cms.qpp.conversion.encode;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.SourceLocation;
+import gov.cms.qpp.conversion.model.TemplateId;
+
+class ProvenanceTest {
+
+	private static final String NS = "urn:hl7-org:v3";
+
+	@Test
+	void testRecordsNode() {
+		Node node = new Node(TemplateId.CLINICAL_DOCUMENT);
+		node.setDefaultNsUri(NS);
+		node.setPath("/ClinicalDocument");
+
+		Provenance provenance = Provenance.of(node, "programName");
+
+		assertThat(provenance.getTemplate()).isEqualTo(TemplateId.CLINICAL_DOCUMENT.name());
+		assertThat(provenance.getNsUri()).isEqualTo(NS);
+		assertThat(provenance.getEncodeLabel()).isEqualTo("programName");
+		assertThat(provenance.getPath()).isEqualTo("/ClinicalDocument");
+	}
+
+	@Test
+	void testPathIsRenderedFromLocation() {
+		SourceLocation location = new SourceLocation(null, "ClinicalDocument", NS, 0);
+		Node node = new Node();
+		node.setLocation(location);
+
+		assertThat(Provenance.of(node, "").getPath()).isEqualTo(location.toXPath());
+	}
+
+	@Test
+	void testRelabel() {
+		Node node = new Node();
+		Provenance provenance = Provenance.of(node, "");
+
+		assertThat(provenance.withEncodeLabel("")).isSameAs(provenance);
+		assertThat(provenance.withEncodeLabel("value")).isEqualTo(Provenance.of(node, "value"));
+		assertThat(provenance.withEncodeLabel("value")).isNotEqualTo(provenance);
+	}
+
+	@Test
+	void testEquality() {
+		Node node = new Node();
+		node.setLocation(new SourceLocation(null, "ClinicalDocument", NS, 0));
+		Node other = new Node();
+		other.setLocation(new SourceLocation(null, "component", NS, 0));
+
+		assertThat(Provenance.of(node, "")).isEqualTo(Provenance.of(node, ""));
+		assertThat(Provenance.of(node, "").hashCode()).isEqualTo(Provenance.of(node, "").hashCode());
+		assertThat(Provenance.of(node, "")).isNotEqualTo(Provenance.of(other, ""));
+	}
+}
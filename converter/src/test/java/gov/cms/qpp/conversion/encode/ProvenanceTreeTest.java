@@ -0,0 +1,60 @@
+package gov.cms.qpp.conversion.encode;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.conversion.model.Node;
+import gov.cms.qpp.conversion.model.TemplateId;
+
+class ProvenanceTreeTest {
+
+	private final Provenance first = Provenance.of(new Node(TemplateId.ACI_SECTION), "");
+	private final Provenance second = Provenance.of(new Node(TemplateId.IA_SECTION), "");
+
+	@Test
+	void testFindWalksReferenceTokens() {
+		ProvenanceTree root = new ProvenanceTree();
+		ProvenanceTree entry = new ProvenanceTree();
+		entry.addRecords(Collections.singletonList(first));
+		ProvenanceTree list = new ProvenanceTree();
+		list.putChild("1", entry);
+		root.putChild("a~1b", list);
+
+		assertThat(root.find("")).isSameAs(root);
+		assertThat(root.find("/a~1b/1")).isSameAs(entry);
+		assertThat(root.find("/a~1b/1").getRecords()).containsExactly(first);
+		assertThat(root.find("/a~1b/0")).isNull();
+		assertThat(root.find("/missing/1")).isNull();
+	}
+
+	@Test
+	void testPutChildMergesExistingTree() {
+		ProvenanceTree root = new ProvenanceTree();
+		ProvenanceTree earlier = new ProvenanceTree();
+		earlier.addRecords(Collections.singletonList(first));
+		ProvenanceTree later = new ProvenanceTree();
+		later.addRecords(Arrays.asList(first, second));
+
+		root.putChild("child", earlier);
+		root.putChild("child", later);
+
+		assertThat(root.getChild("child").getRecords()).containsExactly(first, second).inOrder();
+	}
+
+	@Test
+	void testCopySharesChildren() {
+		ProvenanceTree root = new ProvenanceTree();
+		ProvenanceTree child = new ProvenanceTree();
+		root.putChild("child", child);
+
+		ProvenanceTree copy = new ProvenanceTree(root);
+		copy.removeChild("child");
+
+		assertThat(root.getChild("child")).isSameAs(child);
+		assertThat(new ProvenanceTree(root).getChild("child")).isSameAs(child);
+	}
+}
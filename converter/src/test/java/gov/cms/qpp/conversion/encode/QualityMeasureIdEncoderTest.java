@@ -2,7 +2,7 @@ package gov.cms.qpp.conversion.encode;
 
 import static com.google.common.truth.Truth.assertThat;
 
-import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -65,7 +65,7 @@ class QualityMeasureIdEncoderTest {
 	@Test
 	void testEndToEndReportedIsEncoded() {
 		executeInternalEncode();
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 
 		assertThat((Boolean)childValues.get("isEndToEndReported"))
 				.isTrue();
@@ -74,7 +74,7 @@ class QualityMeasureIdEncoderTest {
 	@Test
 	void testPopulationTotalIsEncoded() {
 		executeInternalEncode();
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 
 
 		assertThat(childValues.get(ELIGIBLE_POPULATION))
@@ -87,7 +87,7 @@ class QualityMeasureIdEncoderTest {
 		populationNode.putValue(type, SubPopulations.IPP);
 		populationNode.addChildNode(aggregateCountNode);
 		executeInternalEncode();
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 
 		assertThat(childValues.get(ELIGIBLE_POPULATION))
 				.isEqualTo(600);
@@ -96,7 +96,7 @@ class QualityMeasureIdEncoderTest {
 	@Test
 	void testPerformanceMetIsEncoded() {
 		executeInternalEncode();
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 		assertThat(childValues.get("performanceMet"))
 				.isEqualTo(600);
 	}
@@ -104,7 +104,7 @@ class QualityMeasureIdEncoderTest {
 	@Test
 	void testPerformanceExclusionIsEncoded() {
 		executeInternalEncode();
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 
 		assertThat(childValues.get("eligiblePopulationExclusion"))
 				.isEqualTo(600);
@@ -113,7 +113,7 @@ class QualityMeasureIdEncoderTest {
 	@Test
 	void testPerformanceNotMetIsEncoded() {
 		executeInternalEncode();
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 
 		assertThat(childValues.get("performanceNotMet"))
 				.isEqualTo(-600);
@@ -129,7 +129,7 @@ class QualityMeasureIdEncoderTest {
 	}
 
 	@SuppressWarnings("unchecked")
-	private LinkedHashMap<String, Object> getChildValues() {
-		return (LinkedHashMap<String, Object>)((LinkedHashMap<String, Object>) wrapper.getObject()).get("value");
+	private Map<String, Object> getChildValues() {
+		return (Map<String, Object>)((Map<String, Object>) wrapper.getObject()).get("value");
 	}
 }
\ No newline at end of file
@@ -2,8 +2,8 @@ package gov.cms.qpp.conversion.encode;
 
 import static com.google.common.truth.Truth.assertWithMessage;
 
-import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -16,7 +16,7 @@ import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.model.validation.MeasureConfigs;
 import gov.cms.qpp.conversion.model.validation.SubPopulations;
 
-import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.List;
 
 import static com.google.common.truth.Truth.assertWithMessage;
@@ -136,10 +136,10 @@ class QualityMeasureIdMultiEncoderTest {
 
 		encoder.internalEncode(wrapper, qualityMeasureId);
 
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 		@SuppressWarnings("unchecked")
-		List<LinkedHashMap<String, ?>> subPopulations =
-				(List<LinkedHashMap<String, ?>>)childValues.get("strata");
+		List<Map<String, ?>> subPopulations =
+				(List<Map<String, ?>>)childValues.get("strata");
 		assertFirstSubPopulation(subPopulations);
 		assertSecondSubPopulation(subPopulations);
 	}
@@ -153,21 +153,21 @@ class QualityMeasureIdMultiEncoderTest {
 
 		encoder.internalEncode(wrapper, qualityMeasureId);
 
-		LinkedHashMap<String, Object> childValues = getChildValues();
+		Map<String, Object> childValues = getChildValues();
 		@SuppressWarnings("unchecked")
-		List<LinkedHashMap<String, ?>> subPopulations =
-				(List<LinkedHashMap<String, ?>>)childValues.get("strata");
+		List<Map<String, ?>> subPopulations =
+				(List<Map<String, ?>>)childValues.get("strata");
 
 		assertThat(subPopulations).isEmpty();
 	}
 
 	@SuppressWarnings("unchecked")
-	private LinkedHashMap<String, Object> getChildValues() {
-		return (LinkedHashMap<String, Object>)((LinkedHashMap<String, Object>) wrapper.getObject()).get("value");
+	private Map<String, Object> getChildValues() {
+		return (Map<String, Object>)((Map<String, Object>) wrapper.getObject()).get("value");
 	}
 
-	private void assertFirstSubPopulation(List<LinkedHashMap<String, ?>> strata) {
-		LinkedHashMap<String, ?> firstSubPopulation = strata.get(0);
+	private void assertFirstSubPopulation(List<Map<String, ?>> strata) {
+		Map<String, ?> firstSubPopulation = strata.get(0);
 
 		assertWithMessage(REQUIRE_POPULATION_TOTAL).that(firstSubPopulation.get(ELIGIBLE_POPULATION)).isEqualTo(600);
 		assertWithMessage(REQUIRE_PERFORMANCE_MET).that(firstSubPopulation.get(PERFORMANCE_MET)).isEqualTo(600);
@@ -176,8 +176,8 @@ class QualityMeasureIdMultiEncoderTest {
 		assertWithMessage(REQUIRE_STRATUM).that(firstSubPopulation.get(STRATUM)).isEqualTo("test1strata1");
 	}
 
-	private void assertSecondSubPopulation(List<LinkedHashMap<String, ?>> strata) {
-		LinkedHashMap<String, ?> secondSubPopulation = strata.get(1);
+	private void assertSecondSubPopulation(List<Map<String, ?>> strata) {
+		Map<String, ?> secondSubPopulation = strata.get(1);
 
 		assertWithMessage(REQUIRE_POPULATION_TOTAL).that(secondSubPopulation.get(ELIGIBLE_POPULATION)).isEqualTo(600);
 		assertWithMessage(REQUIRE_PERFORMANCE_MET).that(secondSubPopulation.get(PERFORMANCE_MET)).isEqualTo(600);
@@ -0,0 +1,104 @@
+package gov.cms.qpp.conversion.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class DescendantIndexTest {
+
+	private Node root;
+	private Node section;
+	private Node first;
+	private Node second;
+
+	@BeforeEach
+	void setup() {
+		root = new Node(TemplateId.CLINICAL_DOCUMENT);
+		section = new Node(TemplateId.ACI_SECTION, root);
+		first = new Node(TemplateId.ACI_AGGREGATE_COUNT, section);
+		second = new Node(TemplateId.ACI_AGGREGATE_COUNT, section);
+		section.addChildNodes(first, second);
+		root.addChildNode(section);
+	}
+
+	@Test
+	void testFindFromRoot() {
+		DescendantIndex index = DescendantIndex.build(root);
+
+		assertThat(index.find(root, TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(first, second).inOrder();
+		assertThat(index.find(root, TemplateId.CLINICAL_DOCUMENT)).containsExactly(root);
+		assertThat(index.find(root, TemplateId.IA_SECTION)).isEmpty();
+	}
+
+	@Test
+	void testFindFromSubtree() {
+		Node other = new Node(TemplateId.IA_SECTION, root);
+		Node third = new Node(TemplateId.ACI_AGGREGATE_COUNT, other);
+		other.addChildNode(third);
+		root.addChildNode(other);
+		DescendantIndex index = DescendantIndex.build(root);
+
+		assertThat(index.find(section, TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(first, second).inOrder();
+		assertThat(index.find(other, TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(third);
+		assertThat(index.find(second, TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(second);
+		assertThat(index.find(first, TemplateId.ACI_SECTION)).isEmpty();
+	}
+
+	@Test
+	void testDoesNotAnswerForOtherTrees() {
+		DescendantIndex index = DescendantIndex.build(section);
+
+		assertThat(index.find(root, TemplateId.ACI_AGGREGATE_COUNT)).isNull();
+		assertThat(index.find(new Node(), TemplateId.ACI_AGGREGATE_COUNT)).isNull();
+	}
+
+	@Test
+	void testAddedChildInvalidates() {
+		DescendantIndex index = DescendantIndex.build(root);
+
+		section.addChildNode(new Node(TemplateId.ACI_AGGREGATE_COUNT));
+
+		assertThat(index.find(root, TemplateId.ACI_AGGREGATE_COUNT)).isNull();
+		assertThat(root.findNode(TemplateId.ACI_AGGREGATE_COUNT)).hasSize(3);
+	}
+
+	@Test
+	void testRemovedChildInvalidates() {
+		DescendantIndex index = DescendantIndex.build(root);
+
+		section.removeChildNode(first);
+
+		assertThat(index.find(root, TemplateId.ACI_AGGREGATE_COUNT)).isNull();
+		assertThat(root.findFirstNode(TemplateId.ACI_AGGREGATE_COUNT)).isSameAs(second);
+	}
+
+	@Test
+	void testTypeChangeInvalidates() {
+		DescendantIndex index = DescendantIndex.build(root);
+
+		second.setType(TemplateId.PLACEHOLDER);
+
+		assertThat(index.find(root, TemplateId.ACI_AGGREGATE_COUNT)).isNull();
+		assertThat(root.findNode(TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(first);
+	}
+
+	@Test
+	void testValuesDoNotInvalidate() {
+		DescendantIndex index = DescendantIndex.build(root);
+
+		first.putValue("aggregateCount", "1");
+		first.setValidated(true);
+
+		assertThat(index.find(root, TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(first, second).inOrder();
+	}
+
+	@Test
+	void testNodeSearchesReadFromIndex() {
+		root.indexDescendants();
+
+		assertThat(root.findNode(TemplateId.ACI_AGGREGATE_COUNT)).containsExactly(first, second).inOrder();
+		assertThat(root.findFirstNode(TemplateId.ACI_AGGREGATE_COUNT)).isSameAs(first);
+		assertThat(section.findFirstNode(TemplateId.ACI_AGGREGATE_COUNT)).isSameAs(first);
+	}
+}
@@ -0,0 +1,83 @@
+package gov.cms.qpp.conversion.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class NodeDataTest {
+
+	@Test
+	void testParseInteger() {
+		assertThat(NodeData.parse("42")).isEqualTo(42);
+		assertThat(NodeData.parse("-42")).isEqualTo(-42);
+		assertThat(NodeData.parse("+42")).isEqualTo(42);
+	}
+
+	@Test
+	void testParseDecimal() {
+		assertThat(NodeData.parse("0.5")).isEqualTo(0.5f);
+		assertThat(NodeData.parse(".5")).isEqualTo(0.5f);
+	}
+
+	@Test
+	void testParseLeavesOtherFormsAlone() {
+		assertThat(NodeData.parse(null)).isNull();
+		assertThat(NodeData.parse("")).isNull();
+		assertThat(NodeData.parse(" 42")).isNull();
+		assertThat(NodeData.parse("1e5")).isNull();
+		assertThat(NodeData.parse("1.2.3")).isNull();
+		assertThat(NodeData.parse("-")).isNull();
+		assertThat(NodeData.parse("12345678901")).isNull();
+	}
+
+	@Test
+	void testGrowsPastInitialCapacity() {
+		NodeData data = new NodeData();
+		for (int index = 0; index < 10; index++) {
+			data.put("key" + index, Integer.toString(index));
+		}
+
+		for (int index = 0; index < 10; index++) {
+			assertThat(data.get("key" + index)).isEqualTo(Integer.toString(index));
+			assertThat(data.getNumber("key" + index)).isEqualTo(index);
+		}
+	}
+
+	@Test
+	void testNumbersAfterNonNumericValues() {
+		NodeData data = new NodeData();
+		data.put("text", "value");
+		data.put("count", "7");
+
+		assertThat(data.getNumber("text")).isNull();
+		assertThat(data.getNumber("count")).isEqualTo(7);
+	}
+
+	@Test
+	void testUnknownKey() {
+		NodeData data = new NodeData();
+
+		assertThat(data.get("neverPutAnywhere")).isNull();
+		assertThat(data.contains("neverPutAnywhere")).isFalse();
+		assertThat(data.get(null)).isNull();
+	}
+
+	@Test
+	void testDuplicatesTakePartInEquality() {
+		NodeData one = new NodeData();
+		one.put("code", "a");
+		NodeData two = new NodeData();
+		two.put("code", "a");
+		two.addDuplicate("code", "b");
+
+		assertThat(one).isNotEqualTo(two);
+	}
+
+	@Test
+	void testToString() {
+		NodeData data = new NodeData();
+		data.put("DEF", "GHI");
+
+		assertThat(data.toString()).isEqualTo("{DEF=GHI}");
+	}
+}
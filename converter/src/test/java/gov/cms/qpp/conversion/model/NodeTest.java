@@ -2,7 +2,9 @@ package gov.cms.qpp.conversion.model;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -209,12 +211,297 @@ class NodeTest {
 		Node child2 = new Node(TemplateId.ACI_SECTION);
 		child2.setParent(parent);
 		parent.setChildNodes(child1, child2);
+		NodeData data = new NodeData();
+		data.put("DEF", "GHI");
 
 		EqualsVerifier.forClass(Node.class)
+			.withPrefabValues(NodeData.class, new NodeData(), data)
+			.withPrefabValues(DescendantIndex.class,
+					DescendantIndex.build(new Node()), DescendantIndex.build(new Node(TemplateId.PLACEHOLDER)))
 			.withPrefabValues(List.class, Lists.newArrayList(new Node()), Lists.newArrayList(new Node(TemplateId.CLINICAL_DOCUMENT), new Node(TemplateId.ACI_NUMERATOR)))
 			.withPrefabValues(Node.class, new Node(TemplateId.ACI_DENOMINATOR), parent)
+			.withPrefabValues(SourceLocation.class,
+					new SourceLocation(null, "ClinicalDocument", "", 0), new SourceLocation(null, "component", "", 0))
 			.withIgnoredFields("parent")
 			.suppress(Warning.NONFINAL_FIELDS)
 			.verify();
 	}
+
+	@Test
+	void testEqualLocationsAreEqual() {
+		Node node = new Node();
+		node.setLocation(new SourceLocation(new SourceLocation(null, "root", "", 0), "child", "", 2));
+		Node other = new Node();
+		other.setLocation(new SourceLocation(new SourceLocation(null, "root", "", 0), "child", "", 2));
+		Node elsewhere = new Node();
+		elsewhere.setLocation(new SourceLocation(new SourceLocation(null, "root", "", 0), "child", "", 1));
+
+		assertThat(node).isEqualTo(other);
+		assertThat(node.hashCode()).isEqualTo(other.hashCode());
+		assertThat(node).isNotEqualTo(elsewhere);
+	}
+
+	@Test
+	void testIntegerValue() {
+		Node node = new Node();
+		node.putValue("aggregateCount", "600");
+
+		assertThat(node.getIntegerValue("aggregateCount")).isEqualTo(600);
+		assertThat(node.getFloatValue("aggregateCount")).isEqualTo(600f);
+	}
+
+	@Test
+	void testFloatValue() {
+		Node node = new Node();
+		node.putValue("performanceRate", "0.875");
+
+		assertThat(node.getIntegerValue("performanceRate")).isNull();
+		assertThat(node.getFloatValue("performanceRate")).isEqualTo(0.875f);
+	}
+
+	@Test
+	void testNonNumericValue() {
+		Node node = new Node();
+		node.putValue("aggregateCount", "six hundred");
+
+		assertThat(node.getIntegerValue("aggregateCount")).isNull();
+		assertThat(node.getFloatValue("aggregateCount")).isNull();
+	}
+
+	@Test
+	void testReplacedValueIsParsedAgain() {
+		Node node = new Node();
+		node.putValue("aggregateCount", "600");
+		node.putValue("aggregateCount", "nope");
+
+		assertThat(node.getValue("aggregateCount")).isEqualTo("nope");
+		assertThat(node.getIntegerValue("aggregateCount")).isNull();
+	}
+
+	@Test
+	void testDuplicateValues() {
+		Node node = new Node();
+		node.putValue("code", "one", false);
+		node.putValue("code", "two", false);
+		node.putValue("code", "three", false);
+
+		assertThat(node.getValue("code")).isEqualTo("one");
+		assertThat(node.getDuplicateValues("code")).containsExactly("two", "three").inOrder();
+		assertThat(node.getDuplicateValues("other")).isNull();
+	}
+
+	@Test
+	void testRemoveValue() {
+		Node node = new Node();
+		node.putValue("first", "1");
+		node.putValue("second", "2");
+		node.putValue("third", "3");
+		node.removeValue("second");
+
+		assertThat(node.hasValue("second")).isFalse();
+		assertThat(node.getKeys()).containsExactly("first", "third");
+		assertThat(node.getIntegerValue("third")).isEqualTo(3);
+	}
+
+	@Test
+	void testNullValueIsKept() {
+		Node node = new Node();
+		node.putValue("empty", null);
+
+		assertThat(node.hasValue("empty")).isTrue();
+		assertThat(node.getValue("empty")).isNull();
+	}
+
+	@Test
+	void testEqualsIgnoresValueOrder() {
+		Node one = new Node();
+		one.putValue("first", "1");
+		one.putValue("second", "2");
+		Node two = new Node();
+		two.putValue("second", "2");
+		two.putValue("first", "1");
+
+		assertThat(one).isEqualTo(two);
+		assertThat(one.hashCode()).isEqualTo(two.hashCode());
+	}
+
+	@Test
+	void testTypedChildLookup() {
+		Node parent = new Node();
+		Node first = new Node(TemplateId.ACI_NUMERATOR);
+		Node second = new Node(TemplateId.ACI_DENOMINATOR);
+		Node third = new Node(TemplateId.ACI_NUMERATOR);
+		parent.addChildNodes(first, second, third);
+
+		assertThat(parent.getChildNodes(TemplateId.ACI_NUMERATOR).toArray()).asList()
+				.containsExactly(first, third).inOrder();
+		assertThat(parent.countChildNodes(TemplateId.ACI_NUMERATOR, TemplateId.ACI_DENOMINATOR)).isEqualTo(3);
+		assertThat(parent.findChildNode(TemplateId.ACI_DENOMINATOR)).isSameAs(second);
+		assertThat(parent.findChildNode(TemplateId.ACI_SECTION)).isNull();
+	}
+
+	@Test
+	void testTypedChildLookupFollowsAppends() {
+		Node parent = new Node();
+		parent.addChildNode(new Node(TemplateId.ACI_NUMERATOR));
+		assertThat(parent.countChildNodes(TemplateId.ACI_NUMERATOR)).isEqualTo(1);
+
+		parent.addChildNode(new Node(TemplateId.ACI_NUMERATOR));
+		parent.getChildNodes().add(new Node(TemplateId.ACI_NUMERATOR));
+
+		assertThat(parent.countChildNodes(TemplateId.ACI_NUMERATOR)).isEqualTo(3);
+	}
+
+	@Test
+	void testTypedChildLookupFollowsRemovals() {
+		Node parent = new Node();
+		Node first = new Node(TemplateId.ACI_NUMERATOR);
+		Node second = new Node(TemplateId.ACI_DENOMINATOR);
+		parent.addChildNodes(first, second);
+		assertThat(parent.findChildNode(TemplateId.ACI_NUMERATOR)).isSameAs(first);
+
+		parent.removeChildNode(first);
+		assertThat(parent.findChildNode(TemplateId.ACI_NUMERATOR)).isNull();
+
+		parent.getChildNodes().clear();
+		assertThat(parent.findChildNode(TemplateId.ACI_DENOMINATOR)).isNull();
+	}
+
+	@Test
+	void testTypedChildLookupFollowsInsertions() {
+		Node parent = new Node();
+		Node last = new Node(TemplateId.ACI_NUMERATOR);
+		Node first = new Node(TemplateId.ACI_NUMERATOR);
+		parent.addChildNode(last);
+		assertThat(parent.findChildNode(TemplateId.ACI_NUMERATOR)).isSameAs(last);
+
+		parent.getChildNodes().add(0, first);
+
+		assertThat(parent.findChildNode(TemplateId.ACI_NUMERATOR)).isSameAs(first);
+	}
+
+	@Test
+	void testTypedChildLookupFollowsSetChildNodes() {
+		Node parent = new Node();
+		parent.addChildNode(new Node(TemplateId.ACI_NUMERATOR));
+		assertThat(parent.countChildNodes(TemplateId.ACI_NUMERATOR)).isEqualTo(1);
+
+		Node replacement = new Node(TemplateId.ACI_DENOMINATOR);
+		parent.setChildNodes(replacement);
+
+		assertThat(parent.countChildNodes(TemplateId.ACI_NUMERATOR)).isEqualTo(0);
+		assertThat(parent.findChildNode(TemplateId.ACI_DENOMINATOR)).isSameAs(replacement);
+	}
+
+	@Test
+	void testTypedChildLookupFollowsChildTypeChange() {
+		Node parent = new Node();
+		Node child = new Node(TemplateId.ACI_NUMERATOR, parent);
+		parent.addChildNode(child);
+		assertThat(parent.findChildNode(TemplateId.ACI_NUMERATOR)).isSameAs(child);
+
+		child.setType(TemplateId.ACI_DENOMINATOR);
+
+		assertThat(parent.findChildNode(TemplateId.ACI_NUMERATOR)).isNull();
+		assertThat(parent.findChildNode(TemplateId.ACI_DENOMINATOR)).isSameAs(child);
+	}
+
+	@Test
+	void testVisitIsDepthFirst() {
+		Node root = new Node(TemplateId.CLINICAL_DOCUMENT);
+		Node section = new Node(TemplateId.ACI_SECTION);
+		Node measure = new Node(TemplateId.ACI_NUMERATOR_DENOMINATOR);
+		Node sibling = new Node(TemplateId.IA_SECTION);
+		section.addChildNode(measure);
+		root.addChildNodes(section, sibling);
+
+		List<Node> visited = new ArrayList<>();
+		boolean completed = root.visit(visited::add);
+
+		assertThat(completed).isTrue();
+		assertThat(visited).containsExactly(root, section, measure, sibling).inOrder();
+	}
+
+	@Test
+	void testVisitStopsEarly() {
+		Node root = new Node(TemplateId.CLINICAL_DOCUMENT);
+		Node section = new Node(TemplateId.ACI_SECTION);
+		Node sibling = new Node(TemplateId.IA_SECTION);
+		root.addChildNodes(section, sibling);
+
+		List<Node> visited = new ArrayList<>();
+		boolean completed = root.visit(node -> visited.add(node) && node != section);
+
+		assertThat(completed).isFalse();
+		assertThat(visited).containsExactly(root, section).inOrder();
+	}
+
+	@Test
+	void testFindFirstNodeIsDepthFirst() {
+		Node root = new Node(TemplateId.CLINICAL_DOCUMENT);
+		Node section = new Node(TemplateId.ACI_SECTION);
+		Node nested = new Node(TemplateId.PLACEHOLDER);
+		Node sibling = new Node(TemplateId.PLACEHOLDER);
+		section.addChildNode(nested);
+		root.addChildNodes(section, sibling);
+
+		assertThat(root.findFirstNode(TemplateId.PLACEHOLDER)).isSameAs(nested);
+		assertThat(root.findFirstNode(TemplateId.IA_SECTION)).isNull();
+	}
+
+	@Test
+	void testFreezeRejectsChanges() {
+		Node parent = new Node(TemplateId.CLINICAL_DOCUMENT);
+		Node child = new Node(TemplateId.ACI_SECTION, parent);
+		parent.addChildNode(child);
+		parent.freeze();
+
+		assertThat(child.isFrozen()).isTrue();
+		assertThrows(UnsupportedOperationException.class, () -> parent.putValue("key", "value"));
+		assertThrows(UnsupportedOperationException.class, () -> child.removeValue("key"));
+		assertThrows(UnsupportedOperationException.class, () -> parent.addChildNode(new Node()));
+		assertThrows(UnsupportedOperationException.class, () -> parent.removeChildNode(child));
+		assertThrows(UnsupportedOperationException.class, () -> parent.getChildNodes().clear());
+		assertThrows(UnsupportedOperationException.class, () -> child.setType(TemplateId.IA_SECTION));
+		assertThrows(UnsupportedOperationException.class, () -> child.setPath("/path"));
+	}
+
+	@Test
+	void testFrozenNodeCanBeValidated() {
+		Node node = new Node().freeze();
+		node.setValidated(true);
+
+		assertThat(node.isValidated()).isTrue();
+	}
+
+	@Test
+	void testFrozenDuplicatesAreReadOnly() {
+		Node node = new Node();
+		node.putValue("code", "one", false);
+		node.putValue("code", "two", false);
+		node.freeze();
+
+		assertThrows(UnsupportedOperationException.class, () -> node.getDuplicateValues("code").add("three"));
+	}
+
+	@Test
+	void testCopyIsModifiable() {
+		Node parent = new Node(TemplateId.CLINICAL_DOCUMENT);
+		parent.putValue("code", "one", false);
+		parent.putValue("code", "two", false);
+		parent.setPath("/root");
+		Node child = new Node(TemplateId.ACI_SECTION, parent);
+		parent.addChildNode(child);
+		parent.freeze();
+
+		Node copy = parent.copy();
+		copy.getChildNodes().get(0).putValue("key", "value");
+
+		assertThat(copy.isFrozen()).isFalse();
+		assertThat(copy.getValue("code")).isEqualTo("one");
+		assertThat(copy.getDuplicateValues("code")).containsExactly("two");
+		assertThat(copy.getPath()).isEqualTo("/root");
+		assertThat(copy.getChildNodes().get(0).getParent()).isSameAs(copy);
+		assertThat(child.hasValue("key")).isFalse();
+	}
 }
@@ -3,9 +3,22 @@ package gov.cms.qpp.conversion.model;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.jdom2.Element;
 import org.junit.jupiter.api.AfterEach;
@@ -16,7 +29,9 @@ import org.junit.jupiter.api.Test;
 import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.decode.AggregateCountDecoder;
 import gov.cms.qpp.conversion.decode.InputDecoder;
+import gov.cms.qpp.conversion.decode.QedDecoder;
 import gov.cms.qpp.conversion.encode.AggregateCountEncoder;
+import gov.cms.qpp.conversion.util.HandlerIndexProcessor;
 
 class RegistryTest {
 
@@ -203,6 +218,171 @@ class RegistryTest {
 	void testSize() {
 		assertThat(registry.size()).isGreaterThan(0);
 	}
+
+	@Test
+	void testRegistryGetCreatesNewInstances() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isNotSameAs(registry.get(TemplateId.PLACEHOLDER));
+	}
+
+	@Test
+	void testRegistryGetFollowsProgramChanges() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.CPC), AnotherPlaceholder.class);
+
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isInstanceOf(Placeholder.class);
+		context.setProgram(Program.CPC);
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isInstanceOf(AnotherPlaceholder.class);
+	}
+
+	@Test
+	void testRegistryRegisterReplacesResolvedHandler() {
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), AnotherPlaceholder.class);
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isInstanceOf(AnotherPlaceholder.class);
+
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isInstanceOf(Placeholder.class);
+	}
+
+	@Test
+	void testRegistryInclusiveGetClasses() {
+		context.setProgram(Program.CPC);
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.CPC), AnotherPlaceholder.class);
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+
+		assertThat(registry.inclusiveGetClasses(TemplateId.PLACEHOLDER))
+				.containsExactly(Placeholder.class, AnotherPlaceholder.class).inOrder();
+	}
+
+	@Test
+	void testRegistryIsCustomizedOnceRegistered() {
+		assertThat(registry.isCustomized()).isFalse();
+
+		registry.register(new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+		assertThat(registry.isCustomized()).isTrue();
+		assertThat(new Context().getRegistry(Decoder.class).isCustomized()).isFalse();
+	}
+
+	@Test
+	void testRegistryGetWithoutHandler() {
+		assertThat(registry.get(TemplateId.PLACEHOLDER)).isNull();
+		assertThat(registry.get(null)).isNull();
+	}
+
+	@Test
+	void testReadIndexWrittenAtCompileTime() {
+		Map<ComponentKey, Class<?>> handlers = registry.readIndex(Decoder.class, getClass().getClassLoader());
+
+		assertThat(handlers).containsEntry(
+				new ComponentKey(TemplateId.ACI_AGGREGATE_COUNT, Program.ALL), AggregateCountDecoder.class);
+		assertThat(handlers).doesNotContainKey(new ComponentKey(TemplateId.ACI_AGGREGATE_COUNT, Program.CPC));
+	}
+
+	@Test
+	void testReadIndexSkipsStaleEntries() throws IOException {
+		Path index = Files.createTempFile("handlers", ".idx");
+		try {
+			Files.write(index, Arrays.asList(
+					String.join(HandlerIndexProcessor.SEPARATOR, Decoder.class.getName(),
+							"PLACEHOLDER", "ALL", Placeholder.class.getName()),
+					String.join(HandlerIndexProcessor.SEPARATOR, Decoder.class.getName(),
+							"NOT_A_TEMPLATE", "ALL", Placeholder.class.getName()),
+					String.join(HandlerIndexProcessor.SEPARATOR, Decoder.class.getName(),
+							"DEFAULT", "ALL", "gov.cms.qpp.conversion.decode.RemovedDecoder"),
+					String.join(HandlerIndexProcessor.SEPARATOR, Encoder.class.getName(),
+							"DEFAULT", "ALL", Placeholder.class.getName()),
+					"not an entry"), StandardCharsets.UTF_8);
+
+			Map<ComponentKey, Class<?>> handlers = registry.readIndex(Decoder.class, new IndexClassLoader(index));
+
+			assertThat(handlers).containsExactly(
+					new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class);
+		} finally {
+			Files.delete(index);
+		}
+	}
+
+	@Test
+	void testReadIndexWithoutIndex() {
+		Map<ComponentKey, Class<?>> handlers = registry.readIndex(Decoder.class, new ClassLoader(null) {});
+
+		assertThat(handlers).isEmpty();
+	}
+
+	@Test
+	void testLookupMergesIndexedAndUnindexedRoots() throws IOException {
+		Path indexed = Files.createTempDirectory("indexed");
+		Path unindexed = Files.createTempDirectory("unindexed");
+		try {
+			Path index = indexed.resolve(HandlerIndexProcessor.INDEX_RESOURCE);
+			Files.createDirectories(index.getParent());
+			Files.write(index, Collections.singletonList(
+					String.join(HandlerIndexProcessor.SEPARATOR, Decoder.class.getName(),
+							"PLACEHOLDER", "ALL", Placeholder.class.getName())), StandardCharsets.UTF_8);
+			copyClass(AggregateCountDecoder.class, indexed);
+			copyClass(QedDecoder.class, unindexed);
+
+			Map<ComponentKey, Class<?>> handlers;
+			try (URLClassLoader loader = new RootsClassLoader(indexed.toUri().toURL(), unindexed.toUri().toURL())) {
+				handlers = registry.lookupAnnotatedClasses(Decoder.class, loader);
+			}
+
+			assertThat(handlers).containsExactly(
+					new ComponentKey(TemplateId.PLACEHOLDER, Program.ALL), Placeholder.class,
+					new ComponentKey(TemplateId.QED, Program.ALL), QedDecoder.class);
+		} finally {
+			delete(indexed);
+			delete(unindexed);
+		}
+	}
+
+	private void copyClass(Class<?> type, Path root) throws IOException {
+		String resource = type.getName().replace('.', '/') + ".class";
+		Path target = root.resolve(resource);
+		Files.createDirectories(target.getParent());
+		try (InputStream classFile = type.getClassLoader().getResourceAsStream(resource)) {
+			Files.copy(classFile, target);
+		}
+	}
+
+	private void delete(Path root) throws IOException {
+		try (Stream<Path> walk = Files.walk(root)) {
+			walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+
+	/**
+	 * Loads classes from the test class path, but only finds resources in the given roots
+	 */
+	private static class RootsClassLoader extends URLClassLoader {
+
+		RootsClassLoader(URL... roots) {
+			super(roots, RegistryTest.class.getClassLoader());
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			return findResources(name);
+		}
+	}
+
+	private class IndexClassLoader extends ClassLoader {
+
+		private final Path index;
+
+		IndexClassLoader(Path index) {
+			super(RegistryTest.class.getClassLoader());
+			this.index = index;
+		}
+
+		@Override
+		public Enumeration<URL> getResources(String name) throws IOException {
+			return HandlerIndexProcessor.INDEX_RESOURCE.equals(name)
+					? Collections.enumeration(Collections.singletonList(index.toUri().toURL()))
+					: super.getResources(name);
+		}
+	}
 }
 
 @SuppressWarnings("unused") // this is here for a the annotation tests
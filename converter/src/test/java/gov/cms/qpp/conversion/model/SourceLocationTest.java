@@ -0,0 +1,99 @@
+package gov.cms.qpp.conversion.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class SourceLocationTest {
+
+	private static final String NS = "urn:hl7-org:v3";
+
+	@Test
+	void testRootLocation() {
+		SourceLocation root = new SourceLocation(null, "ClinicalDocument", NS, 0);
+
+		assertThat(root.toXPath())
+				.isEqualTo("/*[local-name() = 'ClinicalDocument' and namespace-uri() = 'urn:hl7-org:v3']");
+	}
+
+	@Test
+	void testPositionalLocation() {
+		SourceLocation root = new SourceLocation(null, "ClinicalDocument", NS, 0);
+		SourceLocation component = new SourceLocation(root, "component", NS, 2);
+
+		assertThat(component.toXPath())
+				.isEqualTo("/*[local-name() = 'ClinicalDocument' and namespace-uri() = 'urn:hl7-org:v3']"
+						+ "/*[local-name() = 'component' and namespace-uri() = 'urn:hl7-org:v3'][2]");
+	}
+
+	@Test
+	void testNoNamespaceLocation() {
+		SourceLocation root = new SourceLocation(null, "root", "", 0);
+		SourceLocation observation = new SourceLocation(root, "observation", "", 1);
+
+		assertThat(observation.toXPath()).isEqualTo("/root/observation[1]");
+	}
+
+	@Test
+	void testParent() {
+		SourceLocation root = new SourceLocation(null, "root", "", 0);
+
+		assertThat(new SourceLocation(root, "child", "", 0).getParent()).isSameAs(root);
+	}
+
+	@Test
+	void testEquality() {
+		SourceLocation root = new SourceLocation(null, "root", NS, 0);
+		SourceLocation child = new SourceLocation(root, "child", NS, 2);
+		SourceLocation same = new SourceLocation(new SourceLocation(null, "root", NS, 0), "child", NS, 2);
+
+		assertThat(child).isEqualTo(same);
+		assertThat(child.hashCode()).isEqualTo(same.hashCode());
+		assertThat(child).isNotEqualTo(new SourceLocation(root, "child", NS, 1));
+		assertThat(child).isNotEqualTo(new SourceLocation(root, "child", "", 2));
+		assertThat(child).isNotEqualTo(new SourceLocation(new SourceLocation(null, "other", NS, 0), "child", NS, 2));
+	}
+
+	@Test
+	void testUnsettledLocation() {
+		SourceLocation root = new SourceLocation(null, "root", "", 0);
+		SourceLocation component = SourceLocation.unsettled(root, "component", "");
+		SourceLocation section = new SourceLocation(component, "section", "", 0);
+
+		assertThat(section.toXPath()).isEqualTo("/root/component[1]/section");
+		component.settle(false);
+
+		assertThat(section.toXPath()).isEqualTo("/root/component/section");
+		assertThat(section).isEqualTo(new SourceLocation(new SourceLocation(root, "component", "", 0), "section", "", 0));
+		assertThat(section.hashCode())
+				.isEqualTo(new SourceLocation(new SourceLocation(root, "component", "", 0), "section", "", 0).hashCode());
+	}
+
+	@Test
+	void testSettledLocationCannotSettleAgain() {
+		SourceLocation component = SourceLocation.unsettled(new SourceLocation(null, "root", "", 0), "component", "");
+		component.settle(true);
+
+		assertThat(component.toXPath()).isEqualTo("/root/component[1]");
+		Assertions.assertThrows(IllegalStateException.class, () -> component.settle(false));
+	}
+
+	@Test
+	void testNodeRendersLocation() {
+		Node node = new Node();
+		node.setLocation(new SourceLocation(null, "root", "", 0));
+
+		assertThat(node.getPath()).isEqualTo("/root");
+	}
+
+	@Test
+	void testNodePathReplacesLocation() {
+		Node node = new Node();
+		node.setLocation(new SourceLocation(null, "root", "", 0));
+		node.setPath("meep");
+
+		assertThat(node.getLocation()).isNull();
+		assertThat(node.getPath()).isEqualTo("meep");
+	}
+}
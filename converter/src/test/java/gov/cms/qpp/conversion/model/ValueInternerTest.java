@@ -0,0 +1,95 @@
+package gov.cms.qpp.conversion.model;
+
+import gov.cms.qpp.conversion.model.validation.MeasureConfig;
+import gov.cms.qpp.conversion.model.validation.MeasureConfigs;
+import gov.cms.qpp.conversion.model.validation.SupplementalData;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+class ValueInternerTest {
+
+	@Test
+	void testTemplateIdRootIsCanonical() {
+		String root = TemplateId.CLINICAL_DOCUMENT.getRoot();
+
+		assertThat(new ValueInterner().internVocabulary(new String(root))).isSameAs(root);
+	}
+
+	@Test
+	void testSupplementalCodeIsCanonical() {
+		String code = SupplementalData.ASIAN.getCode();
+
+		assertThat(new ValueInterner().internVocabulary(new String(code))).isSameAs(code);
+	}
+
+	@Test
+	void testMeasureUuidIsCanonical() {
+		MeasureConfig config = MeasureConfigs.getConfigurationMap().values().stream()
+				.filter(measure -> measure.getElectronicMeasureVerUuid() != null)
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+		String uuid = config.getElectronicMeasureVerUuid();
+
+		assertThat(new ValueInterner().internVocabulary(new String(uuid))).isSameAs(uuid);
+	}
+
+	@Test
+	void testRepeatedValueIsShared() {
+		ValueInterner interner = new ValueInterner();
+		String first = interner.intern(new String("repeated-value-for-interning"));
+
+		assertThat(interner.intern(new String("repeated-value-for-interning"))).isSameAs(first);
+	}
+
+	@Test
+	void testObservedValuesAreNotSharedAcrossTables() {
+		String first = new ValueInterner().intern(new String("repeated-value-for-interning"));
+
+		assertThat(new ValueInterner().intern(new String("repeated-value-for-interning"))).isNotSameAs(first);
+		assertThat(new ValueInterner().internVocabulary(new String("repeated-value-for-interning"))).isNotSameAs(first);
+	}
+
+	@Test
+	void testVocabularyIsSharedAcrossTables() {
+		String root = TemplateId.CLINICAL_DOCUMENT.getRoot();
+
+		assertThat(new ValueInterner().internVocabulary(new String(root))).isSameAs(root);
+	}
+
+	@Test
+	void testInternLeavesVocabularyAlone() {
+		String root = TemplateId.CLINICAL_DOCUMENT.getRoot();
+
+		assertThat(new ValueInterner().intern(new String(root))).isNotSameAs(root);
+	}
+
+	@Test
+	void testLongValueIsNotInterned() {
+		StringBuilder builder = new StringBuilder();
+		while (builder.length() <= ValueInterner.MAX_LENGTH) {
+			builder.append("narrative ");
+		}
+		String value = builder.toString();
+
+		ValueInterner interner = new ValueInterner();
+
+		assertThat(interner.intern(new String(value))).isNotSameAs(interner.intern(new String(value)));
+	}
+
+	@Test
+	void testNullIsNotInterned() {
+		assertThat(new ValueInterner().internVocabulary(null)).isNull();
+		assertThat(new ValueInterner().intern(null)).isNull();
+	}
+
+	@Test
+	void testSavingsAreReported() {
+		ValueInterner interner = new ValueInterner();
+
+		interner.internVocabulary(new String(TemplateId.CLINICAL_DOCUMENT.getRoot()));
+
+		assertThat(interner.getSavedBytes()).isGreaterThan(0L);
+		assertThat(interner.getInternedCount()).isEqualTo(1L);
+	}
+}
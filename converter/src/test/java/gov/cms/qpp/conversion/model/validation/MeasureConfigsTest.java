@@ -6,6 +6,7 @@ import static com.google.common.truth.Truth.assertWithMessage;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -15,6 +16,8 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 
 class MeasureConfigsTest {
 
+	private static final String MEASURE_UUID = "40280381-51f0-825b-0152-22a112d2172a";
+
 	@AfterAll
 	static void resetMeasureConfiguration() {
 		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
@@ -76,4 +79,78 @@ class MeasureConfigsTest {
 		assertWithMessage("Expect the notRequiredMeasures to be a empty list")
 				.that(notRequiredMeasures).isEmpty();
 	}
-}
\ No newline at end of file
+
+	@Test
+	void getMeasureConfigIgnoresCase() {
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+		MeasureConfig config = MeasureConfigs.getMeasureConfig(MEASURE_UUID);
+
+		assertThat(config.getElectronicMeasureId()).isEqualTo("CMS128v5");
+		assertThat(MeasureConfigs.getMeasureConfig(MEASURE_UUID.toUpperCase())).isSameAs(config);
+		assertThat(MeasureConfigs.getConfigurationMap().get(MEASURE_UUID)).isSameAs(config);
+	}
+
+	@Test
+	void getMeasureConfigMissing() {
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+
+		assertThat(MeasureConfigs.getMeasureConfig("not a measure")).isNull();
+		assertThat(MeasureConfigs.getMeasureConfig(null)).isNull();
+		assertThat(MeasureConfigs.getMeasureConfigBySubPopulationUuid(null)).isNull();
+	}
+
+	@Test
+	void getMeasureConfigBySubPopulationUuidIgnoresCase() {
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+		MeasureConfig config = MeasureConfigs.getMeasureConfig(MEASURE_UUID);
+
+		assertThat(MeasureConfigs.getMeasureConfigBySubPopulationUuid("02A8409A-7B63-4FE9-B865-87C650DD7459"))
+				.isSameAs(config);
+		assertThat(MeasureConfigs.getMeasureConfigBySubPopulationUuid("3a4fa8bb-d8bc-4f66-9367-a71df03a868d"))
+				.isSameAs(config);
+		assertThat(MeasureConfigs.getMeasureConfigBySubPopulationUuid("220EBFDC-C2DF-431B-B14A-8982026B10F1")).isNull();
+	}
+
+	@Test
+	void getMeasureConfigsByCategory() {
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+		List<MeasureConfig> quality = MeasureConfigs.getMeasureConfigsByCategory("quality");
+
+		assertThat(quality).contains(MeasureConfigs.getMeasureConfig(MEASURE_UUID));
+		assertThat(quality.stream().allMatch(config -> "quality".equals(config.getCategory()))).isTrue();
+		assertThat(MeasureConfigs.getMeasureConfigsByCategory("bogus")).isEmpty();
+	}
+
+	@Test
+	void requiredMeasuresForUnknownSection() {
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+
+		assertThat(MeasureConfigs.requiredMeasuresForSection("bogus")).isEmpty();
+	}
+
+	@Test
+	void indexesAreUnmodifiable() {
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+		List<MeasureConfig> configurations = MeasureConfigs.getMeasureConfigs();
+		Map<String, MeasureConfig> configurationMap = MeasureConfigs.getConfigurationMap();
+		Map<String, List<MeasureConfig>> cpcPlusGroups = MeasureConfigs.getCpcPlusGroups();
+
+		Assertions.assertThrows(UnsupportedOperationException.class, configurations::clear);
+		Assertions.assertThrows(UnsupportedOperationException.class, configurationMap::clear);
+		Assertions.assertThrows(UnsupportedOperationException.class, cpcPlusGroups::clear);
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> cpcPlusGroups.get("A").clear());
+		Assertions.assertThrows(UnsupportedOperationException.class,
+				() -> MeasureConfigs.requiredMeasuresForSection("aci").clear());
+	}
+
+	@Test
+	void reloadReplacesIndexes() {
+		MeasureConfigs.setMeasureDataFile("reduced-test-measures-data.json");
+		int reduced = MeasureConfigs.getMeasureConfigs().size();
+		MeasureConfigs.setMeasureDataFile(MeasureConfigs.DEFAULT_MEASURE_DATA_FILE_NAME);
+
+		assertThat(MeasureConfigs.getMeasureConfigs().size()).isGreaterThan(reduced);
+		assertThat(MeasureConfigs.getMeasureConfigs()).containsExactlyElementsIn(
+				MeasureConfigs.getConfigurationMap().values());
+	}
+}
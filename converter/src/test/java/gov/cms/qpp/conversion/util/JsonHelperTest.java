@@ -1,10 +1,12 @@
 package gov.cms.qpp.conversion.util;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.reflections.util.ClasspathHelper;
 
+import gov.cms.qpp.conversion.model.error.Detail;
 import gov.cms.qpp.conversion.model.validation.MeasureConfig;
 import gov.cms.qpp.test.helper.HelperContract;
 
@@ -73,6 +76,34 @@ class JsonHelperTest implements HelperContract {
 		}
 	}
 
+	@Test
+	void readJsonWithSharedReader() {
+		Map<?, ?> json = JsonHelper.readJson("{ \"DogCow\": [ 1, 2 ] }", Map.class);
+
+		assertThat(json).containsKey("DogCow");
+		assertThat(JsonHelper.getReader()).isSameAs(JsonHelper.getReader());
+	}
+
+	@Test
+	void sharedWriterIsCompact() throws Exception {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("DogCow", "Moof");
+
+		assertThat(JsonHelper.getWriter().writeValueAsString(json)).isEqualTo("{\"DogCow\":\"Moof\"}");
+		assertThat(JsonHelper.getWriter()).isSameAs(JsonHelper.getWriter());
+	}
+
+	@Test
+	void prettyNonNullWriterOmitsNulls() throws Exception {
+		Detail detail = new Detail();
+		detail.setMessage("Moof");
+
+		String json = JsonHelper.getPrettyNonNullWriter().writeValueAsString(detail);
+
+		assertThat(json).contains("\"message\" : \"Moof\"");
+		assertThat(json).doesNotContain("null");
+	}
+
 	@Override
 	public Class<?> getHelperClass() {
 		return JsonHelper.class;
@@ -120,7 +120,7 @@ class CpcQualityMeasureScopedValidatonTest {
 		Converter converter = new Converter(new PathSource(baseDir.resolve(path)));
 		converter.getContext().setScope(Sets.newHashSet(testSection));
 		converter.transform();
-		return converter.getReport().getDecoded().findFirstNode(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2);
+		return converter.getReport().getDecoded().copy().findFirstNode(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2);
 	}
 
 	private Set<Detail> validateNode(Node node) {
@@ -2,6 +2,8 @@ package gov.cms.qpp.conversion.validate;
 
 import static com.google.common.truth.Truth.assertWithMessage;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,11 +16,14 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import gov.cms.qpp.TestHelper;
 import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.decode.QppXmlDecoder;
 import gov.cms.qpp.conversion.model.ComponentKey;
 import gov.cms.qpp.conversion.model.Node;
 import gov.cms.qpp.conversion.model.Program;
 import gov.cms.qpp.conversion.model.TemplateId;
 import gov.cms.qpp.conversion.model.error.Detail;
+import gov.cms.qpp.conversion.model.error.ErrorCode;
+import gov.cms.qpp.conversion.xml.XmlUtils;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(QrdaValidator.class)
@@ -124,6 +129,83 @@ public class QrdaValidatorTest {
 				.that(details).doesNotContain(TEST_VALIDATION_ERROR_FOR_SINGLE_NODE);
 	}
 
+	@Test
+	public void testParallelValidationKeepsDocumentOrder() throws Exception {
+		for (String file : new String[] {"angerTheConverter.xml", "angerMeasureDataValidations.xml"}) {
+			Path path = Paths.get("src/test/resources/negative", file);
+
+			List<Detail> sequential = validateFile(path, false);
+			List<Detail> parallel = validateFile(path, true);
+
+			assertWithMessage("%s should have validation errors", file)
+					.that(sequential).isNotEmpty();
+			assertWithMessage("Parallel validation of %s should report the same errors in the same order", file)
+					.that(parallel).containsExactlyElementsIn(sequential).inOrder();
+		}
+	}
+
+	@Test
+	public void testValidationStopsAtMaximumDetails() throws Exception {
+		Path path = Paths.get("src/test/resources/negative/angerTheConverter.xml");
+		List<Detail> all = validateFile(path, false, 0);
+
+		for (boolean parallel : new boolean[] {false, true}) {
+			List<Detail> firstOnly = validateFile(path, parallel, 1);
+
+			assertWithMessage("Should keep the first error and report the truncation")
+					.that(firstOnly).hasSize(2);
+			assertWithMessage("Should keep the first error")
+					.that(firstOnly.get(0)).isEqualTo(all.get(0));
+			assertWithMessage("Should report the truncation")
+					.that(firstOnly.get(1).getErrorCode()).isEqualTo(ErrorCode.VALIDATION_DETAILS_TRUNCATED.getCode());
+		}
+	}
+
+	@Test
+	public void testValidationWithinMaximumDetailsIsNotTruncated() throws Exception {
+		Path path = Paths.get("src/test/resources/negative/angerTheConverter.xml");
+		List<Detail> all = validateFile(path, false, 0);
+
+		assertWithMessage("A budget as large as the errors found should not truncate them")
+				.that(validateFile(path, false, all.size())).containsExactlyElementsIn(all).inOrder();
+	}
+
+	@Test
+	public void testMaximumDetailsIsSharedAcrossValidations() throws Exception {
+		Path path = Paths.get("src/test/resources/negative/angerTheConverter.xml");
+		List<Detail> all = validateFile(path, false, 0);
+		Context context = new Context();
+		context.setMaxValidationDetails(all.size());
+		QrdaValidator validator = new QrdaValidator(context);
+
+		assertWithMessage("The first validation should use up the budget without truncating")
+				.that(validator.validate(decodeFile(context, path))).containsExactlyElementsIn(all).inOrder();
+
+		List<Detail> second = validator.validate(decodeFile(context, path));
+		assertWithMessage("The second validation should only report the truncation")
+				.that(second).hasSize(1);
+		assertWithMessage("The second validation should only report the truncation")
+				.that(second.get(0).getErrorCode()).isEqualTo(ErrorCode.VALIDATION_DETAILS_TRUNCATED.getCode());
+
+		assertWithMessage("Nothing should be validated once the budget is used up")
+				.that(validator.validate(decodeFile(context, path))).isEmpty();
+	}
+
+	private List<Detail> validateFile(Path path, boolean parallel) throws Exception {
+		return validateFile(path, parallel, 0);
+	}
+
+	private List<Detail> validateFile(Path path, boolean parallel, int maxDetails) throws Exception {
+		Context context = new Context();
+		context.setParallelValidation(parallel);
+		context.setMaxValidationDetails(maxDetails);
+		return new QrdaValidator(context).validate(decodeFile(context, path));
+	}
+
+	private Node decodeFile(Context context, Path path) throws Exception {
+		return new QppXmlDecoder(context).decode(XmlUtils.parseXmlStream(XmlUtils.fileToStream(path)));
+	}
+
 	private void assertNodeList(List<Node> nodeList, int expectedSize, TemplateId expectedTemplateId,
 			String keyToQuery, String expectedValue) {
 
@@ -0,0 +1,55 @@
+package gov.cms.qpp.conversion.validate;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import gov.cms.qpp.conversion.Context;
+import gov.cms.qpp.conversion.model.Program;
+import gov.cms.qpp.conversion.model.Registry;
+import gov.cms.qpp.conversion.model.TemplateId;
+import gov.cms.qpp.conversion.model.Validator;
+
+class ValidationPlanTest {
+
+	@Test
+	void testGeneralValidatorsComeFirst() {
+		Context context = new Context();
+		context.setProgram(Program.CPC);
+
+		ValidationPlan plan = new ValidationPlan(context.getRegistry(Validator.class), validator -> true);
+
+		assertThat(plan.getValidators(TemplateId.CLINICAL_DOCUMENT))
+				.containsExactly(ClinicalDocumentValidator.class, CpcClinicalDocumentValidator.class).inOrder();
+	}
+
+	@Test
+	void testOnlyProgramValidators() {
+		Context context = new Context();
+		context.setProgram(Program.MIPS);
+
+		ValidationPlan plan = new ValidationPlan(context.getRegistry(Validator.class), validator -> true);
+
+		assertThat(plan.getValidators(TemplateId.CLINICAL_DOCUMENT)).containsExactly(ClinicalDocumentValidator.class);
+		assertThat(plan.getValidators(TemplateId.MEASURE_REFERENCE_RESULTS_CMS_V2))
+				.containsExactly(MipsQualityMeasureIdValidator.class);
+	}
+
+	@Test
+	void testFilteredValidators() {
+		Registry<NodeValidator> registry = new Context().getRegistry(Validator.class);
+
+		ValidationPlan plan = new ValidationPlan(registry, validator -> validator != AciSectionValidator.class);
+
+		assertThat(plan.getValidators(TemplateId.ACI_SECTION)).isEmpty();
+		assertThat(plan.getValidators(TemplateId.IA_SECTION)).containsExactly(IaSectionValidator.class);
+	}
+
+	@Test
+	void testTemplatesWithoutValidators() {
+		ValidationPlan plan = new ValidationPlan(new Context().getRegistry(Validator.class), validator -> true);
+
+		assertThat(plan.getValidators(TemplateId.PLACEHOLDER)).isEmpty();
+		assertThat(plan.getValidators(null)).isEmpty();
+	}
+}
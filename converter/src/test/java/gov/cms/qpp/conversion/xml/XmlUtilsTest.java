@@ -65,6 +65,34 @@ class XmlUtilsTest {
 		Assertions.assertThrows(XmlException.class, () -> XmlUtils.stringToDom("invalid XML"));
 	}
 
+	@Test
+	void parseXmlStreamReusesParser() throws Exception {
+		XmlUtils.stringToDom(xmlFragment);
+		long created = XmlUtils.getParserCreationCount();
+		long reused = XmlUtils.getParserReuseCount();
+
+		XmlUtils.stringToDom(xmlFragment);
+
+		assertWithMessage("No parser should be created on a thread that already has one")
+				.that(XmlUtils.getParserCreationCount()).isEqualTo(created);
+		assertWithMessage("The thread's parser should be reused")
+				.that(XmlUtils.getParserReuseCount()).isGreaterThan(reused);
+	}
+
+	@Test
+	void parseXmlStreamReusableAfterFailure() throws Exception {
+		Assertions.assertThrows(XmlException.class, () -> XmlUtils.stringToDom("invalid XML"));
+
+		assertWithMessage("returned dom should not be null")
+				.that(XmlUtils.stringToDom(xmlFragment)).isNotNull();
+	}
+
+	@Test
+	void parseXmlStreamDisallowsDoctype() {
+		Assertions.assertThrows(XmlException.class,
+				() -> XmlUtils.stringToDom("<!DOCTYPE root [<!ENTITY meep \"mawp\">]><root>&meep;</root>"));
+	}
+
 	@Test
 	void privateConstructorTest() throws Exception {
 		// reflection concept to get constructor of a Singleton class.
@@ -41,8 +41,6 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class QrdaGenerator {
-	private static List<MeasureConfig> measureConfigs = MeasureConfigs.getMeasureConfigs();
-
 	private Mustache submission;
 	private Mustache subpopulation;
 	private Mustache performanceRate;
@@ -69,23 +67,18 @@ public class QrdaGenerator {
 	}
 
 	private List<MeasureConfig> filterQualityMeasures() throws IOException {
-		return measureConfigs.stream()
-				.filter(measureConfig -> measureConfig.getCategory().equals("quality") &&
-						measureConfig.getElectronicMeasureId() != null &&
+		return MeasureConfigs.getMeasureConfigsByCategory("quality").stream()
+				.filter(measureConfig -> measureConfig.getElectronicMeasureId() != null &&
 						!measureConfig.getElectronicMeasureId().isEmpty())
 				.collect(Collectors.toList());
 	}
 
 	private List<MeasureConfig> filterAciMeasures() {
-		return measureConfigs.stream()
-				.filter(measureConfig -> measureConfig.getCategory().equals("aci"))
-				.collect(Collectors.toList());
+		return MeasureConfigs.getMeasureConfigsByCategory("aci");
 	}
 
 	private List<MeasureConfig> filterIaMeasures() {
-		return measureConfigs.stream()
-				.filter(measureConfig -> measureConfig.getCategory().equals("ia"))
-				.collect(Collectors.toList());
+		return MeasureConfigs.getMeasureConfigsByCategory("ia");
 	}
 
 	private void generate() throws IOException, ParserConfigurationException,
@@ -9,10 +9,8 @@ import gov.cms.qpp.conversion.api.services.ValidationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -20,6 +18,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
@@ -46,12 +45,14 @@ public class QrdaControllerV1 {
 	/**
 	 * Endpoint to transform an uploaded file into a valid or error json response
 	 *
+	 * The valid json is written onto the response before the request completes, so no async dispatch is involved.
+	 *
 	 * @param file Uploaded file
-	 * @return Valid json or error json content
-	 * @throws IOException If errors occur during file upload or conversion
+	 * @param response Response the valid json is written onto
+	 * @throws IOException If errors occur during file upload, conversion or writing the response
 	 */
 	@RequestMapping(method = RequestMethod.POST, headers = {"Accept=" + Constants.V1_API_ACCEPT})
-	public ResponseEntity<String> uploadQrdaFile(@RequestParam MultipartFile file) throws IOException {
+	public void uploadQrdaFile(@RequestParam MultipartFile file, HttpServletResponse response) throws IOException {
 		String originalFilename = file.getOriginalFilename();
 		API_LOG.info("Conversion request received");
 
@@ -64,10 +65,10 @@ public class QrdaControllerV1 {
 
 		API_LOG.info("Conversion request succeeded");
 
-		HttpHeaders httpHeaders = new HttpHeaders();
-		httpHeaders.setContentType(MediaType.APPLICATION_JSON_UTF8);
-
-		return new ResponseEntity<>(conversionReport.getEncoded().toString(), httpHeaders, HttpStatus.CREATED);
+		response.setStatus(HttpStatus.CREATED.value());
+		response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+		conversionReport.getEncoded().writeTo(response.getOutputStream());
+		response.flushBuffer();
 	}
 
 	/**
@@ -13,6 +13,8 @@ public class Constants {
 	public static final String VALIDATION_URL_ENV_VARIABLE = "VALIDATION_URL";
 	public static final String USE_SYNC_EXECUTOR = "USE_SYNC_EXECUTOR";
 	public static final String NO_CPC_PLUS_API_ENV_VARIABLE = "NO_CPC_PLUS_API";
+	public static final String MAX_VALIDATION_ERRORS_ENV_VARIABLE = "MAX_VALIDATION_ERRORS";
+	public static final String BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE = "BLOCK_CONVERSION_THRESHOLD";
 	public static final String V1_API_ACCEPT = "application/vnd.qpp.cms.gov.v1+json";
 	public static final Integer CPC_DYNAMO_PARTITIONS = 32;
 	public static final String CPC_DYNAMO_PARTITION_START = "CPC_";
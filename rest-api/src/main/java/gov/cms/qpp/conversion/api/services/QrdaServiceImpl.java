@@ -1,14 +1,17 @@
 package gov.cms.qpp.conversion.api.services;
 
+import gov.cms.qpp.conversion.Context;
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.Source;
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.model.validation.MeasureConfigs;
+import gov.cms.qpp.conversion.util.EnvironmentHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the QRDA-III to QPP conversion service
@@ -40,12 +43,38 @@ public class QrdaServiceImpl implements QrdaService {
 	}
 
 	/**
-	 * Instantiate a {@link Converter} with a given {@link Source}
+	 * Instantiate a {@link Converter} with a given {@link Source}. Validation stops after the number of errors given
+	 * by the {@link Constants#MAX_VALIDATION_ERRORS_ENV_VARIABLE} variable, and sources larger than the number of
+	 * bytes given by the {@link Constants#BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE} variable are converted one measure
+	 * at a time, when they are set.
 	 *
 	 * @param source for qrda input
 	 * @return converter instance
 	 */
 	Converter initConverter(Source source) {
-		return new Converter(source);
+		Converter converter = new Converter(source);
+		Context context = converter.getContext();
+		configure(Constants.MAX_VALIDATION_ERRORS_ENV_VARIABLE,
+				maxErrors -> context.setMaxValidationDetails(Integer.parseInt(maxErrors)));
+		configure(Constants.BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE,
+				threshold -> context.setBlockConversionThreshold(Long.parseLong(threshold)));
+		return converter;
+	}
+
+	/**
+	 * Applies a numeric setting from the environment, when it is set
+	 *
+	 * @param variable name of the environment variable
+	 * @param setting applies the trimmed value, throwing {@link NumberFormatException} if it is not a number
+	 */
+	private void configure(String variable, Consumer<String> setting) {
+		String value = EnvironmentHelper.get(variable);
+		if (value != null) {
+			try {
+				setting.accept(value.trim());
+			} catch (NumberFormatException e) {
+				API_LOG.warn("Ignoring {} as {} is not a number", variable, value);
+			}
+		}
 	}
 }
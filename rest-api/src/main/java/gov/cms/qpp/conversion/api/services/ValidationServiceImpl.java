@@ -23,6 +23,7 @@ import org.springframework.web.client.RestTemplate;
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.conversion.api.model.ErrorMessage;
+import gov.cms.qpp.conversion.correlation.CorrelationIndex;
 import gov.cms.qpp.conversion.correlation.PathCorrelator;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.error.AllErrors;
@@ -132,7 +133,8 @@ public class ValidationServiceImpl implements ValidationService {
 	}
 
 	/**
-	 * Converts the QPP error returned from the validation API to QRDA3 errors
+	 * Converts the QPP error returned from the validation API to QRDA3 errors. The QPP is indexed once, and the
+	 * path of every detail is looked up in that index.
 	 *
 	 * @param validationResponse The JSON response containing a QPP error.
 	 * @param wrapper The QPP that resulted in the QPP error.
@@ -141,9 +143,10 @@ public class ValidationServiceImpl implements ValidationService {
 	AllErrors convertQppValidationErrorsToQrda(String validationResponse, JsonWrapper wrapper) {
 		AllErrors errors = new AllErrors();
 		Error error = getError(validationResponse);
+		CorrelationIndex index = CorrelationIndex.of(wrapper);
 
 		error.getDetails().forEach(detail -> {
-			String newPath = PathCorrelator.prepPath(detail.getPath(), wrapper);
+			String newPath = PathCorrelator.prepPath(detail.getPath(), index);
 			detail.setPath(newPath);
 		});
 
@@ -25,7 +25,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -77,11 +79,14 @@ class QrdaControllerV1Test {
 		when(auditService.success(any(Converter.ConversionReport.class)))
 				.then(invocation -> null);
 
-		ResponseEntity qppResponse = objectUnderTest.uploadQrdaFile(multipartFile);
+		MockHttpServletResponse qppResponse = new MockHttpServletResponse();
+		objectUnderTest.uploadQrdaFile(multipartFile, qppResponse);
 
 		verify(qrdaService, atLeastOnce()).convertQrda3ToQpp(any(Source.class));
 
-		assertThat(qppResponse.getBody())
+		assertThat(qppResponse.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+		assertThat(qppResponse.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_UTF8_VALUE);
+		assertThat(new String(qppResponse.getContentAsByteArray(), StandardCharsets.UTF_8))
 				.isEqualTo(report.getEncoded().toString());
 	}
 
@@ -95,8 +100,9 @@ class QrdaControllerV1Test {
 			.when(validationService).validateQpp(isNull());
 
 		try {
-			ResponseEntity qppResponse = objectUnderTest.uploadQrdaFile(multipartFile);
-			Assertions.fail("An exception should have occurred. Instead was " + qppResponse);
+			MockHttpServletResponse qppResponse = new MockHttpServletResponse();
+			objectUnderTest.uploadQrdaFile(multipartFile, qppResponse);
+			Assertions.fail("An exception should have occurred. Instead was " + qppResponse.getStatus());
 		} catch(TransformException exception) {
 			assertThat(exception.getMessage())
 					.isEqualTo(transformationErrorMessage);
@@ -3,6 +3,7 @@ package gov.cms.qpp.conversion.api.services;
 import gov.cms.qpp.conversion.Converter;
 import gov.cms.qpp.conversion.InputStreamSupplierSource;
 import gov.cms.qpp.conversion.Source;
+import gov.cms.qpp.conversion.api.model.Constants;
 import gov.cms.qpp.test.MockitoExtension;
 import gov.cms.qpp.conversion.encode.JsonWrapper;
 import gov.cms.qpp.conversion.model.error.AllErrors;
@@ -59,6 +60,50 @@ class QrdaServiceImplTest {
 		assertThat(allErrors.getErrors().get(0).getSourceIdentifier()).isSameAs(MOCK_ERROR_SOURCE_IDENTIFIER);
 	}
 
+	@Test
+	void testInitConverterWithMaxValidationErrors() {
+		System.setProperty(Constants.MAX_VALIDATION_ERRORS_ENV_VARIABLE, "25");
+		try {
+			Converter converter = new QrdaServiceImpl().initConverter(MOCK_SUCCESS_QRDA_SOURCE);
+			assertThat(converter.getContext().getMaxValidationDetails()).isEqualTo(25);
+		} finally {
+			System.clearProperty(Constants.MAX_VALIDATION_ERRORS_ENV_VARIABLE);
+		}
+	}
+
+	@Test
+	void testInitConverterIgnoresInvalidMaxValidationErrors() {
+		System.setProperty(Constants.MAX_VALIDATION_ERRORS_ENV_VARIABLE, "many");
+		try {
+			Converter converter = new QrdaServiceImpl().initConverter(MOCK_SUCCESS_QRDA_SOURCE);
+			assertThat(converter.getContext().getMaxValidationDetails()).isEqualTo(0);
+		} finally {
+			System.clearProperty(Constants.MAX_VALIDATION_ERRORS_ENV_VARIABLE);
+		}
+	}
+
+	@Test
+	void testInitConverterWithBlockConversionThreshold() {
+		System.setProperty(Constants.BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE, "1048576");
+		try {
+			Converter converter = new QrdaServiceImpl().initConverter(MOCK_SUCCESS_QRDA_SOURCE);
+			assertThat(converter.getContext().getBlockConversionThreshold()).isEqualTo(1048576L);
+		} finally {
+			System.clearProperty(Constants.BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE);
+		}
+	}
+
+	@Test
+	void testInitConverterIgnoresInvalidBlockConversionThreshold() {
+		System.setProperty(Constants.BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE, "large");
+		try {
+			Converter converter = new QrdaServiceImpl().initConverter(MOCK_SUCCESS_QRDA_SOURCE);
+			assertThat(converter.getContext().getBlockConversionThreshold()).isEqualTo(0L);
+		} finally {
+			System.clearProperty(Constants.BLOCK_CONVERSION_THRESHOLD_ENV_VARIABLE);
+		}
+	}
+
 	@Test
 	void testPostConstructForCoverage() {
 		objectUnderTest.preloadMeasureConfigs();
@@ -75,7 +75,7 @@ class ValidationServiceImplTest {
 		pathToSubmissionError = Paths.get("src/test/resources/submissionErrorFixture.json");
 		pathToSubmissionDuplicateEntryError = Paths.get("src/test/resources/submissionDuplicateEntryErrorFixture.json");
 		Path toConvert = Paths.get("../qrda-files/valid-QRDA-III-latest.xml");
-		qppWrapper = new JsonWrapper(new Converter(new PathSource(toConvert)).transform(), false);
+		qppWrapper = new JsonWrapper(new Converter(new PathSource(toConvert)).transform());
 		prepAllErrors();
 	}
 